@@ -1,16 +1,21 @@
 package com.health.config;
 
+import com.health.security.CurrentUserArgumentResolver;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
 import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
+import java.util.List;
+
 @Configuration
 @RequiredArgsConstructor
 @Slf4j
 public class WebConfig implements WebMvcConfigurer {
     private final ApiResponseInterceptor apiResponseInterceptor;
+    private final CurrentUserArgumentResolver currentUserArgumentResolver;
 
     @Override
     public void addInterceptors(InterceptorRegistry registry) {
@@ -18,4 +23,9 @@ public class WebConfig implements WebMvcConfigurer {
                 .addPathPatterns("/health-service/**")
                 .excludePathPatterns("/health-service/auth/login", "/health-service/auth/register"); // Exclude auth endpoints from some processing
     }
+
+    @Override
+    public void addArgumentResolvers(List<HandlerMethodArgumentResolver> resolvers) {
+        resolvers.add(currentUserArgumentResolver);
+    }
 }
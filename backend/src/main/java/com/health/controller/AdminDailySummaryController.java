@@ -0,0 +1,39 @@
+package com.health.controller;
+
+import com.health.dto.common.ApiResponse;
+import com.health.exception.ValidationException;
+import com.health.service.DailySummaryService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDate;
+
+@RestController
+@RequestMapping("admin/daily-summaries")
+@RequiredArgsConstructor
+public class AdminDailySummaryController {
+    private final DailySummaryService dailySummaryService;
+
+    /**
+     * Backfill / repair the daily summary read model from raw meal logs and health records
+     */
+    @PostMapping("/rebuild")
+    @PreAuthorize("hasRole('ADMIN')")
+    public Object rebuild(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to
+    ) {
+        var end = to != null ? to : LocalDate.now();
+        if (from.isAfter(end)) {
+            throw new ValidationException("'from' must not be after 'to'");
+        }
+        var days = dailySummaryService.rebuild(from, end);
+        return ResponseEntity.ok(ApiResponse.success("Rebuilt daily summaries for " + days + " days"));
+    }
+}
@@ -2,6 +2,7 @@ package com.health.controller;
 
 import com.health.entity.Meal;
 import com.health.repository.MealRepository;
+import com.health.service.RecommendationCatalog;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.transaction.annotation.Transactional;
@@ -14,6 +15,7 @@ import java.util.Optional;
 @RequiredArgsConstructor
 public class AdminMealController {
     private final MealRepository mealRepository;
+    private final RecommendationCatalog recommendationCatalog;
 
     @GetMapping
     @Transactional(readOnly = true)
@@ -31,6 +33,7 @@ public class AdminMealController {
             return ResponseEntity.badRequest().body("Meal name cannot be empty");
         }
         Meal saved = mealRepository.save(meal);
+        recommendationCatalog.refreshAfterCommit();
         return ResponseEntity.ok(saved);
     }
 
@@ -58,6 +61,7 @@ public class AdminMealController {
         if (meal.getIsActive() != null) existing.setIsActive(meal.getIsActive());
 
         Meal updated = mealRepository.save(existing);
+        recommendationCatalog.refreshAfterCommit();
         return ResponseEntity.ok(updated);
     }
 
@@ -75,6 +79,7 @@ public class AdminMealController {
         Meal meal = existingOpt.get();
         meal.setIsActive(false);
         mealRepository.save(meal);
+        recommendationCatalog.refreshAfterCommit();
 
         return ResponseEntity.ok("Meal deactivated successfully");
     }
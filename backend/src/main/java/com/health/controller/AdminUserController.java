@@ -27,7 +27,7 @@ public class AdminUserController {
         List<User> users = userRepository.findByIsActiveTrueAndRole(Role.USER);
 
         return users.stream().map(user -> {
-            UserProfile profile = userProfileRepo.findByUser(user).orElse(null);
+            UserProfile profile = userProfileRepo.findByUserId(user.getId()).orElse(null);
 
             return UserOverviewDTO.builder()
                     .id(user.getId())
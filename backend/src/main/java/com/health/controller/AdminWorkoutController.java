@@ -2,6 +2,7 @@ package com.health.controller;
 
 import com.health.entity.WorkoutType;
 import com.health.repository.WorkoutTypeRepository;
+import com.health.service.RecommendationCatalog;
 import lombok.RequiredArgsConstructor;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
@@ -15,6 +16,7 @@ import java.util.regex.Pattern;
 @RequiredArgsConstructor
 public class AdminWorkoutController {
     private final WorkoutTypeRepository workoutTypeRepository;
+    private final RecommendationCatalog recommendationCatalog;
 
     @GetMapping
     @Transactional(readOnly = true)
@@ -34,7 +36,9 @@ public class AdminWorkoutController {
             workoutType.setUrl(convertToEmbedUrl(workoutType.getUrl()));
         }
 
-        return workoutTypeRepository.save(workoutType);
+        var saved = workoutTypeRepository.save(workoutType);
+        recommendationCatalog.refreshAfterCommit();
+        return saved;
     }
 
     @PatchMapping("/{id}")
@@ -59,7 +63,9 @@ public class AdminWorkoutController {
             existing.setUrl(convertToEmbedUrl(workoutType.getUrl()));
         }
 
-        return workoutTypeRepository.save(existing);
+        var saved = workoutTypeRepository.save(existing);
+        recommendationCatalog.refreshAfterCommit();
+        return saved;
     }
 
     @DeleteMapping("/{id}")
@@ -73,6 +79,7 @@ public class AdminWorkoutController {
         WorkoutType workout = existingOpt.get();
         workout.setIsActive(false);
         workoutTypeRepository.save(workout);
+        recommendationCatalog.refreshAfterCommit();
 
         return "Workout deactivated successfully";
     }
@@ -3,10 +3,16 @@ package com.health.controller;
 import com.health.dto.auth.LoginRequest;
 import com.health.dto.auth.RefreshTokenRequest;
 import com.health.dto.auth.RegisterRequest;
+import com.health.dto.common.MessageResponse;
+import com.health.exception.UnauthorizedException;
+import com.health.security.LoginRateLimiter;
 import com.health.service.AuthService;
+import com.health.util.NetworkUtils;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PostMapping;
@@ -14,6 +20,8 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.util.Set;
+
 @RestController
 @RequiredArgsConstructor
 @Slf4j
@@ -21,9 +29,19 @@ import org.springframework.web.bind.annotation.RestController;
 public class AuthController {
 
     private final AuthService authService;
+    private final LoginRateLimiter loginRateLimiter;
+
+    @Value("${security.login-throttle.trust-forwarded-for:false}")
+    private boolean trustForwardedFor;
+
+    // Exact addresses of reverse proxies allowed to append to X-Forwarded-For
+    @Value("${security.login-throttle.trusted-proxies:}")
+    private Set<String> trustedProxies;
 
     @PostMapping("/register")
-    public Object register(@Valid @RequestBody RegisterRequest request) {
+    public Object register(@Valid @RequestBody RegisterRequest request, HttpServletRequest httpRequest) {
+        loginRateLimiter.acquire(request.getEmail(),
+                NetworkUtils.getClientIp(httpRequest, trustForwardedFor, trustedProxies));
         try {
             return ResponseEntity.status(HttpStatus.CREATED).body(authService.register(request));
         } catch (Exception e) {
@@ -33,9 +51,17 @@ public class AuthController {
     }
 
     @PostMapping("/login")
-    public Object loginUser(@Valid @RequestBody LoginRequest request) {
+    public Object loginUser(@Valid @RequestBody LoginRequest request, HttpServletRequest httpRequest) {
+        var clientIp = NetworkUtils.getClientIp(httpRequest, trustForwardedFor, trustedProxies);
+        loginRateLimiter.acquire(request.getEmail(), clientIp);
         try {
-            return ResponseEntity.ok(authService.login(request, null));
+            var response = authService.login(request, null);
+            loginRateLimiter.recordSuccess(request.getEmail(), clientIp);
+            return ResponseEntity.ok(response);
+        } catch (UnauthorizedException e) {
+            loginRateLimiter.recordFailure(request.getEmail(), clientIp);
+            log.error("Login failed for email {}: {}", request.getEmail(), e.getMessage());
+            throw e;
         } catch (Exception e) {
             log.error("Login failed for email {}: {}", request.getEmail(), e.getMessage());
             throw e;
@@ -43,9 +69,17 @@ public class AuthController {
     }
 
     @PostMapping("/login-admin")
-    public Object loginAdmin(@Valid @RequestBody LoginRequest request) {
+    public Object loginAdmin(@Valid @RequestBody LoginRequest request, HttpServletRequest httpRequest) {
+        var clientIp = NetworkUtils.getClientIp(httpRequest, trustForwardedFor, trustedProxies);
+        loginRateLimiter.acquire(request.getEmail(), clientIp);
         try {
-            return ResponseEntity.ok(authService.login(request, Boolean.TRUE));
+            var response = authService.login(request, Boolean.TRUE);
+            loginRateLimiter.recordSuccess(request.getEmail(), clientIp);
+            return ResponseEntity.ok(response);
+        } catch (UnauthorizedException e) {
+            loginRateLimiter.recordFailure(request.getEmail(), clientIp);
+            log.error("Login admin failed for email {}: {}", request.getEmail(), e.getMessage());
+            throw e;
         } catch (Exception e) {
             log.error("Login admin failed for email {}: {}", request.getEmail(), e.getMessage());
             throw e;
@@ -61,4 +95,10 @@ public class AuthController {
             throw e;
         }
     }
+
+    @PostMapping("/logout")
+    public Object logout(@Valid @RequestBody RefreshTokenRequest request) {
+        authService.logout(request.getRefreshToken());
+        return ResponseEntity.ok(MessageResponse.of("Logged out successfully"));
+    }
 }
\ No newline at end of file
@@ -0,0 +1,46 @@
+package com.health.controller;
+
+import com.health.dto.DailySummaryDTO;
+import com.health.dto.common.ApiResponse;
+import com.health.exception.ValidationException;
+import com.health.repository.DailyUserSummaryRepository;
+import com.health.security.CurrentUser;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+
+@RestController
+@RequestMapping("/daily-summaries")
+@RequiredArgsConstructor
+public class DailySummaryController {
+    private static final int MAX_RANGE_DAYS = 366;
+
+    private final DailyUserSummaryRepository dailyUserSummaryRepository;
+
+    @GetMapping("/my")
+    @Transactional(readOnly = true)
+    public Object getMySummaries(
+            @CurrentUser Long userId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to
+    ) {
+        var end = to != null ? to : LocalDate.now();
+        var start = from != null ? from : end.minusDays(6);
+        if (start.isAfter(end) || ChronoUnit.DAYS.between(start, end) >= MAX_RANGE_DAYS) {
+            throw new ValidationException("Date range must be ascending and at most " + MAX_RANGE_DAYS + " days");
+        }
+        var summaries = dailyUserSummaryRepository.findByUserIdAndDateBetweenOrderByDateAsc(userId, start, end)
+                .stream()
+                .map(DailySummaryDTO::mapToDto)
+                .toList();
+        return ResponseEntity.ok(ApiResponse.success(summaries));
+    }
+}
@@ -0,0 +1,36 @@
+package com.health.controller;
+
+import com.health.dto.common.ApiResponse;
+import com.health.exception.ValidationException;
+import com.health.security.CurrentUser;
+import com.health.service.DayViewService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+
+@RestController
+@RequestMapping("/days")
+@RequiredArgsConstructor
+public class DayController {
+    private final DayViewService dayViewService;
+
+    /**
+     * The day's meal logs, health record, workout sessions and calorie balance in one response
+     */
+    @GetMapping("/{date}")
+    public Object getDay(@CurrentUser Long userId, @PathVariable String date) {
+        LocalDate day;
+        try {
+            day = LocalDate.parse(date);
+        } catch (DateTimeParseException e) {
+            throw new ValidationException("Invalid date (must be yyyy-MM-dd)");
+        }
+        return ResponseEntity.ok(ApiResponse.success(dayViewService.getDay(userId, day)));
+    }
+}
@@ -1,101 +1,108 @@
 package com.health.controller;
 
 import com.health.dto.HealthRecordRequestDTO;
-import com.health.dto.admin.HealthRecordResponse;
 import com.health.dto.common.ApiResponse;
-import com.health.entity.HealthRecord;
-import com.health.exception.UnauthorizedException;
-import com.health.repository.HealthRecordRepository;
-import com.health.repository.UserProfileRepo;
-import com.health.repository.UserRepository;
+import com.health.security.CurrentUser;
+import com.health.service.HealthImportService;
+import com.health.service.HealthRecordService;
+import com.health.service.HealthStatsService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.annotation.AuthenticationPrincipal;
-import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
 import java.time.LocalDate;
-import java.util.List;
 
 @RestController
 @RequestMapping("/health-records")
 @RequiredArgsConstructor
 public class HealthRecordController {
 
-    private final HealthRecordRepository healthRecordRepository;
-    private final UserRepository userRepository;
-    private final UserProfileRepo userProfileRepo;
+    private final HealthRecordService healthRecordService;
+    private final HealthImportService healthImportService;
+    private final HealthStatsService healthStatsService;
 
     @GetMapping("/my")
-    @Transactional(readOnly = true)
-    public Object getMyRecords(Authentication authentication) {
-        if (authentication == null || !authentication.isAuthenticated()) {
-            return ResponseEntity.status(401).body("Unauthorized");
-        }
-        var user = userRepository.findByEmail(authentication.getName()).orElseThrow(() -> new UnauthorizedException("User not found"));
-        return healthRecordRepository.findByUserOrderByDateDesc(user).stream()
-                .map(HealthRecordResponse::mapToDto)
-                .toList();
+    public Object getMyRecords(@CurrentUser Long userId) {
+        return healthRecordService.getRecords(userId);
+    }
+
+    /**
+     * Min, max, average, count and moving average of one metric per day, week or month.
+     * Defaults to the last 30 days by day with a 7-bucket moving average.
+     */
+    @GetMapping("/stats")
+    public Object getStats(
+            @CurrentUser Long userId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam String metric,
+            @RequestParam(defaultValue = "day") String bucket,
+            @RequestParam(defaultValue = "7") int window
+    ) {
+        var end = to != null ? to : LocalDate.now();
+        var start = from != null ? from : end.minusDays(29);
+        var stats = healthStatsService.stats(userId, HealthStatsService.Metric.fromParam(metric),
+                HealthStatsService.Bucket.fromParam(bucket), start, end, window);
+        return ResponseEntity.ok(ApiResponse.success(stats));
+    }
+
+    /**
+     * Chart series of one metric, dated in epoch days; {@code maxPoints} downsamples it with LTTB, keeping peaks.
+     * Defaults to the last 365 days.
+     */
+    @GetMapping("/series")
+    public Object getSeries(
+            @CurrentUser Long userId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam String metric,
+            @RequestParam(required = false) Integer maxPoints
+    ) {
+        var end = to != null ? to : LocalDate.now();
+        var start = from != null ? from : end.minusDays(364);
+        var series = healthStatsService.series(userId, HealthStatsService.Metric.fromParam(metric), start, end, maxPoints);
+        return ResponseEntity.ok(ApiResponse.success(series));
     }
 
     @PostMapping
-    @Transactional
     public Object addRecord(
-            Authentication authentication,
+            @CurrentUser Long userId,
             @RequestBody HealthRecordRequestDTO record
     ) {
-        if (authentication == null || !authentication.isAuthenticated()) {
-            return ResponseEntity.status(401).body("Unauthorized");
-        }
-        var user = userRepository.findByEmail(authentication.getName())
-                .orElseThrow(() -> new UnauthorizedException("User not found"));
         LocalDate date = record.getDate() != null ? record.getDate() : LocalDate.now();
-        var existingOpt = healthRecordRepository.findByUserAndDate(user, date);
-        HealthRecord target;
-        boolean isUpdate = false;
-
-        if (existingOpt.isPresent()) {
-            // UPDATE
-            target = existingOpt.get();
-            isUpdate = true;
-
-            target.setCaloriesBurned(record.getCaloriesBurned());
-            target.setDistance(record.getDistance());
-            target.setSteps(record.getSteps());
-            target.setWeight(record.getWeight());
-            target.setHeartRate(record.getHeartRate());
-            target.setSleepHours(record.getSleepHours());
-            target.setNote(record.getNote());
-        } else {
-            // CREATE NEW
-            target = new HealthRecord();
-            target.setUser(user);
-            target.setDate(date);
-            target.setWeight(record.getWeight());
-            target.setHeartRate(record.getHeartRate());
-            target.setSleepHours(record.getSleepHours());
-            target.setCaloriesBurned(record.getCaloriesBurned());
-            target.setDistance(record.getDistance());
-            target.setSteps(record.getSteps());
-            target.setNote(record.getNote());
+        if (record.getWeight() == null) {
+            return ResponseEntity.badRequest().body("Weight is required");
         }
 
-        // ==== TÍNH BMI ====
-        if (target.getWeight() != null &&
-                user.getProfile().getHeightCm() != null &&
-                user.getProfile().getHeightCm().doubleValue() > 0) {
-
-            double heightM = user.getProfile().getHeightCm().doubleValue() / 100.0;
-            double bmi = target.getWeight() / (heightM * heightM);
-            target.setBmi(Math.round(bmi * 100.0) / 100.0);
-        }
-
-        healthRecordRepository.save(target);
+        // ==== UPSERT theo (user, date) trong 1 câu lệnh ====
+        var created = healthRecordService.upsert(userId, date, record);
 
         return ResponseEntity.ok(
-                ApiResponse.success(isUpdate ? "Updated existing record" : "Created new record")
+                ApiResponse.success(created ? "Created new record" : "Updated existing record")
         );
     }
-}
 
+    /**
+     * Start an asynchronous import of exported health history (.csv with a header row, or a .json array).
+     * Poll GET /health-records/import/{jobId} for progress.
+     */
+    @PostMapping(value = "/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public Object importRecords(@CurrentUser Long userId, @RequestParam("file") MultipartFile file) throws IOException {
+        return ResponseEntity.accepted().body(ApiResponse.success(healthImportService.submit(userId, file)));
+    }
+
+    @GetMapping("/import/{jobId}")
+    public Object getImportJob(@CurrentUser Long userId, @PathVariable String jobId) {
+        return ResponseEntity.ok(ApiResponse.success(healthImportService.getJob(userId, jobId)));
+    }
+
+    @DeleteMapping("/{id}")
+    public Object deleteRecord(@CurrentUser Long userId, @PathVariable Long id) {
+        healthRecordService.delete(userId, id);
+        return ResponseEntity.ok(ApiResponse.success("Deleted record"));
+    }
+}
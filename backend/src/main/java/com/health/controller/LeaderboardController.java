@@ -0,0 +1,32 @@
+package com.health.controller;
+
+import com.health.dto.common.ApiResponse;
+import com.health.entity.Goal;
+import com.health.security.CurrentUser;
+import com.health.service.LeaderboardService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/leaderboards")
+@RequiredArgsConstructor
+public class LeaderboardController {
+    private final LeaderboardService leaderboardService;
+
+    /**
+     * Top users and the caller's rank for the current week or month; {@code goal} narrows to users with that goal.
+     */
+    @GetMapping
+    public Object getLeaderboard(
+            @CurrentUser Long userId,
+            @RequestParam(defaultValue = "steps") String metric,
+            @RequestParam(defaultValue = "week") String period,
+            @RequestParam(required = false) Goal goal,
+            @RequestParam(defaultValue = "10") int limit
+    ) {
+        var leaderboard = leaderboardService.leaderboard(userId, LeaderboardService.Metric.fromParam(metric),
+                LeaderboardService.Period.fromParam(period), goal, limit);
+        return ResponseEntity.ok(ApiResponse.success(leaderboard));
+    }
+}
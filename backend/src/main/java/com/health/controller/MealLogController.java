@@ -1,75 +1,112 @@
 package com.health.controller;
 
+import com.health.dto.MealLogBatchRequest;
 import com.health.dto.MealLogRequestDTO;
 import com.health.dto.MealLogResponseDTO;
 import com.health.dto.common.ApiResponse;
-import com.health.entity.Meal;
-import com.health.entity.MealLog;
-import com.health.exception.UnauthorizedException;
+import com.health.dto.common.CursorPage;
+import com.health.exception.ValidationException;
 import com.health.repository.MealLogRepository;
-import com.health.repository.MealRepository;
-import com.health.repository.UserRepository;
+import com.health.repository.UserProfileRepo;
+import com.health.security.CurrentUser;
+import com.health.service.MealLogService;
+import com.health.util.KeysetCursor;
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.Authentication;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
 
+import java.math.BigDecimal;
 import java.time.LocalDate;
-import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
 
 @RestController
 @RequestMapping("/meal-logs")
 @RequiredArgsConstructor
 public class MealLogController {
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int MAX_PAGE_SIZE = 200;
+    // Bounds used when the client omits from/to (valid MySQL DATE values)
+    private static final LocalDate MIN_DATE = LocalDate.of(1970, 1, 1);
+    private static final LocalDate MAX_DATE = LocalDate.of(9999, 12, 31);
+    private static final int MAX_TOTALS_RANGE_DAYS = 366;
+
     private final MealLogRepository mealLogRepository;
-    private final MealRepository mealRepository;
-    private final UserRepository userRepository;
+    private final MealLogService mealLogService;
+    private final UserProfileRepo userProfileRepo;
 
     @GetMapping("/my")
     @Transactional(readOnly = true)
-    public ResponseEntity<?> getMyMealLogs(Authentication authentication) {
-
-        if (authentication == null || !authentication.isAuthenticated()) {
-            return ResponseEntity.status(401).body("Unauthorized");
+    public ResponseEntity<?> getMyMealLogs(
+            @CurrentUser Long userId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + DEFAULT_PAGE_SIZE) int size
+    ) {
+        var start = from != null ? from : MIN_DATE;
+        var end = to != null ? to : MAX_DATE;
+        var pageSize = Math.min(Math.max(size, 1), MAX_PAGE_SIZE);
+        // Fetch one extra row to know whether another page exists
+        var limit = PageRequest.ofSize(pageSize + 1);
+
+        List<MealLogResponseDTO> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = mealLogRepository.findPageByUserId(userId, start, end, limit);
+        } else {
+            var after = KeysetCursor.decode(cursor);
+            rows = mealLogRepository.findPageByUserIdAfter(userId, start, end, after.date(), after.id(), limit);
         }
 
-        var user = userRepository.findByEmail(authentication.getName())
-                .orElseThrow(() -> new UnauthorizedException("User not found"));
-
-        List<MealLog> logs = mealLogRepository.findByUserOrderByDateDesc(user);
-
-        List<MealLogResponseDTO> response = logs.stream().map(log ->
-                new MealLogResponseDTO(
-                        log.getId(),
-                        log.getDate().toString(),
-                        log.getMealType().name(),
-                        log.getMeal().getName(),
-                        log.getMeal().getCalories(),
-                        log.getQuantity(),
-                        log.getTotalCalories(),
-                        log.getNote()
-                )
-        ).toList();
+        var hasNext = rows.size() > pageSize;
+        var content = hasNext ? rows.subList(0, pageSize) : rows;
+        String nextCursor = null;
+        if (hasNext) {
+            var last = content.get(content.size() - 1);
+            nextCursor = new KeysetCursor(LocalDate.parse(last.getDate()), last.getId()).encode();
+        }
 
-        return ResponseEntity.ok(ApiResponse.success(response));
+        var page = CursorPage.<MealLogResponseDTO>builder()
+                .content(content)
+                .size(pageSize)
+                .nextCursor(nextCursor)
+                .hasNext(hasNext)
+                .build();
+        return ResponseEntity.ok(ApiResponse.success(page));
     }
 
+    /**
+     * Per-day calories and macros in [from, to] (default: the last 7 days), compared with the profile's TDEE.
+     * Days without meal logs are omitted.
+     */
+    @GetMapping("/daily-totals")
+    @Transactional(readOnly = true)
+    public Object getDailyTotals(
+            @CurrentUser Long userId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to
+    ) {
+        var end = to != null ? to : LocalDate.now();
+        var start = from != null ? from : end.minusDays(6);
+        if (start.isAfter(end) || ChronoUnit.DAYS.between(start, end) >= MAX_TOTALS_RANGE_DAYS) {
+            throw new ValidationException("Date range must be ascending and at most " + MAX_TOTALS_RANGE_DAYS + " days");
+        }
+        var tdee = userProfileRepo.findTdeeByUserId(userId).map(BigDecimal::doubleValue).orElse(null);
+        var totals = mealLogRepository.sumByDate(userId, start, end).stream()
+                .map(day -> day.compareWith(tdee))
+                .toList();
+        return ResponseEntity.ok(ApiResponse.success(totals));
+    }
 
     @PostMapping
-    @Transactional
     public Object addMealLog(
-            Authentication authentication,
+            @CurrentUser Long userId,
             @RequestBody MealLogRequestDTO dto
     ) {
-        if (authentication == null || !authentication.isAuthenticated()) {
-            return ResponseEntity.status(401).body("Unauthorized");
-        }
-
-        var user = userRepository.findByEmail(authentication.getName())
-                .orElseThrow(() -> new UnauthorizedException("User not found"));
-
         // === Parse date ===
         LocalDate date;
         try {
@@ -80,41 +117,29 @@ public class MealLogController {
             return ResponseEntity.badRequest().body("Invalid date (must be yyyy-MM-dd)");
         }
 
-        // === Meal ===
-        Meal meal = mealRepository.findById(dto.getMealId())
-                .orElseThrow(() -> new RuntimeException("Meal not found"));
-
-        // === Check existing (upsert) ===
-        var existingOpt = mealLogRepository.findByUserAndDateAndMealType(user, date, dto.getMealType());
-
-        MealLog log;
-        boolean isUpdate = false;
-
-        if (existingOpt.isPresent()) {
-            log = existingOpt.get();
-            isUpdate = true;
-        } else {
-            log = new MealLog();
-            log.setUser(user);
-            log.setDate(date);
-            log.setMealType(dto.getMealType());
-        }
-
-        // === Update fields ===
-        log.setMeal(meal);
-        log.setQuantity(dto.getQuantity());
-        log.setNote(dto.getNote());
-
-        // === Auto calculate calories ===
-        if (meal.getCalories() != null && dto.getQuantity() != null) {
-            log.setTotalCalories(meal.getCalories() * dto.getQuantity());
+        if (dto.getMealId() == null || dto.getMealType() == null || dto.getQuantity() == null) {
+            return ResponseEntity.badRequest().body("mealId, mealType and quantity are required");
         }
 
-        mealLogRepository.save(log);
+        // === Upsert theo (date, mealType) trong 1 câu lệnh ===
+        var created = mealLogService.upsert(userId, date, dto);
 
         return ResponseEntity.ok(
-                ApiResponse.success(isUpdate ? "Updated meal log" : "Added meal log")
+                ApiResponse.success(created ? "Added meal log" : "Updated meal log")
         );
     }
 
+    @DeleteMapping("/{id}")
+    public Object deleteMealLog(@CurrentUser Long userId, @PathVariable Long id) {
+        mealLogService.delete(userId, id);
+        return ResponseEntity.ok(ApiResponse.success("Deleted meal log"));
+    }
+
+    /**
+     * Bulk upsert of offline-captured meal logs (same slot semantics as POST /meal-logs)
+     */
+    @PostMapping("/batch")
+    public Object addMealLogs(@CurrentUser Long userId, @Valid @RequestBody MealLogBatchRequest request) {
+        return ResponseEntity.ok(ApiResponse.success(mealLogService.ingest(userId, request.getEntries())));
+    }
 }
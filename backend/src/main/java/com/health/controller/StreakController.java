@@ -0,0 +1,25 @@
+package com.health.controller;
+
+import com.health.dto.common.ApiResponse;
+import com.health.security.CurrentUser;
+import com.health.service.StreakService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/streaks")
+@RequiredArgsConstructor
+public class StreakController {
+    private final StreakService streakService;
+
+    /**
+     * Current and longest "days in a row" streaks for meals, health records and workouts
+     */
+    @GetMapping("/my")
+    public Object getMyStreaks(@CurrentUser Long userId) {
+        return ResponseEntity.ok(ApiResponse.success(streakService.getStreaks(userId)));
+    }
+}
@@ -0,0 +1,38 @@
+package com.health.controller;
+
+import com.health.dto.common.ApiResponse;
+import com.health.security.CurrentUser;
+import com.health.service.SyncService;
+import com.health.util.SyncCursor;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/sync")
+@RequiredArgsConstructor
+public class SyncController {
+    private static final int DEFAULT_PAGE_SIZE = 200;
+    private static final int MAX_PAGE_SIZE = 1000;
+
+    private final SyncService syncService;
+
+    /**
+     * Health records, meal logs and workout sessions created, updated or deleted after {@code since}, in
+     * change order. Omit {@code since} for a full first sync; keep calling with {@code nextCursor} while
+     * {@code hasMore} is true, then store it for the next foreground.
+     */
+    @GetMapping
+    public Object sync(
+            @CurrentUser Long userId,
+            @RequestParam(required = false) String since,
+            @RequestParam(defaultValue = "" + DEFAULT_PAGE_SIZE) int size
+    ) {
+        var cursor = since == null || since.isBlank() ? SyncCursor.START : SyncCursor.decode(since);
+        var pageSize = Math.min(Math.max(size, 1), MAX_PAGE_SIZE);
+        return ResponseEntity.ok(ApiResponse.success(syncService.changesSince(userId, cursor, pageSize)));
+    }
+}
@@ -1,27 +1,28 @@
 package com.health.controller;
 
-import com.health.dto.HomeUserDTO;
-import com.health.dto.admin.HealthRecordResponse;
-import com.health.dto.admin.MealDTO;
-import com.health.dto.admin.WorkoutTypeDTO;
 import com.health.dto.common.ApiResponse;
 import com.health.dto.user.ChangePasswordRequest;
 import com.health.dto.user.UpdateUserProfileRequest;
-import com.health.exception.UnauthorizedException;
-import com.health.repository.HealthRecordRepository;
-import com.health.repository.MealRepository;
-import com.health.repository.UserRepository;
-import com.health.repository.WorkoutTypeRepository;
+import com.health.exception.ValidationException;
+import com.health.security.CurrentUser;
+import com.health.service.ActivityCalendarService;
+import com.health.service.ExportService;
+import com.health.service.HomeService;
 import com.health.service.UserService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.Authentication;
-import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
+import java.util.Locale;
+import java.util.zip.GZIPOutputStream;
 
 @RestController
 @RequestMapping("/users")
@@ -29,68 +30,80 @@ import java.time.LocalDate;
 @Slf4j
 public class UserController {
     private final UserService userService;
-    private final UserRepository userRepository;
-    private final HealthRecordRepository healthRecordRepository;
-    private final WorkoutTypeRepository workoutTypeRepository;
-    private final MealRepository mealRepository;
+    private final HomeService homeService;
+    private final ExportService exportService;
+    private final ActivityCalendarService activityCalendarService;
 
     @GetMapping("my")
-    @Transactional(readOnly = true)
-    public Object getMyHome(Authentication authentication) {
-        if (authentication == null || !authentication.isAuthenticated()) {
-            return ResponseEntity.status(401).body("Unauthorized");
-        }
-        var user = userRepository.findByEmail(authentication.getName()).orElseThrow(() -> new UnauthorizedException("User not found"));
-        var yesterdayHealthRecord = healthRecordRepository.findByUserAndDate(user, LocalDate.now().minusDays(1))
-                .map(HealthRecordResponse::mapToDto)
-                .orElse(null);
-        var todayHealthRecord = healthRecordRepository.findByUserAndDate(user, LocalDate.now())
-                .map(HealthRecordResponse::mapToDto)
-                .orElse(null);
-        var weeklyDates = LocalDate.now().minusDays(6).datesUntil(LocalDate.now().plusDays(1)).toList();
-        var weeklyHealthRecords = healthRecordRepository.findAllByUserAndDateIn(user, weeklyDates)
-                .stream()
-                .map(HealthRecordResponse::mapToDto)
-                .toList();
-        var recommendedWorkouts = workoutTypeRepository.findAllByGoalAndIsActiveTrue(user.getProfile().getGoal())
-                .stream()
-                .map(WorkoutTypeDTO::new)
-                .toList();
-        var recommendedMeals = mealRepository.findAllByGoalAndIsActiveTrue(user.getProfile().getGoal())
-                .stream()
-                .map(MealDTO::new)
-                .toList();
-        var homeUserModel = HomeUserDTO.builder()
-                .yesterdaysHealthRecord(yesterdayHealthRecord)
-                .todayHealthRecord(todayHealthRecord)
-                .weeklyHealthRecords(weeklyHealthRecords)
-                .recommendedWorkouts(recommendedWorkouts)
-                .recommendedMeals(recommendedMeals)
-                .build();
-        return ResponseEntity.ok(ApiResponse.success(homeUserModel));
+    public Object getMyHome(@CurrentUser Long userId) {
+        return ResponseEntity.ok(ApiResponse.success(homeService.getHome(userId)));
     }
 
     @GetMapping("/profile")
-    public Object getUserProfile(Authentication authentication) {
-        if (authentication == null || !authentication.isAuthenticated()) {
-            return ResponseEntity.status(401).body("Unauthorized");
-        }
-        return ResponseEntity.ok(userService.getUserProfile(authentication.getName()));
+    public Object getUserProfile(@CurrentUser Long userId) {
+        return ResponseEntity.ok(userService.getUserProfile(userId));
     }
 
     @PutMapping("/profile")
-    public Object updateUserProfile(Authentication authentication, @Valid @RequestBody UpdateUserProfileRequest request) {
-        if (authentication == null || !authentication.isAuthenticated()) {
-            return ResponseEntity.status(401).body("Unauthorized");
-        }
-        return ResponseEntity.ok(userService.updateUserProfile(authentication.getName(), request));
+    public Object updateUserProfile(@CurrentUser Long userId, @Valid @RequestBody UpdateUserProfileRequest request) {
+        return ResponseEntity.ok(userService.updateUserProfile(userId, request));
     }
 
     @PutMapping("/change-password")
-    public Object changePassword(Authentication authentication, @Valid @RequestBody ChangePasswordRequest request) {
-        if (authentication == null || !authentication.isAuthenticated()) {
-            return ResponseEntity.status(401).body("Unauthorized");
+    public Object changePassword(@CurrentUser Long userId, @Valid @RequestBody ChangePasswordRequest request) {
+        return ResponseEntity.ok(userService.changePassword(userId, request));
+    }
+
+    /**
+     * Which days of {@code year} (default: this year) had meal logs, health records and workouts, as one
+     * 366-bit set per kind ({@code format=bits}, base64) or as run lengths ({@code format=rle}).
+     */
+    @GetMapping("/me/calendar")
+    public Object getMyCalendar(@CurrentUser Long userId,
+                                @RequestParam(required = false) Integer year,
+                                @RequestParam(defaultValue = "bits") String format) {
+        return ResponseEntity.ok(ApiResponse.success(activityCalendarService.getCalendar(userId,
+                year != null ? year : LocalDate.now().getYear(), ActivityCalendarService.Format.fromParam(format))));
+    }
+
+    /**
+     * Download the user's full history as NDJSON (one {@code {"type", "data"}} object per line) or CSV.
+     * The body is streamed from database cursors and gzip-compressed when the client accepts it.
+     */
+    @GetMapping("/me/export")
+    public ResponseEntity<StreamingResponseBody> export(
+            @CurrentUser Long userId,
+            @RequestParam(defaultValue = "ndjson") String format,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        ExportService.Format exportFormat;
+        try {
+            exportFormat = ExportService.Format.valueOf(format.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new ValidationException("format must be ndjson or csv");
+        }
+        var gzip = acceptEncoding != null && acceptEncoding.toLowerCase(Locale.ROOT).contains("gzip");
+        var filename = "health-export-" + LocalDate.now() + "." + exportFormat.name().toLowerCase(Locale.ROOT);
+
+        StreamingResponseBody body = out -> {
+            if (gzip) {
+                var compressed = new GZIPOutputStream(out, 64 * 1024);
+                exportService.export(userId, exportFormat, compressed);
+                compressed.finish();
+            } else {
+                exportService.export(userId, exportFormat, out);
+            }
+        };
+
+        var response = ResponseEntity.ok()
+                .contentType(exportFormat == ExportService.Format.CSV
+                        ? new MediaType("text", "csv", StandardCharsets.UTF_8)
+                        : new MediaType("application", "x-ndjson", StandardCharsets.UTF_8))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment().filename(filename).build().toString())
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
         }
-        return ResponseEntity.ok(userService.changePassword(authentication.getName(), request));
+        return response.body(body);
     }
 }
@@ -0,0 +1,48 @@
+package com.health.controller;
+
+import com.health.dto.WearableIngestRequest;
+import com.health.dto.common.ApiResponse;
+import com.health.entity.WearableMetric;
+import com.health.exception.ValidationException;
+import com.health.security.CurrentUser;
+import com.health.service.WearableService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.Instant;
+
+@RestController
+@RequestMapping("/wearables")
+@RequiredArgsConstructor
+public class WearableController {
+    private static final long DEFAULT_RANGE_SECONDS = 24 * 3600;
+    private static final long MAX_RANGE_SECONDS = 31 * 24 * 3600;
+
+    private final WearableService wearableService;
+
+    /**
+     * Append timestamped samples (epoch seconds) from a wearable, one columnar series per metric
+     */
+    @PostMapping("/samples")
+    public Object ingest(@CurrentUser Long userId, @Valid @RequestBody WearableIngestRequest request) {
+        return ResponseEntity.ok(ApiResponse.success(wearableService.ingest(userId, request.getSeries())));
+    }
+
+    @GetMapping("/samples")
+    public Object getSamples(
+            @CurrentUser Long userId,
+            @RequestParam WearableMetric metric,
+            @RequestParam(required = false) Long from,
+            @RequestParam(required = false) Long to,
+            @RequestParam(required = false) Integer maxPoints
+    ) {
+        var end = to != null ? to : Instant.now().getEpochSecond();
+        var start = from != null ? from : end - DEFAULT_RANGE_SECONDS;
+        if (start > end || end - start > MAX_RANGE_SECONDS) {
+            throw new ValidationException("Range must be ascending and at most 31 days");
+        }
+        return ResponseEntity.ok(ApiResponse.success(wearableService.query(userId, metric, start, end, maxPoints)));
+    }
+}
@@ -0,0 +1,88 @@
+package com.health.controller;
+
+import com.health.dto.WorkoutSessionBatchRequest;
+import com.health.dto.WorkoutSessionDTO;
+import com.health.dto.WorkoutSessionRequestDTO;
+import com.health.dto.common.ApiResponse;
+import com.health.dto.common.CursorPage;
+import com.health.repository.WorkoutSessionRepository;
+import com.health.security.CurrentUser;
+import com.health.service.WorkoutSessionService;
+import com.health.util.KeysetCursor;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@RestController
+@RequestMapping("/workout-sessions")
+@RequiredArgsConstructor
+public class WorkoutSessionController {
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int MAX_PAGE_SIZE = 200;
+    // Bounds used when the client omits from/to (valid MySQL DATE values)
+    private static final LocalDate MIN_DATE = LocalDate.of(1970, 1, 1);
+    private static final LocalDate MAX_DATE = LocalDate.of(9999, 12, 31);
+
+    private final WorkoutSessionRepository workoutSessionRepository;
+    private final WorkoutSessionService workoutSessionService;
+
+    @GetMapping("/my")
+    @Transactional(readOnly = true)
+    public ResponseEntity<?> getMySessions(
+            @CurrentUser Long userId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + DEFAULT_PAGE_SIZE) int size
+    ) {
+        var start = from != null ? from : MIN_DATE;
+        var end = to != null ? to : MAX_DATE;
+        var pageSize = Math.min(Math.max(size, 1), MAX_PAGE_SIZE);
+        // Fetch one extra row to know whether another page exists
+        var limit = PageRequest.ofSize(pageSize + 1);
+
+        List<WorkoutSessionDTO> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = workoutSessionRepository.findPageByUserId(userId, start, end, limit);
+        } else {
+            var after = KeysetCursor.decode(cursor);
+            rows = workoutSessionRepository.findPageByUserIdAfter(userId, start, end, after.date(), after.id(), limit);
+        }
+
+        var hasNext = rows.size() > pageSize;
+        var content = hasNext ? rows.subList(0, pageSize) : rows;
+        String nextCursor = null;
+        if (hasNext) {
+            var last = content.get(content.size() - 1);
+            nextCursor = new KeysetCursor(last.getDate(), last.getId()).encode();
+        }
+
+        var page = CursorPage.<WorkoutSessionDTO>builder()
+                .content(content)
+                .size(pageSize)
+                .nextCursor(nextCursor)
+                .hasNext(hasNext)
+                .build();
+        return ResponseEntity.ok(ApiResponse.success(page));
+    }
+
+    @PostMapping
+    public Object logSession(@CurrentUser Long userId, @RequestBody WorkoutSessionRequestDTO dto) {
+        return ResponseEntity.ok(ApiResponse.success(workoutSessionService.log(userId, dto)));
+    }
+
+    /**
+     * Bulk insert of offline-captured sessions
+     */
+    @PostMapping("/batch")
+    public Object logSessions(@CurrentUser Long userId, @Valid @RequestBody WorkoutSessionBatchRequest request) {
+        return ResponseEntity.ok(ApiResponse.success(workoutSessionService.ingest(userId, request.getEntries())));
+    }
+}
@@ -0,0 +1,32 @@
+package com.health.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.health.entity.StreakKind;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ActivityCalendarDTO {
+    private int year;
+    private int days;               // 365 or 366
+    private List<Activity> activities;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public static class Activity {
+        private StreakKind kind;
+        private int loggedDays;
+        private String bits;        // format=bits: base64 of 46 bytes, bit d - 1 (MSB first) = day-of-year d
+        private int[] runs;         // format=rle: alternating not-logged / logged run lengths from Jan 1
+    }
+}
@@ -0,0 +1,74 @@
+package com.health.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DailyNutritionDTO {
+    // Energy per gram of each macro (kcal)
+    private static final double KCAL_PER_GRAM_PROTEIN = 4;
+    private static final double KCAL_PER_GRAM_CARBS = 4;
+    private static final double KCAL_PER_GRAM_FAT = 9;
+
+    private LocalDate date;
+    private Double calories;
+    private Double protein;
+    private Double carbs;
+    private Double fat;
+    private Long mealCount;
+
+    // Comparison with the profile's TDEE (null when the profile has none)
+    private Double tdee;
+    private Double calorieBalance;
+    private Double tdeePercent;
+
+    // Share of macro energy, in percent
+    private Double proteinPercent;
+    private Double carbsPercent;
+    private Double fatPercent;
+
+    // Used by the JPQL constructor expression in MealLogRepository.sumByDate
+    public DailyNutritionDTO(LocalDate date, Double calories, Double protein, Double carbs, Double fat,
+                             Long mealCount) {
+        this.date = date;
+        this.calories = valueOrZero(calories);
+        this.protein = valueOrZero(protein);
+        this.carbs = valueOrZero(carbs);
+        this.fat = valueOrZero(fat);
+        this.mealCount = mealCount;
+
+        var proteinKcal = this.protein * KCAL_PER_GRAM_PROTEIN;
+        var carbsKcal = this.carbs * KCAL_PER_GRAM_CARBS;
+        var fatKcal = this.fat * KCAL_PER_GRAM_FAT;
+        var macroKcal = proteinKcal + carbsKcal + fatKcal;
+        if (macroKcal > 0) {
+            this.proteinPercent = round(proteinKcal * 100 / macroKcal);
+            this.carbsPercent = round(carbsKcal * 100 / macroKcal);
+            this.fatPercent = round(fatKcal * 100 / macroKcal);
+        }
+    }
+
+    public DailyNutritionDTO compareWith(Double tdee) {
+        if (tdee != null && tdee > 0) {
+            this.tdee = tdee;
+            this.calorieBalance = round(calories - tdee);
+            this.tdeePercent = round(calories * 100 / tdee);
+        }
+        return this;
+    }
+
+    private static double valueOrZero(Double value) {
+        return value != null ? value : 0;
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 10) / 10.0;
+    }
+}
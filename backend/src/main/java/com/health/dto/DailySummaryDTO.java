@@ -0,0 +1,43 @@
+package com.health.dto;
+
+import com.health.entity.DailyUserSummary;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DailySummaryDTO {
+    private LocalDate date;
+    private Double caloriesConsumed;
+    private Double protein;
+    private Double carbs;
+    private Double fat;
+    private Integer caloriesBurned;
+    private Integer steps;
+    private Double sleepHours;
+    private Double weight;
+    private boolean mealLogged;
+    private boolean healthLogged;
+
+    public static DailySummaryDTO mapToDto(DailyUserSummary s) {
+        return DailySummaryDTO.builder()
+                .date(s.getDate())
+                .caloriesConsumed(s.getCaloriesConsumed())
+                .protein(s.getProteinGrams())
+                .carbs(s.getCarbsGrams())
+                .fat(s.getFatGrams())
+                .caloriesBurned(s.getCaloriesBurned())
+                .steps(s.getSteps())
+                .sleepHours(s.getSleepHours())
+                .weight(s.getWeight())
+                .mealLogged(s.hasFlag(DailyUserSummary.FLAG_MEAL))
+                .healthLogged(s.hasFlag(DailyUserSummary.FLAG_HEALTH))
+                .build();
+    }
+}
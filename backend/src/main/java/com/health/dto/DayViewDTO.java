@@ -0,0 +1,47 @@
+package com.health.dto;
+
+import com.health.dto.admin.HealthRecordResponse;
+import com.health.entity.MealType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DayViewDTO {
+    private LocalDate date;
+    private List<Meal> meals;
+    private HealthRecordResponse healthRecord;      // null when the day has no record
+    private List<WorkoutSessionDTO> workouts;
+
+    private double caloriesConsumed;
+    private double protein;
+    private double carbs;
+    private double fat;
+    private double caloriesBurned;                  // health record + workout sessions
+    private double calorieBalance;                  // consumed - burned
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class Meal {
+        private Long id;
+        private MealType mealType;
+        private Long mealId;
+        private String mealName;
+        private Double caloriesPerUnit;
+        private Double quantity;
+        private Double totalCalories;
+        private Double totalProtein;
+        private Double totalCarbs;
+        private Double totalFat;
+        private String note;
+    }
+}
@@ -0,0 +1,31 @@
+package com.health.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class HealthImportJobDTO {
+    public enum Status {QUEUED, RUNNING, COMPLETED, FAILED}
+
+    private String id;
+    private Status status;
+    private String format;
+    private long totalBytes;
+    private long bytesRead;
+    private int progressPercent;
+    private long rowsRead;
+    private long rowsImported;
+    private long rowsRejected;
+    // First rejected rows and, for a failed job, the reason
+    private List<String> errors;
+    private LocalDateTime createdAt;
+    private LocalDateTime finishedAt;
+}
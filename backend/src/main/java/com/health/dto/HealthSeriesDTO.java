@@ -0,0 +1,26 @@
+package com.health.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * Columnar series of one health metric: {@code values[i]} was recorded on {@code dates[i]}, an epoch day
+ * (days since 1970-01-01, as in {@link LocalDate#toEpochDay()}).
+ * {@code totalPoints} is the size of the series before downsampling.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class HealthSeriesDTO {
+    private String metric;
+    private LocalDate from;
+    private LocalDate to;
+    private int totalPoints;
+    private int[] dates;
+    private double[] values;
+}
@@ -0,0 +1,45 @@
+package com.health.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Statistics of one health metric over {@code [from, to]}: the whole range plus one entry per bucket that has
+ * data. {@code movingAvg} is the mean of all readings in the bucket and the {@code window - 1} calendar
+ * buckets before it (within the range); buckets without data inside that span count as empty, they do not
+ * stretch the window further back.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class HealthStatsDTO {
+    private String metric;
+    private String bucket;
+    private LocalDate from;
+    private LocalDate to;
+    private int window;
+    private long count;
+    private Double min;
+    private Double max;
+    private Double avg;
+    private List<Bucket> buckets;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class Bucket {
+        private LocalDate start;
+        private long count;
+        private Double min;
+        private Double max;
+        private Double avg;
+        private Double movingAvg;
+    }
+}
@@ -0,0 +1,39 @@
+package com.health.dto;
+
+import com.health.entity.Goal;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Top entries of one leaderboard for the current period. {@code goal} is null for the global board and
+ * {@code me} is null when the caller has no score yet.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class LeaderboardDTO {
+    private String metric;
+    private String period;
+    private Goal goal;
+    private LocalDate periodStart;
+    private LocalDate periodEnd;
+    private int totalUsers;
+    private List<Entry> top;
+    private Entry me;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Entry {
+        private int rank;
+        private Long userId;
+        private String fullName;
+        private double score;
+    }
+}
@@ -0,0 +1,16 @@
+package com.health.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class MealLogBatchRequest {
+    @NotEmpty(message = "Entries cannot be empty")
+    @Size(max = 1000, message = "At most 1000 entries per batch")
+    @Valid
+    private List<MealLogRequestDTO> entries;
+}
@@ -0,0 +1,16 @@
+package com.health.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class MealLogBatchResponse {
+    private int received;   // entries in the request
+    private int created;
+    private int updated;    // (date, mealType) slots that already had a log
+}
@@ -1,8 +1,12 @@
 package com.health.dto;
 
+import com.health.entity.MealLog;
+import com.health.entity.MealType;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 
+import java.time.LocalDate;
+
 @Data
 @AllArgsConstructor
 public class MealLogResponseDTO {
@@ -14,4 +18,15 @@ public class MealLogResponseDTO {
     private Double quantity;
     private Double totalCalories;
     private String note;
+
+    // JPQL constructor expression: select new ...(l.id, l.date, l.mealType, m.name, m.calories, ...)
+    public MealLogResponseDTO(Long id, LocalDate date, MealType mealType, String mealName,
+                              Double caloriesPerUnit, Double quantity, Double totalCalories, String note) {
+        this(id, date.toString(), mealType.name(), mealName, caloriesPerUnit, quantity, totalCalories, note);
+    }
+
+    public static MealLogResponseDTO mapToDto(MealLog l) {
+        return new MealLogResponseDTO(l.getId(), l.getDate(), l.getMealType(), l.getMeal().getName(),
+                l.getMeal().getCalories(), l.getQuantity(), l.getTotalCalories(), l.getNote());
+    }
 }
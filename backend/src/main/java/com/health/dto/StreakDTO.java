@@ -0,0 +1,39 @@
+package com.health.dto;
+
+import com.health.entity.StreakKind;
+import com.health.entity.UserStreak;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StreakDTO {
+    private StreakKind kind;
+    private int currentStreak;      // 0 unless the run reaches today or yesterday
+    private int longestStreak;
+    private LocalDate lastLoggedDate;
+    private boolean loggedToday;
+
+    public static StreakDTO of(StreakKind kind, UserStreak streak, LocalDate today) {
+        if (streak == null || streak.getLastLoggedDate() == null) {
+            return StreakDTO.builder()
+                    .kind(kind)
+                    .longestStreak(streak != null ? streak.getLongestStreak() : 0)
+                    .build();
+        }
+        var last = streak.getLastLoggedDate();
+        return StreakDTO.builder()
+                .kind(kind)
+                .currentStreak(last.isBefore(today.minusDays(1)) ? 0 : streak.getCurrentStreak())
+                .longestStreak(streak.getLongestStreak())
+                .lastLoggedDate(last)
+                .loggedToday(!last.isBefore(today))
+                .build();
+    }
+}
@@ -0,0 +1,22 @@
+package com.health.dto;
+
+import com.health.entity.SyncEntityType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SyncChangeDTO {
+    public enum Operation {UPSERT, DELETE}
+
+    private SyncEntityType type;
+    private Operation op;
+    private Long id;
+    private long seq;
+    // HealthRecordResponse, MealLogResponseDTO or WorkoutSessionDTO; null for deletions
+    private Object data;
+}
@@ -0,0 +1,19 @@
+package com.health.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SyncResponse {
+    private List<SyncChangeDTO> changes;
+    // Pass back as ?since= on the next call; returned even when there are no changes
+    private String nextCursor;
+    private boolean hasMore;
+}
@@ -0,0 +1,14 @@
+package com.health.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class WearableIngestRequest {
+    @NotEmpty(message = "Series cannot be empty")
+    @Valid
+    private List<WearableSeriesDTO> series;
+}
@@ -0,0 +1,16 @@
+package com.health.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class WearableIngestResponse {
+    private int samples;
+    private int chunks;
+    private long storedBytes;
+}
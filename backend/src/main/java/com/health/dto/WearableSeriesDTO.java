@@ -0,0 +1,26 @@
+package com.health.dto;
+
+import com.health.entity.WearableMetric;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Columnar series of one metric: {@code values[i]} was sampled at {@code timestamps[i]} (epoch seconds).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class WearableSeriesDTO {
+    @NotNull(message = "Metric is required")
+    private WearableMetric metric;
+
+    @NotNull(message = "Timestamps are required")
+    private long[] timestamps;
+
+    @NotNull(message = "Values are required")
+    private double[] values;
+}
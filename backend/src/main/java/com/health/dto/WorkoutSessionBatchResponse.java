@@ -0,0 +1,17 @@
+package com.health.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class WorkoutSessionBatchResponse {
+    private int received;
+    private int created;
+    private double durationMinutes;     // total of the created sessions
+    private double caloriesBurned;      // total of the created sessions
+}
@@ -0,0 +1,38 @@
+package com.health.dto;
+
+import com.health.entity.WorkoutSession;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class WorkoutSessionDTO {
+    private Long id;
+    private LocalDate date;
+    private Long workoutTypeId;
+    private String workoutTypeName;
+    private Double durationMinutes;
+    private Double caloriesBurned;
+    private String note;
+    private LocalDateTime createdAt;
+
+    public static WorkoutSessionDTO mapToDto(WorkoutSession s) {
+        return WorkoutSessionDTO.builder()
+                .id(s.getId())
+                .date(s.getDate())
+                .workoutTypeId(s.getWorkoutType().getId())
+                .workoutTypeName(s.getWorkoutType().getName())
+                .durationMinutes(s.getDurationMinutes())
+                .caloriesBurned(s.getCaloriesBurned())
+                .note(s.getNote())
+                .createdAt(s.getCreatedAt())
+                .build();
+    }
+}
@@ -0,0 +1,11 @@
+package com.health.dto;
+
+import lombok.Data;
+
+@Data
+public class WorkoutSessionRequestDTO {
+    private String date;              // yyyy-MM-dd, defaults to today
+    private Long workoutTypeId;
+    private Double durationMinutes;
+    private String note;
+}
@@ -0,0 +1,79 @@
+package com.health.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Read model tổng hợp theo ngày của mỗi user, cập nhật tăng dần cùng transaction ghi meal log / health record.
+ * Được ghi bằng native upsert trong {@link com.health.repository.DailyUserSummaryRepository}.
+ */
+@Entity
+@Table(
+        name = "daily_user_summary",
+        uniqueConstraints = {
+                @UniqueConstraint(name = "uk_daily_summary_user_date", columnNames = {"user_id", "date"})
+        },
+        indexes = {
+                @Index(name = "idx_daily_summary_date", columnList = "date")
+        }
+)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DailyUserSummary {
+    public static final int FLAG_MEAL = 1;
+    public static final int FLAG_HEALTH = 1 << 1;
+    public static final int FLAG_WORKOUT = 1 << 2;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    private User user;
+
+    @Column(nullable = false)
+    private LocalDate date;
+
+    // Tổng calo nạp vào trong ngày (từ meal_logs)
+    @Column(name = "calories_consumed", nullable = false, columnDefinition = "DOUBLE DEFAULT 0")
+    private Double caloriesConsumed;
+
+    // Tổng macro (gram)
+    @Column(name = "protein_grams", nullable = false, columnDefinition = "DOUBLE DEFAULT 0")
+    private Double proteinGrams;
+
+    @Column(name = "carbs_grams", nullable = false, columnDefinition = "DOUBLE DEFAULT 0")
+    private Double carbsGrams;
+
+    @Column(name = "fat_grams", nullable = false, columnDefinition = "DOUBLE DEFAULT 0")
+    private Double fatGrams;
+
+    // Các chỉ số lấy từ health record của ngày
+    @Column(name = "calories_burned")
+    private Integer caloriesBurned;
+
+    private Integer steps;
+
+    @Column(name = "sleep_hours")
+    private Double sleepHours;
+
+    private Double weight;
+
+    // Bitmask các loại dữ liệu đã ghi trong ngày: FLAG_MEAL, FLAG_HEALTH, FLAG_WORKOUT
+    @Column(name = "logged_flags", nullable = false, columnDefinition = "INT DEFAULT 0")
+    private Integer loggedFlags;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    public boolean hasFlag(int flag) {
+        return loggedFlags != null && (loggedFlags & flag) != 0;
+    }
+}
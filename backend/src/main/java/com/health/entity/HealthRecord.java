@@ -7,7 +7,18 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "health_records")
+@Table(
+        name = "health_records",
+        uniqueConstraints = {
+                // Mỗi user chỉ có 1 bản ghi sức khỏe mỗi ngày (upsert theo khóa này)
+                @UniqueConstraint(name = "uk_health_record_user_date", columnNames = {"user_id", "date"})
+        },
+        indexes = {
+                @Index(name = "idx_health_record_user_seq", columnList = "user_id, change_seq"),
+                // Quét theo kỳ (tuần/tháng) khi dựng lại bảng xếp hạng
+                @Index(name = "idx_health_record_date", columnList = "date")
+        }
+)
 @Getter
 @Setter
 @NoArgsConstructor
@@ -51,13 +62,27 @@ public class HealthRecord {
     @Column(length = 500)
     private String note;
 
+    // Thứ tự thay đổi theo user (sync_sequences), dùng cho delta-sync; 0 = bản ghi có từ trước khi có sync
+    @Column(name = "change_seq", nullable = false, columnDefinition = "BIGINT NOT NULL DEFAULT 0")
+    private long changeSeq;
+
     // Ngày tạo bản ghi
     @Column(name = "created_at", updatable = false)
     private LocalDateTime createdAt;
 
+    // Lần cập nhật cuối (upsert luôn ghi cột này)
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
     // Ghi chú: dùng @PrePersist để tự động set ngày tạo
     @PrePersist
     public void prePersist() {
         createdAt = LocalDateTime.now();
+        updatedAt = createdAt;
+    }
+
+    @PreUpdate
+    public void preUpdate() {
+        updatedAt = LocalDateTime.now();
     }
 }
@@ -0,0 +1,56 @@
+package com.health.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(
+        name = "idempotency_keys",
+        uniqueConstraints = @UniqueConstraint(name = "uk_idempotency_scope_key", columnNames = {"scope", "idem_key"}),
+        indexes = @Index(name = "idx_idempotency_expires", columnList = "expires_at")
+)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class IdempotencyKey {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // Chủ sở hữu key: "user:<id>" hoặc "anonymous"
+    @Column(nullable = false, length = 40)
+    private String scope;
+
+    // Giá trị header Idempotency-Key do client gửi
+    @Column(name = "idem_key", nullable = false, length = 100)
+    private String idemKey;
+
+    // SHA-256 của method + URI + body, để phát hiện key bị dùng lại cho request khác
+    @Column(name = "request_hash", nullable = false, length = 64)
+    private String requestHash;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 10)
+    private IdempotencyStatus status;
+
+    // Response đã lưu để phát lại
+    @Column(name = "response_status")
+    private Integer responseStatus;
+
+    @Column(name = "response_content_type", length = 100)
+    private String responseContentType;
+
+    @Lob
+    @Column(name = "response_body", length = 16777215)
+    private byte[] responseBody;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+}
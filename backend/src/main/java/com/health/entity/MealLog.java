@@ -9,8 +9,13 @@ import java.time.LocalDateTime;
 @Entity
 @Table(
         name = "meal_logs",
+        uniqueConstraints = {
+                // Mỗi bữa (meal_type) trong ngày chỉ có 1 log (upsert theo khóa này)
+                @UniqueConstraint(name = "uk_meal_log_user_date_type", columnNames = {"user_id", "date", "meal_type"})
+        },
         indexes = {
-                @Index(name = "idx_meal_log_user_date", columnList = "user_id, date")
+                @Index(name = "idx_meal_log_user_date", columnList = "user_id, date"),
+                @Index(name = "idx_meal_log_user_seq", columnList = "user_id, change_seq")
         }
 )
 @Getter
@@ -50,22 +55,51 @@ public class MealLog {
     @Column(name = "total_calories")
     private Double totalCalories;
 
+    // Tổng macro (gram) = quantity × meal.protein/carbs/fat, tính lúc ghi
+    @Column(name = "total_protein")
+    private Double totalProtein;
+
+    @Column(name = "total_carbs")
+    private Double totalCarbs;
+
+    @Column(name = "total_fat")
+    private Double totalFat;
+
     // Ghi chú thêm
     @Column(columnDefinition = "TEXT")
     private String note;
 
+    // Thứ tự thay đổi theo user (sync_sequences), dùng cho delta-sync; 0 = bản ghi có từ trước khi có sync
+    @Column(name = "change_seq", nullable = false, columnDefinition = "BIGINT NOT NULL DEFAULT 0")
+    private long changeSeq;
+
     // Ngày tạo log
     @Column(name = "created_at", updatable = false)
     private LocalDateTime createdAt;
 
+    // Lần cập nhật cuối (upsert luôn ghi cột này)
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
     // Tự động gán thời điểm khi tạo mới
     @PrePersist
     public void prePersist() {
         createdAt = LocalDateTime.now();
+        updatedAt = createdAt;
 
         // Nếu totalCalories chưa set, tự tính từ meal và quantity
         if (meal != null && totalCalories == null && meal.getCalories() != null && quantity != null) {
             totalCalories = meal.getCalories() * quantity;
         }
+        if (meal != null && quantity != null) {
+            if (totalProtein == null && meal.getProtein() != null) totalProtein = meal.getProtein() * quantity;
+            if (totalCarbs == null && meal.getCarbs() != null) totalCarbs = meal.getCarbs() * quantity;
+            if (totalFat == null && meal.getFat() != null) totalFat = meal.getFat() * quantity;
+        }
+    }
+
+    @PreUpdate
+    public void preUpdate() {
+        updatedAt = LocalDateTime.now();
     }
 }
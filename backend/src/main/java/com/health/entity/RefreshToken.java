@@ -0,0 +1,58 @@
+package com.health.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(
+        name = "refresh_tokens",
+        indexes = {
+                @Index(name = "idx_refresh_token_family", columnList = "family_id"),
+                @Index(name = "idx_refresh_token_expires", columnList = "expires_at")
+        }
+)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RefreshToken {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // jti của refresh token
+    @Column(nullable = false, unique = true, length = 36)
+    private String jti;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    private User user;
+
+    // Chuỗi rotation: mọi token sinh ra từ cùng một lần đăng nhập có chung family (= sid trong access token)
+    @Column(name = "family_id", nullable = false, length = 36)
+    private String familyId;
+
+    // Token cha trong chuỗi rotation
+    @Column(name = "parent_jti", length = 36)
+    private String parentJti;
+
+    // Token con đã thay thế token này
+    @Column(name = "replaced_by", length = 36)
+    private String replacedBy;
+
+    @Column(name = "issued_at", nullable = false)
+    private LocalDateTime issuedAt;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+
+    @Column(name = "revoked_at")
+    private LocalDateTime revokedAt;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "revoked_reason", length = 20)
+    private TokenRevocationReason revokedReason;
+}
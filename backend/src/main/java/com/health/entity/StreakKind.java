@@ -0,0 +1,20 @@
+package com.health.entity;
+
+/**
+ * Loại chuỗi ngày ghi liên tiếp, mỗi loại ứng với một bit trong {@code daily_user_summary.logged_flags}.
+ */
+public enum StreakKind {
+    MEAL(DailyUserSummary.FLAG_MEAL),
+    HEALTH(DailyUserSummary.FLAG_HEALTH),
+    WORKOUT(DailyUserSummary.FLAG_WORKOUT);
+
+    private final int flag;
+
+    StreakKind(int flag) {
+        this.flag = flag;
+    }
+
+    public int flag() {
+        return flag;
+    }
+}
@@ -0,0 +1,3 @@
+package com.health.entity;
+
+public enum SyncEntityType {HEALTH_RECORD, MEAL_LOG, WORKOUT_SESSION}
@@ -0,0 +1,33 @@
+package com.health.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(
+        name = "sync_sequences",
+        indexes = {
+                @Index(name = "idx_sync_seq_updated", columnList = "updated_at")
+        }
+)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SyncSequence {
+    // Mỗi user một bộ đếm
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    // Số thứ tự thay đổi cuối cùng đã cấp cho user
+    @Column(nullable = false)
+    private Long seq;
+
+    // Lần ghi cuối của user (dùng để cập nhật bảng xếp hạng sau khi khởi động lại từ snapshot)
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+}
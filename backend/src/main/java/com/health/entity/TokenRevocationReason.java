@@ -0,0 +1,3 @@
+package com.health.entity;
+
+public enum TokenRevocationReason {ROTATED, REUSE_DETECTED, LOGOUT, ACCOUNT_CHANGED}
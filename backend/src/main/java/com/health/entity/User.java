@@ -38,6 +38,11 @@ public class User {
     @Builder.Default
     private Boolean isActive = true;
 
+    // Tăng mỗi khi đổi mật khẩu / khóa tài khoản để vô hiệu hóa các token đã cấp
+    @Builder.Default
+    @Column(name = "security_version", nullable = false, columnDefinition = "INT DEFAULT 0")
+    private Integer securityVersion = 0;
+
     @CreationTimestamp
     private LocalDateTime createdAt;
 
@@ -0,0 +1,57 @@
+package com.health.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Lịch hoạt động trong một năm của user: mỗi loại dữ liệu là một bitset 366 bit (bit d - 1 = ngày thứ d
+ * trong năm, xem {@link com.health.util.DayBitset}), được OR thêm khi ghi.
+ */
+@Entity
+@Table(
+        name = "user_activity_calendars",
+        uniqueConstraints = {
+                @UniqueConstraint(name = "uk_activity_calendar_user_year", columnNames = {"user_id", "calendar_year"})
+        }
+)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UserActivityCalendar {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "calendar_year", nullable = false)
+    private int year;
+
+    // Ngày có meal log
+    @Column(name = "meal_days", nullable = false, columnDefinition = "BINARY(46)")
+    private byte[] mealDays;
+
+    // Ngày có health record
+    @Column(name = "health_days", nullable = false, columnDefinition = "BINARY(46)")
+    private byte[] healthDays;
+
+    // Ngày có buổi tập
+    @Column(name = "workout_days", nullable = false, columnDefinition = "BINARY(46)")
+    private byte[] workoutDays;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    public byte[] days(StreakKind kind) {
+        return switch (kind) {
+            case MEAL -> mealDays;
+            case HEALTH -> healthDays;
+            case WORKOUT -> workoutDays;
+        };
+    }
+}
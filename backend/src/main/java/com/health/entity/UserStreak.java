@@ -0,0 +1,54 @@
+package com.health.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Trạng thái chuỗi ngày ghi liên tiếp của user cho một loại dữ liệu, cập nhật tăng dần khi ghi.
+ * Chuỗi hiện tại là đoạn ngày liên tục [streak_start_date, last_logged_date].
+ */
+@Entity
+@Table(
+        name = "user_streaks",
+        uniqueConstraints = {
+                @UniqueConstraint(name = "uk_user_streak_user_kind", columnNames = {"user_id", "kind"})
+        }
+)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UserStreak {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private StreakKind kind;
+
+    // Độ dài chuỗi kết thúc ở last_logged_date
+    @Column(name = "current_streak", nullable = false)
+    private int currentStreak;
+
+    // Chuỗi dài nhất từng đạt được (không giảm khi xóa bản ghi cũ)
+    @Column(name = "longest_streak", nullable = false)
+    private int longestStreak;
+
+    @Column(name = "streak_start_date")
+    private LocalDate streakStartDate;
+
+    // Ngày ghi gần nhất (lớn nhất)
+    @Column(name = "last_logged_date")
+    private LocalDate lastLoggedDate;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,3 @@
+package com.health.entity;
+
+public enum WearableMetric {HEART_RATE, STEPS, DISTANCE}
@@ -0,0 +1,54 @@
+package com.health.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(
+        name = "wearable_sample_chunks",
+        indexes = {
+                @Index(name = "idx_wearable_chunk_user_metric_day", columnList = "user_id, metric, sample_date")
+        }
+)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class WearableSampleChunk {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private WearableMetric metric;
+
+    // Ngày (UTC) chứa toàn bộ mẫu của chunk
+    @Column(name = "sample_date", nullable = false)
+    private LocalDate sampleDate;
+
+    // Mốc thời gian đầu/cuối của chunk (epoch giây)
+    @Column(name = "start_ts", nullable = false)
+    private Long startTs;
+
+    @Column(name = "end_ts", nullable = false)
+    private Long endTs;
+
+    @Column(name = "sample_count", nullable = false)
+    private Integer sampleCount;
+
+    // Dữ liệu nén (GorillaCodec): delta-of-delta cho thời gian, XOR cho giá trị
+    @Lob
+    @Column(nullable = false, length = 65535)
+    private byte[] data;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+}
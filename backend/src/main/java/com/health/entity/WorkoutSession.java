@@ -10,7 +10,10 @@ import java.time.LocalDateTime;
 @Table(
         name = "workout_sessions",
         indexes = {
-                @Index(name = "idx_ws_user_time", columnList = "user_id, date")
+                @Index(name = "idx_ws_user_time", columnList = "user_id, date"),
+                @Index(name = "idx_ws_user_seq", columnList = "user_id, change_seq"),
+                // Quét theo kỳ (tuần/tháng) khi dựng lại bảng xếp hạng
+                @Index(name = "idx_ws_date", columnList = "date")
         }
 )
 @Getter
@@ -49,6 +52,10 @@ public class WorkoutSession {
     @Column(columnDefinition = "TEXT")
     private String note;
 
+    // Thứ tự thay đổi theo user (sync_sequences), dùng cho delta-sync; 0 = bản ghi có từ trước khi có sync
+    @Column(name = "change_seq", nullable = false, columnDefinition = "BIGINT NOT NULL DEFAULT 0")
+    private long changeSeq;
+
     // Ngày tạo bản ghi
     @Column(name = "created_at", updatable = false)
     private LocalDateTime createdAt;
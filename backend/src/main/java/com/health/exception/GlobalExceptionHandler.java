@@ -4,6 +4,7 @@ import com.health.dto.common.ErrorResponse;
 import com.health.dto.common.StandardApiResponse;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.BadCredentialsException;
@@ -105,6 +106,46 @@ public class GlobalExceptionHandler {
     }
 
 
+    /**
+     * Handle throttled requests
+     */
+    @ExceptionHandler(TooManyRequestsException.class)
+    public ResponseEntity<ErrorResponse> handleTooManyRequests(
+            TooManyRequestsException ex, WebRequest request) {
+        log.warn("Request throttled on {}: {}",
+                request.getDescription(false), ex.getMessage());
+
+        ErrorResponse errorResponse = ErrorResponse.builder()
+                .error("TOO_MANY_REQUESTS")
+                .message(ex.getMessage())
+                .timestamp(LocalDateTime.now())
+                .path(extractPath(request))
+                .build();
+
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(errorResponse);
+    }
+
+    /**
+     * Handle overload / temporarily unavailable exceptions
+     */
+    @ExceptionHandler(ServiceUnavailableException.class)
+    public ResponseEntity<ErrorResponse> handleServiceUnavailable(
+            ServiceUnavailableException ex, WebRequest request) {
+        log.warn("Service unavailable on request to {}: {}",
+                request.getDescription(false), ex.getMessage());
+
+        ErrorResponse errorResponse = ErrorResponse.builder()
+                .error("SERVICE_UNAVAILABLE")
+                .message(ex.getMessage())
+                .timestamp(LocalDateTime.now())
+                .path(extractPath(request))
+                .build();
+
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(errorResponse);
+    }
+
     @ExceptionHandler({AccessDeniedException.class, org.springframework.security.access.AccessDeniedException.class})
     public ResponseEntity<ErrorResponse> handleAccessDenied(
             Exception ex, WebRequest request) {
@@ -0,0 +1,215 @@
+package com.health.repository;
+
+import com.health.entity.DailyUserSummary;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+public interface DailyUserSummaryRepository extends JpaRepository<DailyUserSummary, Long> {
+
+    List<DailyUserSummary> findByUserIdAndDateBetweenOrderByDateAsc(Long userId, LocalDate from, LocalDate to);
+
+    /**
+     * Take the row lock on the user's day, creating an empty row if needed. The duplicate-key path locks the
+     * existing row exclusively straight away, so no writer ever upgrades a shared lock on it.
+     */
+    @Modifying
+    @Query(value = """
+            insert into daily_user_summary (user_id, date, logged_flags, updated_at)
+            values (:userId, :date, 0, current_timestamp)
+            on duplicate key update user_id = user_id
+            """, nativeQuery = true)
+    int lockDay(@Param("userId") Long userId, @Param("date") LocalDate date);
+
+    /**
+     * Recompute the meal totals of one user's day from {@code meal_logs}, creating the row if needed.
+     * The meal flag is cleared when the day has no logs left.
+     */
+    @Modifying
+    @Query(value = """
+            insert into daily_user_summary
+                (user_id, date, calories_consumed, protein_grams, carbs_grams, fat_grams, logged_flags, updated_at)
+            select :userId, :date,
+                   coalesce(sum(ml.total_calories), 0),
+                   coalesce(sum(ml.total_protein), 0),
+                   coalesce(sum(ml.total_carbs), 0),
+                   coalesce(sum(ml.total_fat), 0),
+                   case when count(ml.id) > 0 then :flags else 0 end, current_timestamp
+            from meal_logs ml
+            where ml.user_id = :userId and ml.date = :date
+            on duplicate key update
+                calories_consumed = values(calories_consumed),
+                protein_grams = values(protein_grams),
+                carbs_grams = values(carbs_grams),
+                fat_grams = values(fat_grams),
+                logged_flags = (logged_flags - (logged_flags & :flags)) | values(logged_flags),
+                updated_at = values(updated_at)
+            """, nativeQuery = true)
+    int refreshMealTotals(@Param("userId") Long userId,
+                          @Param("date") LocalDate date,
+                          @Param("flags") int flags);
+
+    /**
+     * Replace the health metrics of the user's day; there is at most one health record per day.
+     */
+    @Modifying
+    @Query(value = """
+            insert into daily_user_summary
+                (user_id, date, calories_burned, steps, sleep_hours, weight, logged_flags, updated_at)
+            values (:userId, :date, :caloriesBurned, :steps, :sleepHours, :weight, :flags, current_timestamp)
+            on duplicate key update
+                calories_burned = values(calories_burned),
+                steps = values(steps),
+                sleep_hours = values(sleep_hours),
+                weight = values(weight),
+                logged_flags = logged_flags | values(logged_flags),
+                updated_at = values(updated_at)
+            """, nativeQuery = true)
+    int replaceHealthMetrics(@Param("userId") Long userId,
+                             @Param("date") LocalDate date,
+                             @Param("caloriesBurned") Integer caloriesBurned,
+                             @Param("steps") Integer steps,
+                             @Param("sleepHours") Double sleepHours,
+                             @Param("weight") Double weight,
+                             @Param("flags") int flags);
+
+    /**
+     * Copy the health metrics of the user's records in {@code [from, to]} into the summary (bulk imports).
+     */
+    @Modifying
+    @Query(value = """
+            insert into daily_user_summary
+                (user_id, date, calories_burned, steps, sleep_hours, weight, logged_flags, updated_at)
+            select hr.user_id, hr.date, hr.calories_burned, hr.steps, hr.sleep_hours, hr.weight, :flags, current_timestamp
+            from health_records hr
+            where hr.user_id = :userId and hr.date between :from and :to
+            on duplicate key update
+                calories_burned = values(calories_burned),
+                steps = values(steps),
+                sleep_hours = values(sleep_hours),
+                weight = values(weight),
+                logged_flags = logged_flags | values(logged_flags),
+                updated_at = values(updated_at)
+            """, nativeQuery = true)
+    int refreshHealthMetrics(@Param("userId") Long userId,
+                             @Param("from") LocalDate from,
+                             @Param("to") LocalDate to,
+                             @Param("flags") int flags);
+
+    /**
+     * Drop the health metrics of the user's day after its health record was deleted.
+     */
+    @Modifying
+    @Query(value = """
+            update daily_user_summary set
+                calories_burned = null,
+                steps = null,
+                sleep_hours = null,
+                weight = null,
+                logged_flags = logged_flags - (logged_flags & :flags),
+                updated_at = current_timestamp
+            where user_id = :userId and date = :date
+            """, nativeQuery = true)
+    int clearHealthMetrics(@Param("userId") Long userId,
+                           @Param("date") LocalDate date,
+                           @Param("flags") int flags);
+
+    /**
+     * Set {@code flags} on the user's day, creating the row if needed (days with a workout session).
+     */
+    @Modifying
+    @Query(value = """
+            insert into daily_user_summary (user_id, date, logged_flags, updated_at)
+            values (:userId, :date, :flags, current_timestamp)
+            on duplicate key update
+                logged_flags = logged_flags | values(logged_flags),
+                updated_at = values(updated_at)
+            """, nativeQuery = true)
+    int markLogged(@Param("userId") Long userId, @Param("date") LocalDate date, @Param("flags") int flags);
+
+    /**
+     * Days in {@code [from, to]} on which the user logged {@code flag} (a single bit), ascending.
+     */
+    @Query("""
+            select s.date from DailyUserSummary s
+            where s.user.id = :userId and s.date between :from and :to and mod(s.loggedFlags, :flag * 2) >= :flag
+            order by s.date
+            """)
+    List<LocalDate> findLoggedDates(@Param("userId") Long userId,
+                                    @Param("flag") int flag,
+                                    @Param("from") LocalDate from,
+                                    @Param("to") LocalDate to);
+
+    @Query("""
+            select max(s.date) from DailyUserSummary s
+            where s.user.id = :userId and s.date < :before and mod(s.loggedFlags, :flag * 2) >= :flag
+            """)
+    Optional<LocalDate> findLastLoggedDateBefore(@Param("userId") Long userId,
+                                                 @Param("flag") int flag,
+                                                 @Param("before") LocalDate before);
+
+    @Query("""
+            select s.date as date, s.loggedFlags as loggedFlags from DailyUserSummary s
+            where s.user.id = :userId and s.date between :from and :to and s.loggedFlags <> 0
+            """)
+    List<LoggedDay> findLoggedDays(@Param("userId") Long userId,
+                                   @Param("from") LocalDate from,
+                                   @Param("to") LocalDate to);
+
+    @Query("select distinct s.user.id from DailyUserSummary s where s.date between :from and :to")
+    List<Long> findUserIdsBetween(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    @Modifying
+    @Query(value = "delete from daily_user_summary where date between :from and :to", nativeQuery = true)
+    int deleteByDateRange(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    @Modifying
+    @Query(value = """
+            insert into daily_user_summary
+                (user_id, date, calories_consumed, protein_grams, carbs_grams, fat_grams, logged_flags, updated_at)
+            select ml.user_id, ml.date,
+                   coalesce(sum(ml.total_calories), 0),
+                   coalesce(sum(ml.total_protein), 0),
+                   coalesce(sum(ml.total_carbs), 0),
+                   coalesce(sum(ml.total_fat), 0),
+                   :flags, current_timestamp
+            from meal_logs ml
+            where ml.date between :from and :to
+            group by ml.user_id, ml.date
+            """, nativeQuery = true)
+    int rebuildMealTotals(@Param("from") LocalDate from, @Param("to") LocalDate to, @Param("flags") int flags);
+
+    @Modifying
+    @Query(value = """
+            insert into daily_user_summary
+                (user_id, date, calories_burned, steps, sleep_hours, weight, logged_flags, updated_at)
+            select hr.user_id, hr.date, hr.calories_burned, hr.steps, hr.sleep_hours, hr.weight, :flags, current_timestamp
+            from health_records hr
+            where hr.date between :from and :to
+            on duplicate key update
+                calories_burned = values(calories_burned),
+                steps = values(steps),
+                sleep_hours = values(sleep_hours),
+                weight = values(weight),
+                logged_flags = logged_flags | values(logged_flags),
+                updated_at = values(updated_at)
+            """, nativeQuery = true)
+    int rebuildHealthMetrics(@Param("from") LocalDate from, @Param("to") LocalDate to, @Param("flags") int flags);
+
+    @Modifying
+    @Query(value = """
+            insert into daily_user_summary (user_id, date, logged_flags, updated_at)
+            select distinct ws.user_id, ws.date, :flags, current_timestamp
+            from workout_sessions ws
+            where ws.date between :from and :to
+            on duplicate key update
+                logged_flags = logged_flags | values(logged_flags),
+                updated_at = values(updated_at)
+            """, nativeQuery = true)
+    int rebuildWorkoutFlags(@Param("from") LocalDate from, @Param("to") LocalDate to, @Param("flags") int flags);
+}
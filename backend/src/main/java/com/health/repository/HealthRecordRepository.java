@@ -1,17 +1,102 @@
 package com.health.repository;
 
+import com.health.dto.admin.HealthRecordResponse;
 import com.health.entity.HealthRecord;
-import com.health.entity.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface HealthRecordRepository extends JpaRepository<HealthRecord, Long>, JpaSpecificationExecutor<HealthRecord> {
-    List<HealthRecord> findByUserOrderByDateDesc(User user);
+    List<HealthRecord> findByUserIdOrderByDateDesc(Long userId);
 
-    Optional<HealthRecord> findByUserAndDate(User user, LocalDate date);
-    List<HealthRecord> findAllByUserAndDateIn(User user, List<LocalDate> dates);
+    Optional<HealthRecord> findByUserIdAndDate(Long userId, LocalDate date);
+    List<HealthRecord> findByUserIdAndDateBetweenOrderByDateAsc(Long userId, LocalDate from, LocalDate to);
+
+    // Shared with the JDBC batch path in HealthImportService (named parameters)
+    String UPSERT_SQL = """
+            insert into health_records
+                (user_id, date, steps, distance, calories_burned, weight, bmi, heart_rate, sleep_hours, note, change_seq,
+                 created_at, updated_at)
+            values (:userId, :date, :steps, :distance, :caloriesBurned, :weight, :bmi, :heartRate, :sleepHours, :note,
+                    :changeSeq, :now, :now)
+            on duplicate key update
+                steps = values(steps),
+                distance = values(distance),
+                calories_burned = values(calories_burned),
+                weight = values(weight),
+                bmi = values(bmi),
+                heart_rate = values(heart_rate),
+                sleep_hours = values(sleep_hours),
+                note = values(note),
+                change_seq = values(change_seq),
+                updated_at = values(updated_at)
+            """;
+
+    /**
+     * Insert the user's record for the day, or replace its values when one exists (uk_health_record_user_date).
+     *
+     * @return 1 when a row was inserted, 2 when the existing row was updated (MySQL affected-rows contract)
+     */
+    @Modifying
+    @Query(value = UPSERT_SQL, nativeQuery = true)
+    int upsert(@Param("userId") Long userId,
+               @Param("date") LocalDate date,
+               @Param("steps") Integer steps,
+               @Param("distance") Double distance,
+               @Param("caloriesBurned") Integer caloriesBurned,
+               @Param("weight") Double weight,
+               @Param("bmi") Double bmi,
+               @Param("heartRate") Integer heartRate,
+               @Param("sleepHours") Double sleepHours,
+               @Param("note") String note,
+               @Param("changeSeq") long changeSeq,
+               @Param("now") LocalDateTime now);
+
+    Optional<HealthRecord> findByIdAndUserId(Long id, Long userId);
+
+    /**
+     * JDBC fetch size that makes Connector/J stream a forward-only, read-only result set row by row instead
+     * of buffering it. Only the export queries use it: while such a result set is open, its connection can
+     * run no other statement.
+     */
+    String STREAMING_FETCH_SIZE = "" + Integer.MIN_VALUE;
+
+    /**
+     * Every record of the user, oldest first, as unmanaged DTOs streamed from the server (must be consumed
+     * inside a transaction and closed).
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = STREAMING_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("""
+            select new com.health.dto.admin.HealthRecordResponse(r.id, r.date, r.weight, r.bmi, r.heartRate,
+                   r.sleepHours, r.steps, r.distance, r.caloriesBurned, r.note, r.createdAt)
+            from HealthRecord r
+            where r.user.id = :userId
+            order by r.date, r.id
+            """)
+    Stream<HealthRecordResponse> streamForExport(@Param("userId") Long userId);
+
+    @Query("""
+            select r from HealthRecord r
+            where r.user.id = :userId and r.changeSeq >= :seq and (r.changeSeq > :seq or r.id > :afterId)
+            order by r.changeSeq, r.id
+            """)
+    List<HealthRecord> findChangesSince(@Param("userId") Long userId,
+                                        @Param("seq") long seq,
+                                        @Param("afterId") long afterId,
+                                        Pageable limit);
 }
@@ -0,0 +1,68 @@
+package com.health.repository;
+
+import com.health.entity.IdempotencyKey;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Optional;
+
+public interface IdempotencyKeyRepository extends JpaRepository<IdempotencyKey, Long> {
+
+    Optional<IdempotencyKey> findByScopeAndIdemKey(String scope, String idemKey);
+
+    /**
+     * Take over a pending claim whose request never completed (node crash), or an expired key.
+     */
+    @Modifying
+    @Query("""
+            update IdempotencyKey k set k.requestHash = :requestHash,
+                   k.status = com.health.entity.IdempotencyStatus.PENDING,
+                   k.responseStatus = null, k.responseContentType = null, k.responseBody = null,
+                   k.createdAt = :now, k.expiresAt = :expiresAt
+            where k.id = :id
+              and ((k.status = com.health.entity.IdempotencyStatus.PENDING and k.createdAt < :staleBefore)
+                   or k.expiresAt < :now)
+            """)
+    int reclaim(@Param("id") Long id,
+                @Param("requestHash") String requestHash,
+                @Param("now") LocalDateTime now,
+                @Param("expiresAt") LocalDateTime expiresAt,
+                @Param("staleBefore") LocalDateTime staleBefore);
+
+    /**
+     * Heartbeat for claims whose request is still running, so they never look stale.
+     */
+    @Modifying
+    @Query("""
+            update IdempotencyKey k set k.createdAt = :now
+            where k.id in :ids and k.status = com.health.entity.IdempotencyStatus.PENDING
+            """)
+    int renewPending(@Param("ids") Collection<Long> ids, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("""
+            update IdempotencyKey k set k.status = com.health.entity.IdempotencyStatus.COMPLETED,
+                   k.responseStatus = :status, k.responseContentType = :contentType, k.responseBody = :body
+            where k.scope = :scope and k.idemKey = :idemKey
+            """)
+    int complete(@Param("scope") String scope,
+                 @Param("idemKey") String idemKey,
+                 @Param("status") int status,
+                 @Param("contentType") String contentType,
+                 @Param("body") byte[] body);
+
+    @Modifying
+    @Query("""
+            delete from IdempotencyKey k
+            where k.scope = :scope and k.idemKey = :idemKey and k.status = com.health.entity.IdempotencyStatus.PENDING
+            """)
+    int deletePending(@Param("scope") String scope, @Param("idemKey") String idemKey);
+
+    @Modifying
+    @Query("delete from IdempotencyKey k where k.expiresAt < :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
@@ -0,0 +1,12 @@
+package com.health.repository;
+
+import java.time.LocalDate;
+
+/**
+ * Projection of a day's {@code logged_flags} from {@code daily_user_summary}.
+ */
+public interface LoggedDay {
+    LocalDate getDate();
+
+    Integer getLoggedFlags();
+}
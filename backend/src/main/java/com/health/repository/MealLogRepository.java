@@ -1,20 +1,153 @@
 package com.health.repository;
 
+import com.health.dto.DailyNutritionDTO;
+import com.health.dto.MealLogResponseDTO;
 import com.health.entity.MealLog;
 import com.health.entity.MealType;
-import com.health.entity.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface MealLogRepository extends JpaRepository<MealLog, Long>, JpaSpecificationExecutor<MealLog> {
-    List<MealLog> findByUserOrderByDateDesc(User user);
+    String MY_LOGS_SELECT = """
+            select new com.health.dto.MealLogResponseDTO(l.id, l.date, l.mealType, m.name, m.calories, l.quantity, l.totalCalories, l.note)
+            from MealLog l join l.meal m
+            where l.user.id = :userId and l.date between :from and :to
+            """;
 
-    List<MealLog> findByUserAndDateOrderByMealType(User user, LocalDate date);
+    /**
+     * First page of the user's logs in {@code [from, to]}, newest first. Limit comes from the pageable.
+     */
+    @Query(MY_LOGS_SELECT + " order by l.date desc, l.id desc")
+    List<MealLogResponseDTO> findPageByUserId(@Param("userId") Long userId,
+                                              @Param("from") LocalDate from,
+                                              @Param("to") LocalDate to,
+                                              Pageable pageable);
 
-    Optional<MealLog> findByUserAndDateAndMealType(User user, LocalDate date, MealType mealType);
+    /**
+     * Page after the keyset position {@code (afterDate, afterId)}; seeks along idx_meal_log_user_date.
+     */
+    @Query(MY_LOGS_SELECT + """
+             and (l.date < :afterDate or (l.date = :afterDate and l.id < :afterId))
+            order by l.date desc, l.id desc
+            """)
+    List<MealLogResponseDTO> findPageByUserIdAfter(@Param("userId") Long userId,
+                                                   @Param("from") LocalDate from,
+                                                   @Param("to") LocalDate to,
+                                                   @Param("afterDate") LocalDate afterDate,
+                                                   @Param("afterId") Long afterId,
+                                                   Pageable pageable);
+
+    List<MealLog> findByUserIdAndDateOrderByMealType(Long userId, LocalDate date);
+
+    Optional<MealLog> findByUserIdAndDateAndMealType(Long userId, LocalDate date, MealType mealType);
+
+    List<MealLogSlot> findSlotsByUserIdAndDateBetween(Long userId, LocalDate from, LocalDate to);
+
+    /**
+     * Per-day nutrition totals in {@code [from, to]}: one GROUP BY over the (user_id, date) index range.
+     */
+    @Query("""
+            select new com.health.dto.DailyNutritionDTO(l.date, sum(l.totalCalories), sum(l.totalProtein),
+                   sum(l.totalCarbs), sum(l.totalFat), count(l))
+            from MealLog l
+            where l.user.id = :userId and l.date between :from and :to
+            group by l.date
+            order by l.date
+            """)
+    List<DailyNutritionDTO> sumByDate(@Param("userId") Long userId,
+                                      @Param("from") LocalDate from,
+                                      @Param("to") LocalDate to);
+
+    /**
+     * Fill the macro columns of logs written before they existed, from the meal's current macros.
+     */
+    @Modifying
+    @Query(value = """
+            update meal_logs set
+                total_protein = quantity * (select m.protein from meals m where m.id = meal_logs.meal_id),
+                total_carbs = quantity * (select m.carbs from meals m where m.id = meal_logs.meal_id),
+                total_fat = quantity * (select m.fat from meals m where m.id = meal_logs.meal_id)
+            where date between :from and :to and total_protein is null and total_carbs is null and total_fat is null
+            """, nativeQuery = true)
+    int backfillMacros(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    // Shared with the JDBC batch path in MealLogService (named parameters)
+    String UPSERT_SQL = """
+            insert into meal_logs
+                (user_id, meal_id, meal_type, date, quantity, total_calories, total_protein, total_carbs, total_fat,
+                 note, change_seq, created_at, updated_at)
+            values (:userId, :mealId, :mealType, :date, :quantity, :totalCalories, :totalProtein, :totalCarbs, :totalFat,
+                    :note, :changeSeq, :now, :now)
+            on duplicate key update
+                meal_id = values(meal_id),
+                quantity = values(quantity),
+                total_calories = values(total_calories),
+                total_protein = values(total_protein),
+                total_carbs = values(total_carbs),
+                total_fat = values(total_fat),
+                note = values(note),
+                change_seq = values(change_seq),
+                updated_at = values(updated_at)
+            """;
+
+    /**
+     * Insert the log for the user's (date, mealType) slot, or replace it (uk_meal_log_user_date_type).
+     *
+     * @return 1 when a row was inserted, 2 when the existing row was updated (MySQL affected-rows contract)
+     */
+    @Modifying
+    @Query(value = UPSERT_SQL, nativeQuery = true)
+    int upsert(@Param("userId") Long userId,
+               @Param("mealId") Long mealId,
+               @Param("mealType") String mealType,
+               @Param("date") LocalDate date,
+               @Param("quantity") Double quantity,
+               @Param("totalCalories") Double totalCalories,
+               @Param("totalProtein") Double totalProtein,
+               @Param("totalCarbs") Double totalCarbs,
+               @Param("totalFat") Double totalFat,
+               @Param("note") String note,
+               @Param("changeSeq") long changeSeq,
+               @Param("now") LocalDateTime now);
+
+    Optional<MealLog> findByIdAndUserId(Long id, Long userId);
+
+    /**
+     * Every log of the user, oldest first, as unmanaged DTOs streamed from the server (must be consumed
+     * inside a transaction and closed).
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = HealthRecordRepository.STREAMING_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("""
+            select new com.health.dto.MealLogResponseDTO(l.id, l.date, l.mealType, m.name, m.calories, l.quantity, l.totalCalories, l.note)
+            from MealLog l join l.meal m
+            where l.user.id = :userId
+            order by l.date, l.id
+            """)
+    Stream<MealLogResponseDTO> streamForExport(@Param("userId") Long userId);
+
+    @Query("""
+            select l from MealLog l join fetch l.meal
+            where l.user.id = :userId and l.changeSeq >= :seq and (l.changeSeq > :seq or l.id > :afterId)
+            order by l.changeSeq, l.id
+            """)
+    List<MealLog> findChangesSince(@Param("userId") Long userId,
+                                   @Param("seq") long seq,
+                                   @Param("afterId") long afterId,
+                                   Pageable limit);
 }
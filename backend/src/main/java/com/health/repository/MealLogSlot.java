@@ -0,0 +1,14 @@
+package com.health.repository;
+
+import com.health.entity.MealType;
+
+import java.time.LocalDate;
+
+/**
+ * Projection of the (date, mealType) slot a meal log occupies.
+ */
+public interface MealLogSlot {
+    LocalDate getDate();
+
+    MealType getMealType();
+}
@@ -0,0 +1,53 @@
+package com.health.repository;
+
+import com.health.entity.RefreshToken;
+import com.health.entity.TokenRevocationReason;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Long> {
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select r from RefreshToken r join fetch r.user where r.jti = :jti")
+    Optional<RefreshToken> findByJtiForUpdate(@Param("jti") String jti);
+
+    @Modifying
+    @Query("""
+            update RefreshToken r set r.revokedAt = :now, r.revokedReason = :reason
+            where r.familyId = :familyId and r.revokedAt is null
+            """)
+    int revokeFamily(@Param("familyId") String familyId,
+                     @Param("reason") TokenRevocationReason reason,
+                     @Param("now") LocalDateTime now);
+
+    /**
+     * Sessions revoked as a whole (logout, reuse, account change) after {@code since}. With the access-token
+     * lifetime as the cutoff these are the sessions whose last access token may still be valid; a revoked
+     * session issues no further access tokens.
+     */
+    @Query("""
+            select distinct r.familyId from RefreshToken r
+            where r.revokedReason is not null
+              and r.revokedReason <> com.health.entity.TokenRevocationReason.ROTATED
+              and r.revokedAt > :since
+            """)
+    List<String> findRevokedFamilyIds(@Param("since") LocalDateTime since);
+
+    /**
+     * Delete expired tokens, keeping revocations until the access tokens issued before them have expired.
+     */
+    @Modifying
+    @Query("""
+            delete from RefreshToken r
+            where r.expiresAt < :now and (r.revokedAt is null or r.revokedAt < :accessCutoff)
+            """)
+    int deleteExpired(@Param("now") LocalDateTime now, @Param("accessCutoff") LocalDateTime accessCutoff);
+}
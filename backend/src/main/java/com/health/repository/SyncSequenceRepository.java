@@ -0,0 +1,30 @@
+package com.health.repository;
+
+import com.health.entity.SyncSequence;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface SyncSequenceRepository extends JpaRepository<SyncSequence, Long> {
+
+    /**
+     * Advance the user's counter by {@code count}, creating it if needed. The row lock taken here is held
+     * until the writer commits, which serializes the user's writers in sequence order.
+     */
+    @Modifying
+    @Query(value = """
+            insert into sync_sequences (user_id, seq, updated_at) values (:userId, :count, :now)
+            on duplicate key update seq = seq + values(seq), updated_at = values(updated_at)
+            """, nativeQuery = true)
+    int advance(@Param("userId") Long userId, @Param("count") long count, @Param("now") LocalDateTime now);
+
+    @Query(value = "select seq from sync_sequences where user_id = :userId", nativeQuery = true)
+    long findSeq(@Param("userId") Long userId);
+
+    @Query("select s.userId from SyncSequence s where s.updatedAt >= :since")
+    List<Long> findUserIdsUpdatedSince(@Param("since") LocalDateTime since);
+}
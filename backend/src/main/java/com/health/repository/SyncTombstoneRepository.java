@@ -0,0 +1,22 @@
+package com.health.repository;
+
+import com.health.entity.SyncTombstone;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+public interface SyncTombstoneRepository extends JpaRepository<SyncTombstone, Long> {
+
+    @Query("""
+            select t from SyncTombstone t
+            where t.userId = :userId and t.changeSeq >= :seq and (t.changeSeq > :seq or t.id > :afterId)
+            order by t.changeSeq, t.id
+            """)
+    List<SyncTombstone> findChangesSince(@Param("userId") Long userId,
+                                         @Param("seq") long seq,
+                                         @Param("afterId") long afterId,
+                                         Pageable limit);
+}
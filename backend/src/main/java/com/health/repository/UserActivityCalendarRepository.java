@@ -0,0 +1,83 @@
+package com.health.repository;
+
+import com.health.entity.UserActivityCalendar;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Optional;
+
+/**
+ * The bitset updates rely on MySQL 8 bitwise operators over equal-length binary strings.
+ */
+public interface UserActivityCalendarRepository extends JpaRepository<UserActivityCalendar, Long> {
+
+    Optional<UserActivityCalendar> findByUserIdAndYear(Long userId, int year);
+
+    /**
+     * OR the given day masks into the user's row for {@code year}.
+     *
+     * @return 0 when the row does not exist yet
+     */
+    @Modifying
+    @Query(value = """
+            update user_activity_calendars
+            set meal_days = meal_days | :meal,
+                health_days = health_days | :health,
+                workout_days = workout_days | :workout,
+                updated_at = current_timestamp
+            where user_id = :userId and calendar_year = :year
+            """, nativeQuery = true)
+    int orDays(@Param("userId") Long userId,
+               @Param("year") int year,
+               @Param("meal") byte[] meal,
+               @Param("health") byte[] health,
+               @Param("workout") byte[] workout);
+
+    /**
+     * AND the given keep masks into the user's row for {@code year}, clearing the days missing from them.
+     */
+    @Modifying
+    @Query(value = """
+            update user_activity_calendars
+            set meal_days = meal_days & :meal,
+                health_days = health_days & :health,
+                workout_days = workout_days & :workout,
+                updated_at = current_timestamp
+            where user_id = :userId and calendar_year = :year
+            """, nativeQuery = true)
+    int andDays(@Param("userId") Long userId,
+                @Param("year") int year,
+                @Param("meal") byte[] meal,
+                @Param("health") byte[] health,
+                @Param("workout") byte[] workout);
+
+    /**
+     * Create the user's row for {@code year}, or OR the masks into it when a concurrent writer created it
+     * first (uk_activity_calendar_user_year).
+     */
+    @Modifying
+    @Query(value = """
+            insert into user_activity_calendars (user_id, calendar_year, meal_days, health_days, workout_days, updated_at)
+            values (:userId, :year, :meal, :health, :workout, current_timestamp)
+            on duplicate key update
+                meal_days = meal_days | values(meal_days),
+                health_days = health_days | values(health_days),
+                workout_days = workout_days | values(workout_days),
+                updated_at = values(updated_at)
+            """, nativeQuery = true)
+    int upsertDays(@Param("userId") Long userId,
+                   @Param("year") int year,
+                   @Param("meal") byte[] meal,
+                   @Param("health") byte[] health,
+                   @Param("workout") byte[] workout);
+
+    /**
+     * Drop every user's rows for the years; they are seeded again from the summary when next read or written.
+     */
+    @Modifying
+    @Query(value = "delete from user_activity_calendars where calendar_year between :fromYear and :toYear",
+            nativeQuery = true)
+    int deleteByYearBetween(@Param("fromYear") int fromYear, @Param("toYear") int toYear);
+}
@@ -0,0 +1,10 @@
+package com.health.repository;
+
+/**
+ * Projection of a user's display name.
+ */
+public interface UserName {
+    Long getId();
+
+    String getFullName();
+}
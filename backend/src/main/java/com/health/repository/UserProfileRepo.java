@@ -1,12 +1,33 @@
 package com.health.repository;
 
-import com.health.entity.User;
+import com.health.entity.Goal;
 import com.health.entity.UserProfile;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 public interface UserProfileRepo extends JpaRepository<UserProfile, Long>, JpaSpecificationExecutor<UserProfile> {
-    Optional<UserProfile> findByUser(User user);
+    Optional<UserProfile> findByUserId(Long userId);
+
+    @EntityGraph(attributePaths = "user")
+    Optional<UserProfile> findWithUserByUserId(Long userId);
+
+    @Query("select p.goal from UserProfile p where p.user.id = :userId")
+    Optional<Goal> findGoalByUserId(@Param("userId") Long userId);
+
+    @Query("select p.heightCm from UserProfile p where p.user.id = :userId")
+    Optional<BigDecimal> findHeightCmByUserId(@Param("userId") Long userId);
+
+    @Query("select p.tdee from UserProfile p where p.user.id = :userId")
+    Optional<BigDecimal> findTdeeByUserId(@Param("userId") Long userId);
+
+    @Query("select p.user.id from UserProfile p where p.updatedAt >= :since")
+    List<Long> findUserIdsUpdatedSince(@Param("since") LocalDateTime since);
 }
@@ -2,10 +2,15 @@ package com.health.repository;
 
 import com.health.entity.Role;
 import com.health.entity.User;
+import com.health.security.UserPrincipal;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -19,4 +24,19 @@ public interface UserRepository extends JpaRepository<User, Long>, JpaSpecificat
 
     List<User> findByIsActiveTrueAndRole(Role role);
 
+    @Modifying
+    @Query("update User u set u.password = :password where lower(u.email) = lower(:email)")
+    int updatePasswordHash(@Param("email") String email, @Param("password") String password);
+
+    @Query("select u.password from User u where u.id = :id")
+    Optional<String> findPasswordById(@Param("id") Long id);
+
+    @Query("""
+            select new com.health.security.UserPrincipal(u.id, u.email, cast(null as string), u.fullName, u.role, u.isActive, u.securityVersion)
+            from User u where u.id = :id
+            """)
+    Optional<UserPrincipal> findPrincipalById(@Param("id") Long id);
+
+    List<UserName> findByIdIn(Collection<Long> ids);
+
 }
\ No newline at end of file
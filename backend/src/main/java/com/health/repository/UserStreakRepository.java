@@ -0,0 +1,37 @@
+package com.health.repository;
+
+import com.health.entity.StreakKind;
+import com.health.entity.UserStreak;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+public interface UserStreakRepository extends JpaRepository<UserStreak, Long> {
+
+    /**
+     * Create the user's empty streak row for {@code kind} unless it exists (uk_user_streak_user_kind).
+     */
+    @Modifying
+    @Query(value = """
+            insert into user_streaks (user_id, kind, current_streak, longest_streak)
+            values (:userId, :kind, 0, 0)
+            on duplicate key update user_id = user_id
+            """, nativeQuery = true)
+    int insertIfAbsent(@Param("userId") Long userId, @Param("kind") String kind);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select s from UserStreak s where s.userId = :userId and s.kind = :kind")
+    Optional<UserStreak> findForUpdate(@Param("userId") Long userId, @Param("kind") StreakKind kind);
+
+    List<UserStreak> findByUserId(Long userId);
+
+    @Query("select distinct s.userId from UserStreak s where s.lastLoggedDate >= :from")
+    List<Long> findUserIdsLoggedSince(@Param("from") LocalDate from);
+}
@@ -0,0 +1,36 @@
+package com.health.repository;
+
+import com.health.entity.WearableMetric;
+import com.health.entity.WearableSampleChunk;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface WearableSampleChunkRepository extends JpaRepository<WearableSampleChunk, Long> {
+
+    String INSERT_SQL = """
+            insert into wearable_sample_chunks (user_id, metric, sample_date, start_ts, end_ts, sample_count, data, created_at)
+            values (?, ?, ?, ?, ?, ?, ?, ?)
+            """;
+
+    /**
+     * Chunks overlapping {@code [from, to]} (epoch seconds), in write order; the day bounds keep the scan on
+     * the (user_id, metric, sample_date) index.
+     */
+    @Query("""
+            select c from WearableSampleChunk c
+            where c.userId = :userId and c.metric = :metric
+              and c.sampleDate between :fromDay and :toDay
+              and c.startTs <= :to and c.endTs >= :from
+            order by c.id
+            """)
+    List<WearableSampleChunk> findOverlapping(@Param("userId") Long userId,
+                                              @Param("metric") WearableMetric metric,
+                                              @Param("fromDay") LocalDate fromDay,
+                                              @Param("toDay") LocalDate toDay,
+                                              @Param("from") long from,
+                                              @Param("to") long to);
+}
@@ -1,8 +1,83 @@
 package com.health.repository;
 
+import com.health.dto.WorkoutSessionDTO;
 import com.health.entity.WorkoutSession;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Stream;
 
 public interface WorkoutSessionRepository extends JpaRepository<WorkoutSession, Long>, JpaSpecificationExecutor<WorkoutSession> {
+
+    // JDBC batch insert used by WorkoutSessionService (sessions are append-only)
+    String INSERT_SQL = """
+            insert into workout_sessions
+                (user_id, workout_type_id, date, duration_minutes, calories_burned, note, change_seq, created_at)
+            values (?, ?, ?, ?, ?, ?, ?, ?)
+            """;
+
+    String MY_SESSIONS_SELECT = """
+            select new com.health.dto.WorkoutSessionDTO(s.id, s.date, t.id, t.name, s.durationMinutes,
+                   s.caloriesBurned, s.note, s.createdAt)
+            from WorkoutSession s join s.workoutType t
+            where s.user.id = :userId and s.date between :from and :to
+            """;
+
+    /**
+     * First page of the user's sessions in {@code [from, to]}, newest first; a range on idx_ws_user_time.
+     */
+    @Query(MY_SESSIONS_SELECT + " order by s.date desc, s.id desc")
+    List<WorkoutSessionDTO> findPageByUserId(@Param("userId") Long userId,
+                                             @Param("from") LocalDate from,
+                                             @Param("to") LocalDate to,
+                                             Pageable pageable);
+
+    /**
+     * Page after the keyset position {@code (afterDate, afterId)}; seeks along idx_ws_user_time.
+     */
+    @Query(MY_SESSIONS_SELECT + """
+             and (s.date < :afterDate or (s.date = :afterDate and s.id < :afterId))
+            order by s.date desc, s.id desc
+            """)
+    List<WorkoutSessionDTO> findPageByUserIdAfter(@Param("userId") Long userId,
+                                                  @Param("from") LocalDate from,
+                                                  @Param("to") LocalDate to,
+                                                  @Param("afterDate") LocalDate afterDate,
+                                                  @Param("afterId") Long afterId,
+                                                  Pageable pageable);
+
+    /**
+     * Every session of the user, oldest first, as unmanaged DTOs streamed from the server (must be consumed
+     * inside a transaction and closed).
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = HealthRecordRepository.STREAMING_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("""
+            select new com.health.dto.WorkoutSessionDTO(s.id, s.date, t.id, t.name, s.durationMinutes,
+                   s.caloriesBurned, s.note, s.createdAt)
+            from WorkoutSession s join s.workoutType t
+            where s.user.id = :userId
+            order by s.date, s.id
+            """)
+    Stream<WorkoutSessionDTO> streamForExport(@Param("userId") Long userId);
+
+    @Query("""
+            select s from WorkoutSession s join fetch s.workoutType
+            where s.user.id = :userId and s.changeSeq >= :seq and (s.changeSeq > :seq or s.id > :afterId)
+            order by s.changeSeq, s.id
+            """)
+    List<WorkoutSession> findChangesSince(@Param("userId") Long userId,
+                                          @Param("seq") long seq,
+                                          @Param("afterId") long afterId,
+                                          Pageable limit);
 }
@@ -0,0 +1,167 @@
+package com.health.security;
+
+import com.health.exception.ServiceUnavailableException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * BCrypt encoder that runs every hash and verification on a dedicated, bounded executor.
+ * <p>
+ * The pool is sized to the CPU count and backed by a fixed-size queue; work beyond that is rejected
+ * with {@link ServiceUnavailableException} instead of piling up on request threads. Hashes produced
+ * with a lower cost than the configured one are reported by {@link #upgradeEncoding(String)}, so the
+ * authentication provider transparently rehashes them on the next successful login; stronger hashes are
+ * never downgraded.
+ * <p>
+ * A caller that times out gets {@link ServiceUnavailableException} right away. Its task is cancelled and
+ * purged from the queue if it has not started; BCrypt never checks for interrupts, so a hash that is
+ * already running still finishes on its worker thread.
+ */
+@Slf4j
+public class BoundedPasswordEncoder implements PasswordEncoder {
+    // Calibration probe cost; the chosen cost is never below the configured floor
+    private static final int PROBE_STRENGTH = 10;
+    private static final int MAX_STRENGTH = 16;
+
+    @Getter
+    private final int strength;
+    private final BCryptPasswordEncoder delegate;
+    private final ThreadPoolExecutor executor;
+    private final Duration timeout;
+    private final Counter rejected;
+    private final Timer hashTimer;
+
+    public BoundedPasswordEncoder(int strength, int threads, int queueCapacity, Duration timeout, MeterRegistry meterRegistry) {
+        this.strength = strength;
+        this.delegate = new BCryptPasswordEncoder(strength);
+        this.timeout = timeout;
+
+        var threadIndex = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    var thread = new Thread(runnable, "password-hashing-" + threadIndex.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+
+        this.rejected = Counter.builder("password.hashing.rejected")
+                .description("Password hashing tasks rejected because the queue was full")
+                .register(meterRegistry);
+        this.hashTimer = Timer.builder("password.hashing.duration")
+                .description("Time spent computing BCrypt hashes and verifications")
+                .register(meterRegistry);
+        Gauge.builder("password.hashing.queue.size", executor, e -> e.getQueue().size())
+                .register(meterRegistry);
+        Gauge.builder("password.hashing.active", executor, ThreadPoolExecutor::getActiveCount)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Pick the highest BCrypt cost whose hash time stays within {@code targetMillis} on this machine, but
+     * never below {@code minStrength}. Each cost step doubles the work, so one measurement at the probe cost
+     * is enough to extrapolate.
+     */
+    public static int calibrate(long targetMillis, int minStrength) {
+        var probe = new BCryptPasswordEncoder(PROBE_STRENGTH);
+        probe.encode("calibration-warmup");
+        var start = System.nanoTime();
+        probe.encode("calibration-probe");
+        var baseMillis = Math.max(1.0, (System.nanoTime() - start) / 1_000_000.0);
+
+        var strength = Math.max(PROBE_STRENGTH, Math.min(minStrength, MAX_STRENGTH));
+        while (strength < MAX_STRENGTH && baseMillis * (1L << (strength + 1 - PROBE_STRENGTH)) <= targetMillis) {
+            strength++;
+        }
+        log.info("Calibrated BCrypt cost {} (~{} ms per hash, target {} ms, floor {})",
+                strength, Math.round(baseMillis * (1L << (strength - PROBE_STRENGTH))), targetMillis, minStrength);
+        return strength;
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return submit(() -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return submit(() -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        // "$2a$12$..." - only strengthen: a hash at or above the target cost is kept as is, so nodes that
+        // settled on different costs never rewrite each other's hashes back and forth
+        if (encodedPassword == null || encodedPassword.length() < 7) {
+            return false;
+        }
+        try {
+            return Integer.parseInt(encodedPassword.substring(4, 6)) < strength;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    private <T> T submit(Callable<T> task) {
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                // Cancelled between being dequeued and starting: skip the hash
+                if (Thread.interrupted()) {
+                    throw new CancellationException("Password hashing was cancelled");
+                }
+                return hashTimer.recordCallable(task);
+            });
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            log.warn("Password hashing queue is full ({} queued)", executor.getQueue().size());
+            throw new ServiceUnavailableException("Server is busy, please try again shortly");
+        }
+        try {
+            return future.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            // Frees the queue slot of a hash that has not started; a running one cannot be stopped
+            cancel(future);
+            throw new ServiceUnavailableException("Password hashing timed out, please try again shortly");
+        } catch (InterruptedException e) {
+            cancel(future);
+            Thread.currentThread().interrupt();
+            throw new ServiceUnavailableException("Password hashing was interrupted");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Password hashing failed", e.getCause());
+        }
+    }
+
+    private void cancel(Future<?> future) {
+        future.cancel(true);
+        executor.purge();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,15 @@
+package com.health.security;
+
+import java.lang.annotation.*;
+
+/**
+ * Injects the authenticated user into a controller method parameter without querying the database.
+ * <p>
+ * Supported parameter types: {@link Long} (user id), {@link UserPrincipal}, and
+ * {@link com.health.entity.User} (an uninitialized {@code getReference} proxy, usable as an association).
+ */
+@Target(ElementType.PARAMETER)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface CurrentUser {
+}
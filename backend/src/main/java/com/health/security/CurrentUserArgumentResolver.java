@@ -0,0 +1,49 @@
+package com.health.security;
+
+import com.health.entity.User;
+import com.health.exception.UnauthorizedException;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.MethodParameter;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.bind.support.WebDataBinderFactory;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.method.support.ModelAndViewContainer;
+
+@Component
+@RequiredArgsConstructor
+public class CurrentUserArgumentResolver implements HandlerMethodArgumentResolver {
+
+    private final EntityManager entityManager;
+
+    @Override
+    public boolean supportsParameter(MethodParameter parameter) {
+        return parameter.hasParameterAnnotation(CurrentUser.class);
+    }
+
+    @Override
+    public Object resolveArgument(MethodParameter parameter,
+                                  ModelAndViewContainer mavContainer,
+                                  NativeWebRequest webRequest,
+                                  WebDataBinderFactory binderFactory) {
+        var authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()
+                || !(authentication.getPrincipal() instanceof UserPrincipal principal)) {
+            throw new UnauthorizedException("Authentication required to access this resource");
+        }
+
+        var type = parameter.getParameterType();
+        if (Long.class.equals(type) || long.class.equals(type)) {
+            return principal.getId();
+        }
+        if (UserPrincipal.class.isAssignableFrom(type)) {
+            return principal;
+        }
+        if (User.class.equals(type)) {
+            return entityManager.getReference(User.class, principal.getId());
+        }
+        throw new IllegalStateException("@CurrentUser is not supported on parameters of type " + type.getName());
+    }
+}
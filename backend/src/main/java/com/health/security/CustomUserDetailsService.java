@@ -4,15 +4,18 @@ import com.health.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Optional;
+
 @Service
 @RequiredArgsConstructor
 @Slf4j
-public class CustomUserDetailsService implements UserDetailsService {
+public class CustomUserDetailsService implements UserDetailsService, UserDetailsPasswordService {
     private final UserRepository userRepository;
 
     @Override
@@ -29,4 +32,29 @@ public class CustomUserDetailsService implements UserDetailsService {
         }
         return UserPrincipal.create(user);
     }
+
+    /**
+     * Called by the authentication provider after a successful login when the stored hash was produced
+     * with a different BCrypt cost than the current target. The password itself is unchanged, so the
+     * security version (and therefore issued tokens) is left alone.
+     */
+    @Override
+    @Transactional
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        userRepository.updatePasswordHash(user.getUsername(), newPassword);
+        log.info("Rehashed password for {} with the current work factor", user.getUsername());
+        if (user instanceof UserPrincipal principal) {
+            principal.setPassword(newPassword);
+            return principal;
+        }
+        return user;
+    }
+
+    /**
+     * Load the principal by id with a single narrow query (no profile join, no password hash).
+     */
+    @Transactional(readOnly = true)
+    public Optional<UserPrincipal> loadUserById(Long userId) {
+        return userRepository.findPrincipalById(userId);
+    }
 }
\ No newline at end of file
@@ -8,7 +8,7 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
@@ -22,7 +22,8 @@ import java.io.IOException;
 public class JwtRequestFilter extends OncePerRequestFilter {
 
     private final JwtUtil jwtUtil;
-    private final UserDetailsService userDetailsService;
+    private final PrincipalCache principalCache;
+    private final SessionRevocationList sessionRevocationList;
 
     private static final String AUTHORIZATION_HEADER = "Authorization";
     private static final String BEARER_PREFIX = "Bearer ";
@@ -36,34 +37,43 @@ public class JwtRequestFilter extends OncePerRequestFilter {
             return;
         }
         final var requestTokenHeader = request.getHeader(AUTHORIZATION_HEADER);
-        var username = "";
-        var jwtToken = "";
-
-        if (StringUtils.hasText(requestTokenHeader) && requestTokenHeader.startsWith(BEARER_PREFIX)) {
-            jwtToken = requestTokenHeader.substring(BEARER_PREFIX.length());
-            try {
-                username = jwtUtil.getUsernameFromToken(jwtToken);
-            } catch (Exception e) {
-                log.error(e.getMessage());
-            }
+        if (!StringUtils.hasText(requestTokenHeader) || !requestTokenHeader.startsWith(BEARER_PREFIX)
+                || SecurityContextHolder.getContext().getAuthentication() != null) {
+            filterChain.doFilter(request, response);
+            return;
         }
 
-        if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            try {
-                var userDetails = userDetailsService.loadUserByUsername(username);
-                if (jwtUtil.validateToken(jwtToken, userDetails)) {
-                    UsernamePasswordAuthenticationToken authToken =
-                            new UsernamePasswordAuthenticationToken(
-                                    userDetails,
-                                    null,
-                                    userDetails.getAuthorities()
-                            );
-                    authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                    SecurityContextHolder.getContext().setAuthentication(authToken);
-                }
-            } catch (Exception e) {
-                log.error("Error setting authentication context: {}", e.getMessage());
+        final var jwtToken = requestTokenHeader.substring(BEARER_PREFIX.length());
+        try {
+            var claims = jwtUtil.verify(jwtToken);
+            var sessionId = claims.get(JwtUtil.CLAIM_SESSION_ID, String.class);
+            UserDetails userDetails;
+            if (JwtUtil.TYPE_REFRESH.equals(claims.get(JwtUtil.CLAIM_TYPE, String.class))) {
+                // Refresh tokens are only accepted by /auth/refresh
+                userDetails = null;
+            } else if (sessionId == null || claims.get(JwtUtil.CLAIM_USER_ID) == null) {
+                // Issued before sessions existed (with a decades-long expiry): there is no security version
+                // or session to revoke, so the client has to log in again
+                log.warn("Rejected access token without session claims for {}", claims.getSubject());
+                userDetails = null;
+            } else if (sessionRevocationList.isRevoked(sessionId)) {
+                log.warn("Rejected access token of revoked session {}", sessionId);
+                userDetails = null;
+            } else {
+                userDetails = principalCache.resolve(claims);
+            }
+            if (userDetails != null) {
+                UsernamePasswordAuthenticationToken authToken =
+                        new UsernamePasswordAuthenticationToken(
+                                userDetails,
+                                null,
+                                userDetails.getAuthorities()
+                        );
+                authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+                SecurityContextHolder.getContext().setAuthentication(authToken);
             }
+        } catch (Exception e) {
+            log.error("Error setting authentication context: {}", e.getMessage());
         }
 
         filterChain.doFilter(request, response);
@@ -1,6 +1,10 @@
 package com.health.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
 import lombok.extern.slf4j.Slf4j;
@@ -10,51 +14,141 @@ import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
 import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.HexFormat;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 
 @Component
 @Slf4j
 public class JwtUtil {
+    public static final String CLAIM_USER_ID = "uid";
+    public static final String CLAIM_ROLE = "role";
+    public static final String CLAIM_SECURITY_VERSION = "sv";
+    public static final String CLAIM_SESSION_ID = "sid";
+    public static final String CLAIM_TYPE = "type";
+    public static final String TYPE_REFRESH = "refresh";
+
+    private final Long expiration;
+    private final Long refreshExpiration;
+
+    // Immutable and thread-safe: built once instead of per token
+    private final SecretKey signingKey;
+    private final JwtParser parser;
+
+    // SHA-256 digest of a recently verified token -> its claims, evicted at the token's own expiry
+    private final Cache<String, Claims> verifiedTokens;
+
+    public JwtUtil(@Value("${jwt.secret}") String secret,
+                   @Value("${jwt.expiration}") Long expiration,
+                   @Value("${jwt.refresh.expiration}") Long refreshExpiration,
+                   @Value("${jwt.verified-cache.max-size:10000}") long verifiedCacheSize) {
+        this.expiration = expiration;
+        this.refreshExpiration = refreshExpiration;
+        this.signingKey = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        this.parser = Jwts.parser()
+                .verifyWith(signingKey)
+                .build();
+        this.verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(verifiedCacheSize)
+                .expireAfter(new Expiry<String, Claims>() {
+                    @Override
+                    public long expireAfterCreate(String key, Claims claims, long currentTime) {
+                        var remaining = claims.getExpiration().getTime() - System.currentTimeMillis();
+                        return TimeUnit.MILLISECONDS.toNanos(Math.max(remaining, 0));
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, Claims claims, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, Claims claims, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+    }
 
-    @Value("${jwt.secret}")
-    private String secret;
-
-    @Value("${jwt.expiration}")
-    private Long expiration;
+    /**
+     * Issue an access token bound to a refresh-token session, so revoking the session revokes it too.
+     */
+    public String generateToken(UserDetails userDetails, String sessionId) {
+        Map<String, Object> claims = new HashMap<>();
+        claims.put(CLAIM_SESSION_ID, sessionId);
+        claims.put(CLAIM_ROLE, userDetails.getAuthorities().iterator().next().getAuthority());
+        if (userDetails instanceof UserPrincipal principal) {
+            claims.put(CLAIM_USER_ID, principal.getId());
+            claims.put(CLAIM_SECURITY_VERSION, principal.getSecurityVersion());
+        }
+        return createToken(claims, null, userDetails.getUsername(), expiration);
+    }
 
-    @Value("${jwt.refresh.expiration}")
-    private Long refreshExpiration;
+    public String generateRefreshToken(UserPrincipal principal, String tokenId, String sessionId) {
+        return generateRefreshToken(principal, tokenId, sessionId, refreshExpiration);
+    }
 
-    public String generateToken(UserDetails userDetails) {
+    /**
+     * Sign a refresh token for an existing jti with the time it has left, e.g. to hand a retrying client the
+     * successor it already received once.
+     */
+    public String generateRefreshToken(UserPrincipal principal, String tokenId, String sessionId, long ttlMillis) {
         Map<String, Object> claims = new HashMap<>();
-        claims.put("role", userDetails.getAuthorities().iterator().next().getAuthority());
-        return createToken(claims, userDetails.getUsername(), expiration);
+        claims.put(CLAIM_TYPE, TYPE_REFRESH);
+        claims.put(CLAIM_SESSION_ID, sessionId);
+        claims.put(CLAIM_SECURITY_VERSION, principal.getSecurityVersion());
+        return createToken(claims, tokenId, principal.getUsername(), ttlMillis);
     }
 
-    public String generateRefreshToken(UserDetails userDetails) {
-        Map<String, Object> claims = new HashMap<>();
-        claims.put("type", "refresh");
-        return createToken(claims, userDetails.getUsername(), refreshExpiration);
+    public long getExpirationMillis() {
+        return expiration;
     }
 
-    private String createToken(Map<String, Object> claims, String subject, Long expirationTime) {
+    public long getRefreshExpirationMillis() {
+        return refreshExpiration;
+    }
+
+    private String createToken(Map<String, Object> claims, String tokenId, String subject, Long expirationTime) {
         Date now = new Date();
         Date expiryDate = new Date(now.getTime() + expirationTime);
 
         return Jwts.builder()
                 .claims(claims)
+                .id(tokenId)
                 .subject(subject)
                 .issuedAt(now)
                 .expiration(expiryDate)
-                .signWith(getSigningKey())
+                .signWith(signingKey)
                 .compact();
     }
 
-    private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+    /**
+     * Verify the signature and expiry of a token once and return all of its claims.
+     * Tokens verified recently are answered from the digest cache without another HMAC check.
+     *
+     * @throws RuntimeException if the token is malformed, tampered with or expired
+     */
+    public Claims verify(String token) {
+        var digest = digest(token);
+        var cached = verifiedTokens.getIfPresent(digest);
+        if (cached != null && cached.getExpiration().after(new Date())) {
+            return cached;
+        }
+        try {
+            var claims = parser.parseSignedClaims(token).getPayload();
+            if (claims.getExpiration() != null) {
+                verifiedTokens.put(digest, claims);
+            }
+            return claims;
+        } catch (Exception e) {
+            log.error("Error parsing JWT token: {}", e.getMessage());
+            throw new RuntimeException("Invalid JWT token", e);
+        }
     }
 
     public String getUsernameFromToken(String token) {
@@ -66,32 +160,13 @@ public class JwtUtil {
     }
 
     public <T> T getClaimFromToken(String token, Function<Claims, T> claimsResolver) {
-        final Claims claims = getAllClaimsFromToken(token);
-        return claimsResolver.apply(claims);
-    }
-
-    private Claims getAllClaimsFromToken(String token) {
-        try {
-            return Jwts.parser()
-                    .verifyWith(getSigningKey())
-                    .build()
-                    .parseSignedClaims(token)
-                    .getPayload();
-        } catch (Exception e) {
-            log.error("Error parsing JWT token: {}", e.getMessage());
-            throw new RuntimeException("Invalid JWT token", e);
-        }
-    }
-
-    private Boolean isTokenExpired(String token) {
-        final Date expiration = getExpirationDateFromToken(token);
-        return expiration.before(new Date());
+        return claimsResolver.apply(verify(token));
     }
 
     public Boolean validateToken(String token, UserDetails userDetails) {
         try {
-            final String username = getUsernameFromToken(token);
-            return (username.equals(userDetails.getUsername()) && !isTokenExpired(token));
+            // verify() already rejects expired tokens
+            return verify(token).getSubject().equals(userDetails.getUsername());
         } catch (Exception e) {
             log.error("Token validation failed: {}", e.getMessage());
             return false;
@@ -100,10 +175,20 @@ public class JwtUtil {
 
     public Boolean isTokenValid(String token) {
         try {
-            return !isTokenExpired(token);
+            verify(token);
+            return true;
         } catch (Exception e) {
             log.error("Token validation failed: {}", e.getMessage());
             return false;
         }
     }
-}
\ No newline at end of file
+
+    private static String digest(String token) {
+        try {
+            var sha256 = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(sha256.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,281 @@
+package com.health.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.health.exception.TooManyRequestsException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.LongSupplier;
+
+/**
+ * In-process throttle for the credential endpoints (login, admin login, register).
+ * <p>
+ * Every client IP and every normalized email+IP pair gets its own token bucket. Buckets live in a
+ * concurrent cache and are evicted after a period of inactivity. Each bucket updates its state with a CAS
+ * loop, so legitimate traffic never blocks on a lock. Checks run before any BCrypt work is done.
+ * <p>
+ * No bucket is keyed on the email alone: anyone could drain it with a few requests a minute from any
+ * address and keep the real owner on 429. An attempt takes a token from a bucket only when every bucket
+ * allows it.
+ * <p>
+ * Failed logins add an exponential penalty to the client IP and to the email+IP pair, never to the email
+ * alone, so guessing a victim's password from elsewhere cannot lock the victim out. The failure count
+ * starts over once {@code idle-eviction} passes without a failure, and a successful login clears the
+ * pair and takes one failure off the IP, so a shared NAT address does not stay at the maximum penalty.
+ */
+@Component
+@Slf4j
+public class LoginRateLimiter {
+
+    public enum Scope {IP, EMAIL_IP}
+
+    private final Cache<String, Bucket> buckets;
+    private final Map<Scope, Limit> limits = new EnumMap<>(Scope.class);
+    private final int penaltyFreeFailures;
+    private final long penaltyBaseNanos;
+    private final long penaltyMaxNanos;
+    private final long failureDecayNanos;
+    private final LongSupplier nanoClock;
+
+    private final Map<Scope, Counter> allowedCounters = new EnumMap<>(Scope.class);
+    private final Map<Scope, Counter> rejectedCounters = new EnumMap<>(Scope.class);
+    private final Map<Scope, Counter> penaltyCounters = new EnumMap<>(Scope.class);
+
+    @Autowired
+    public LoginRateLimiter(@Value("${security.login-throttle.email-ip.capacity:5}") int emailIpCapacity,
+                            @Value("${security.login-throttle.email-ip.refill-per-minute:5}") int emailIpRefillPerMinute,
+                            @Value("${security.login-throttle.ip.capacity:30}") int ipCapacity,
+                            @Value("${security.login-throttle.ip.refill-per-minute:30}") int ipRefillPerMinute,
+                            @Value("${security.login-throttle.penalty.free-failures:3}") int penaltyFreeFailures,
+                            @Value("${security.login-throttle.penalty.base:1s}") Duration penaltyBase,
+                            @Value("${security.login-throttle.penalty.max:15m}") Duration penaltyMax,
+                            @Value("${security.login-throttle.idle-eviction:30m}") Duration idleEviction,
+                            @Value("${security.login-throttle.max-keys:200000}") long maxKeys,
+                            MeterRegistry meterRegistry) {
+        this(emailIpCapacity, emailIpRefillPerMinute, ipCapacity, ipRefillPerMinute, penaltyFreeFailures,
+                penaltyBase, penaltyMax, idleEviction, maxKeys, meterRegistry, System::nanoTime);
+    }
+
+    /**
+     * @param nanoClock source of {@link System#nanoTime()}-style readings for refills and penalties
+     */
+    LoginRateLimiter(int emailIpCapacity, int emailIpRefillPerMinute, int ipCapacity, int ipRefillPerMinute,
+                     int penaltyFreeFailures, Duration penaltyBase, Duration penaltyMax, Duration idleEviction,
+                     long maxKeys, MeterRegistry meterRegistry, LongSupplier nanoClock) {
+        this.nanoClock = nanoClock;
+        limits.put(Scope.IP, new Limit(ipCapacity, ipRefillPerMinute));
+        limits.put(Scope.EMAIL_IP, new Limit(emailIpCapacity, emailIpRefillPerMinute));
+        this.penaltyFreeFailures = penaltyFreeFailures;
+        this.penaltyBaseNanos = penaltyBase.toNanos();
+        this.penaltyMaxNanos = penaltyMax.toNanos();
+        this.failureDecayNanos = idleEviction.toNanos();
+        this.buckets = Caffeine.newBuilder()
+                .expireAfterAccess(idleEviction)
+                .maximumSize(maxKeys)
+                .build();
+
+        for (var scope : Scope.values()) {
+            var tag = scope.name().toLowerCase(Locale.ROOT);
+            allowedCounters.put(scope, meterRegistry.counter("auth.throttle.allowed", "scope", tag));
+            rejectedCounters.put(scope, meterRegistry.counter("auth.throttle.rejected", "scope", tag));
+            penaltyCounters.put(scope, meterRegistry.counter("auth.throttle.penalties", "scope", tag));
+        }
+    }
+
+    /**
+     * Take one token from the email+IP and IP buckets, or from neither.
+     *
+     * @throws TooManyRequestsException when a bucket is empty or under a failure penalty
+     */
+    public void acquire(String email, String clientIp) {
+        var pairBucket = acquire(Scope.EMAIL_IP, pair(email, clientIp));
+        try {
+            acquire(Scope.IP, clientIp);
+        } catch (TooManyRequestsException e) {
+            if (pairBucket != null) {
+                pairBucket.refund(limits.get(Scope.EMAIL_IP));
+            }
+            throw e;
+        }
+        if (pairBucket != null) {
+            allowedCounters.get(Scope.EMAIL_IP).increment();
+        }
+        if (clientIp != null && !clientIp.isBlank()) {
+            allowedCounters.get(Scope.IP).increment();
+        }
+    }
+
+    public void recordFailure(String email, String clientIp) {
+        penalize(Scope.EMAIL_IP, pair(email, clientIp));
+        penalize(Scope.IP, clientIp);
+    }
+
+    public void recordSuccess(String email, String clientIp) {
+        var pairBucket = bucket(Scope.EMAIL_IP, pair(email, clientIp));
+        if (pairBucket != null) {
+            pairBucket.clearFailures();
+        }
+        var ipBucket = bucket(Scope.IP, clientIp);
+        if (ipBucket != null) {
+            ipBucket.forgiveFailure();
+        }
+    }
+
+    private Bucket bucket(Scope scope, String value) {
+        return value == null || value.isBlank() ? null : buckets.getIfPresent(key(scope, value));
+    }
+
+    /**
+     * @return the bucket a token was taken from, or null when there is no key for this scope
+     */
+    private Bucket acquire(Scope scope, String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        var key = key(scope, value);
+        var limit = limits.get(scope);
+        var bucket = buckets.get(key, k -> new Bucket(limit.capacity(), nanoClock.getAsLong()));
+        var waitNanos = bucket.tryAcquire(nanoClock.getAsLong(), limit);
+        if (waitNanos == 0) {
+            return bucket;
+        }
+        rejectedCounters.get(scope).increment();
+        var retryAfter = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos));
+        log.warn("Throttled {} (rejected {} times, retry after {}s)", key, bucket.rejectedCount(), retryAfter);
+        throw new TooManyRequestsException("Too many attempts, please try again later", retryAfter);
+    }
+
+    private void penalize(Scope scope, String value) {
+        if (value == null || value.isBlank()) {
+            return;
+        }
+        var limit = limits.get(scope);
+        var bucket = buckets.get(key(scope, value), k -> new Bucket(limit.capacity(), nanoClock.getAsLong()));
+        if (bucket.recordFailure(nanoClock.getAsLong(), failureDecayNanos, penaltyFreeFailures, penaltyBaseNanos,
+                penaltyMaxNanos)) {
+            penaltyCounters.get(scope).increment();
+        }
+    }
+
+    private static String key(Scope scope, String value) {
+        var normalized = value.trim().toLowerCase(Locale.ROOT);
+        return switch (scope) {
+            case IP -> "ip:" + normalized;
+            case EMAIL_IP -> "email-ip:" + normalized;
+        };
+    }
+
+    private static String pair(String email, String clientIp) {
+        return email == null || email.isBlank() || clientIp == null || clientIp.isBlank()
+                ? null
+                : email.trim() + "|" + clientIp.trim();
+    }
+
+    record Limit(int capacity, int refillPerMinute) {
+        double refillPerNano() {
+            return refillPerMinute / (double) TimeUnit.MINUTES.toNanos(1);
+        }
+    }
+
+    /**
+     * Lock-free token bucket: all state lives in one immutable snapshot swapped with compare-and-set.
+     */
+    static final class Bucket {
+        private record State(double tokens, long refilledAt, long blockedUntil, int failures, long failedAt,
+                             long rejected) {
+        }
+
+        private final AtomicReference<State> state;
+
+        Bucket(int capacity, long now) {
+            this.state = new AtomicReference<>(new State(capacity, now, now, 0, now, 0));
+        }
+
+        /**
+         * @return 0 when a token was taken, otherwise the nanoseconds until the next attempt may succeed
+         */
+        long tryAcquire(long now, Limit limit) {
+            while (true) {
+                var current = state.get();
+                var tokens = Math.min(limit.capacity(),
+                        current.tokens() + (now - current.refilledAt()) * limit.refillPerNano());
+                long waitNanos;
+                State next;
+                if (now - current.blockedUntil() < 0) {
+                    waitNanos = current.blockedUntil() - now;
+                    next = new State(tokens, now, current.blockedUntil(), current.failures(), current.failedAt(),
+                            current.rejected() + 1);
+                } else if (tokens >= 1) {
+                    waitNanos = 0;
+                    next = new State(tokens - 1, now, current.blockedUntil(), current.failures(), current.failedAt(),
+                            current.rejected());
+                } else {
+                    waitNanos = (long) Math.ceil((1 - tokens) / limit.refillPerNano());
+                    next = new State(tokens, now, current.blockedUntil(), current.failures(), current.failedAt(),
+                            current.rejected() + 1);
+                }
+                if (state.compareAndSet(current, next)) {
+                    return waitNanos;
+                }
+            }
+        }
+
+        /**
+         * The count starts over when the previous failure is older than {@code decayNanos}.
+         *
+         * @return true when the failure started (or extended) a penalty period
+         */
+        boolean recordFailure(long now, long decayNanos, int freeFailures, long baseNanos, long maxNanos) {
+            while (true) {
+                var current = state.get();
+                var failures = (now - current.failedAt() > decayNanos ? 0 : current.failures()) + 1;
+                var blockedUntil = current.blockedUntil();
+                var penalized = failures > freeFailures;
+                if (penalized) {
+                    var exponent = Math.min(failures - freeFailures - 1, 30);
+                    var penalty = Math.min(maxNanos, baseNanos << exponent);
+                    blockedUntil = now + (penalty < 0 ? maxNanos : penalty);
+                }
+                var next = new State(current.tokens(), current.refilledAt(), blockedUntil, failures, now,
+                        current.rejected());
+                if (state.compareAndSet(current, next)) {
+                    return penalized;
+                }
+            }
+        }
+
+        // Gives back a token taken for an attempt that another bucket then rejected
+        void refund(Limit limit) {
+            state.updateAndGet(current -> new State(Math.min(limit.capacity(), current.tokens() + 1),
+                    current.refilledAt(), current.blockedUntil(), current.failures(), current.failedAt(),
+                    current.rejected()));
+        }
+
+        void clearFailures() {
+            state.updateAndGet(current -> new State(current.tokens(), current.refilledAt(),
+                    current.refilledAt(), 0, current.failedAt(), current.rejected()));
+        }
+
+        // A success through a shared address takes one failure off without lifting a running penalty
+        void forgiveFailure() {
+            state.updateAndGet(current -> current.failures() == 0 ? current : new State(current.tokens(),
+                    current.refilledAt(), current.blockedUntil(), current.failures() - 1, current.failedAt(),
+                    current.rejected()));
+        }
+
+        long rejectedCount() {
+            return state.get().rejected();
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.health.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.health.entity.User;
+import io.jsonwebtoken.Claims;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+
+/**
+ * Bounded, TTL-evicted cache of authenticated principals keyed by user id.
+ * <p>
+ * Each entry carries the user's active flag and security version. A token is accepted only when its
+ * {@code sv} claim matches the cached version, so bumping the version (password change, admin status
+ * change) and refreshing the entry revokes every token issued before it. A miss always loads the user
+ * from the database: the claims of a still-valid token cannot tell that the account was since disabled.
+ */
+@Component
+@Slf4j
+public class PrincipalCache {
+
+    private final CustomUserDetailsService userDetailsService;
+    private final Cache<Long, UserPrincipal> cache;
+
+    public PrincipalCache(CustomUserDetailsService userDetailsService,
+                          @Value("${jwt.principal.cache.max-size:10000}") long maxSize,
+                          @Value("${jwt.principal.cache.ttl:5m}") Duration ttl) {
+        this.userDetailsService = userDetailsService;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    /**
+     * Resolve the principal for verified token claims, or {@code null} when the token has been revoked
+     * or the account is inactive.
+     */
+    public UserPrincipal resolve(Claims claims) {
+        var userId = claims.get(JwtUtil.CLAIM_USER_ID, Long.class);
+        var tokenVersion = claims.get(JwtUtil.CLAIM_SECURITY_VERSION, Integer.class);
+        if (userId == null || tokenVersion == null) {
+            return null;
+        }
+
+        var principal = cache.getIfPresent(userId);
+        if (principal == null || tokenVersion > principal.getSecurityVersion()) {
+            // Miss, or the entry predates a change made on another node
+            principal = userDetailsService.loadUserById(userId).orElse(null);
+            if (principal == null) {
+                return null;
+            }
+            cache.put(userId, principal);
+        }
+
+        if (!tokenVersion.equals(principal.getSecurityVersion()) || !Boolean.TRUE.equals(principal.getIsActive())) {
+            log.warn("Rejected revoked token for user {} (token version {}, current {})",
+                    userId, tokenVersion, principal.getSecurityVersion());
+            return null;
+        }
+        return principal;
+    }
+
+    /**
+     * Replace the cached entry with the user's new security state once the surrounding transaction commits.
+     */
+    public void invalidateAfterCommit(User user) {
+        var principal = UserPrincipal.create(user);
+        principal.setPassword(null);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            cache.put(principal.getId(), principal);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                cache.put(principal.getId(), principal);
+            }
+        });
+    }
+}
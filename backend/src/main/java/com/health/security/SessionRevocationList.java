@@ -0,0 +1,116 @@
+package com.health.security;
+
+import com.health.repository.RefreshTokenRepository;
+import com.health.util.BloomFilter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Revoked sessions (refresh-token families), checked for every access token.
+ * <p>
+ * Revocations are held in memory only: a Bloom filter answers the common "not revoked" case without
+ * touching the exact set, and only possible hits are confirmed against it, so checking a token never
+ * queries the database. Both are rebuilt from {@code refresh_tokens} at startup and hourly, keeping every
+ * session revoked within the access-token lifetime. Revocations made on other nodes are picked up by a
+ * poll of the families revoked since the previous one, every {@code jwt.revocation.poll-interval}.
+ */
+@Component
+@Slf4j
+public class SessionRevocationList {
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final int expectedRevocations;
+    private final double falsePositiveRate;
+    private final Duration accessTokenTtl;
+    private final Duration pollMargin;
+
+    private volatile Snapshot snapshot;
+    // Revocations recorded since the current rebuild started, replayed onto the rebuilt snapshot
+    private volatile Set<String> sinceRebuild = ConcurrentHashMap.newKeySet();
+    private volatile LocalDateTime lastPoll;
+
+    private record Snapshot(BloomFilter filter, Set<String> exact) {
+    }
+
+    public SessionRevocationList(RefreshTokenRepository refreshTokenRepository,
+                                 @Value("${jwt.revocation.expected-entries:100000}") int expectedRevocations,
+                                 @Value("${jwt.revocation.false-positive-rate:0.01}") double falsePositiveRate,
+                                 @Value("${jwt.revocation.poll-margin:PT1M}") Duration pollMargin,
+                                 @Value("${jwt.expiration}") long accessTokenTtlMillis) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.expectedRevocations = expectedRevocations;
+        this.falsePositiveRate = falsePositiveRate;
+        this.pollMargin = pollMargin;
+        this.accessTokenTtl = Duration.ofMillis(accessTokenTtlMillis);
+        this.snapshot = new Snapshot(new BloomFilter(expectedRevocations, falsePositiveRate), ConcurrentHashMap.newKeySet());
+    }
+
+    public boolean isRevoked(String sessionId) {
+        var current = snapshot;
+        return current.filter().mightContain(sessionId) && current.exact().contains(sessionId);
+    }
+
+    // Serialized with the snapshot swap in rebuild(), so a revocation lands in the replayed set or the new snapshot
+    public synchronized void revoke(String sessionId) {
+        sinceRebuild.add(sessionId);
+        var current = snapshot;
+        current.exact().add(sessionId);
+        current.filter().put(sessionId);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${jwt.revocation.rebuild-interval:PT1H}", initialDelayString = "${jwt.revocation.rebuild-interval:PT1H}")
+    public void rebuild() {
+        var now = LocalDateTime.now();
+        Set<String> pending = ConcurrentHashMap.newKeySet();
+        sinceRebuild = pending;
+        var revoked = refreshTokenRepository.findRevokedFamilyIds(now.minus(accessTokenTtl));
+        var filter = new BloomFilter(Math.max(expectedRevocations, revoked.size()), falsePositiveRate);
+        Set<String> exact = ConcurrentHashMap.newKeySet(revoked.size());
+        revoked.forEach(sessionId -> {
+            exact.add(sessionId);
+            filter.put(sessionId);
+        });
+        synchronized (this) {
+            pending.forEach(sessionId -> {
+                exact.add(sessionId);
+                filter.put(sessionId);
+            });
+            snapshot = new Snapshot(filter, exact);
+        }
+        lastPoll = now;
+        log.info("Session revocation list rebuilt with {} revoked sessions", exact.size());
+    }
+
+    /**
+     * Add the sessions revoked since the previous poll (minus the poll margin, for transactions that were
+     * still in flight), including revocations made on other nodes.
+     */
+    @Scheduled(fixedDelayString = "${jwt.revocation.poll-interval:PT10S}",
+            initialDelayString = "${jwt.revocation.poll-interval:PT10S}")
+    public void poll() {
+        var since = lastPoll;
+        if (since == null) {
+            return;
+        }
+        var now = LocalDateTime.now();
+        try {
+            var revoked = refreshTokenRepository.findRevokedFamilyIds(since.minus(pollMargin));
+            revoked.forEach(this::revoke);
+            lastPoll = now;
+            log.debug("Session revocation poll added {} sessions", revoked.size());
+        } catch (RuntimeException e) {
+            // lastPoll is kept, so the next poll covers these revocations too
+            log.warn("Session revocation poll failed: {}", e.getMessage());
+        }
+    }
+}
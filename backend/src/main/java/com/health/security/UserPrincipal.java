@@ -14,6 +14,7 @@ import java.util.Collections;
 @Data
 @AllArgsConstructor
 public class UserPrincipal implements UserDetails {
+    private static final String ROLE_PREFIX = "ROLE_";
 
     private Long id;
     private String email;
@@ -21,6 +22,7 @@ public class UserPrincipal implements UserDetails {
     private String fullName;
     private Role role;
     private Boolean isActive;
+    private Integer securityVersion;
 
     public static UserPrincipal create(User user) {
         return new UserPrincipal(
@@ -29,13 +31,14 @@ public class UserPrincipal implements UserDetails {
                 user.getPassword(),
                 user.getFullName(),
                 user.getRole(),
-                user.getIsActive()
+                user.getIsActive(),
+                user.getSecurityVersion() != null ? user.getSecurityVersion() : 0
         );
     }
 
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
-        var authority = "ROLE_" + role.name();
+        var authority = ROLE_PREFIX + role.name();
         return Collections.singletonList(new SimpleGrantedAuthority(authority));
     }
 
@@ -0,0 +1,146 @@
+package com.health.service;
+
+import com.health.dto.ActivityCalendarDTO;
+import com.health.entity.StreakKind;
+import com.health.entity.UserActivityCalendar;
+import com.health.exception.ValidationException;
+import com.health.repository.DailyUserSummaryRepository;
+import com.health.repository.UserActivityCalendarRepository;
+import com.health.util.DayBitset;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.Year;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Maintains {@code user_activity_calendars}: per user and year, one 366-bit day set per {@link StreakKind}.
+ * <p>
+ * Writers call {@link #onLogged} and {@link #onDayCleared} in their transaction after the day's flag changed
+ * in {@code daily_user_summary}; each is one in-place bitwise update of the row. A year without a row yet
+ * is seeded from the summary flags, so history written before the calendar existed is included. A
+ * full-year heatmap is then a single row read.
+ */
+@Service
+@RequiredArgsConstructor
+public class ActivityCalendarService {
+
+    public enum Format {
+        BITS, RLE;
+
+        public static Format fromParam(String value) {
+            return Arrays.stream(values())
+                    .filter(format -> format.name().equalsIgnoreCase(value))
+                    .findFirst()
+                    .orElseThrow(() -> new ValidationException("format must be bits or rle"));
+        }
+    }
+
+    private final UserActivityCalendarRepository calendarRepository;
+    private final DailyUserSummaryRepository summaryRepository;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void onLogged(Long userId, StreakKind kind, LocalDate from, LocalDate to) {
+        if (from.equals(to)) {
+            var bits = DayBitset.empty();
+            DayBitset.set(bits, from);
+            setDays(userId, from.getYear(), kind, bits);
+            return;
+        }
+        Map<Integer, byte[]> years = new TreeMap<>();
+        summaryRepository.findLoggedDates(userId, kind.flag(), from, to)
+                .forEach(date -> DayBitset.set(years.computeIfAbsent(date.getYear(), y -> DayBitset.empty()), date));
+        years.forEach((year, bits) -> setDays(userId, year, kind, bits));
+    }
+
+    /**
+     * Clear {@code date} for {@code kind} unless the day still has a log of that kind.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void onDayCleared(Long userId, StreakKind kind, LocalDate date) {
+        if (!summaryRepository.findLoggedDates(userId, kind.flag(), date, date).isEmpty()) {
+            return;
+        }
+        var all = DayBitset.full();
+        var keep = DayBitset.full();
+        DayBitset.clear(keep, date);
+        // No row yet: the day is left out when the year is seeded from the summary
+        calendarRepository.andDays(userId, date.getYear(),
+                kind == StreakKind.MEAL ? keep : all,
+                kind == StreakKind.HEALTH ? keep : all,
+                kind == StreakKind.WORKOUT ? keep : all);
+    }
+
+    /**
+     * Drop the calendars of every year touched by {@code [from, to]} after the summary was rebuilt; each is
+     * seeded again from the rebuilt summary on first use.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void onSummaryRebuilt(LocalDate from, LocalDate to) {
+        calendarRepository.deleteByYearBetween(from.getYear(), to.getYear());
+    }
+
+    @Transactional(readOnly = true)
+    public ActivityCalendarDTO getCalendar(Long userId, int year, Format format) {
+        if (year < 1970 || year > 9999) {
+            throw new ValidationException("year is out of range");
+        }
+        var days = Year.of(year).length();
+        var calendar = calendarRepository.findByUserIdAndYear(userId, year)
+                .orElseGet(() -> fromSummary(userId, year));
+        return ActivityCalendarDTO.builder()
+                .year(year)
+                .days(days)
+                .activities(Arrays.stream(StreakKind.values())
+                        .map(kind -> {
+                            var bits = calendar.days(kind);
+                            return ActivityCalendarDTO.Activity.builder()
+                                    .kind(kind)
+                                    .loggedDays(DayBitset.count(bits))
+                                    .bits(format == Format.BITS ? Base64.getEncoder().encodeToString(bits) : null)
+                                    .runs(format == Format.RLE ? DayBitset.runLengths(bits, days) : null)
+                                    .build();
+                        })
+                        .toList())
+                .build();
+    }
+
+    private void setDays(Long userId, int year, StreakKind kind, byte[] bits) {
+        var empty = DayBitset.empty();
+        var updated = calendarRepository.orDays(userId, year,
+                kind == StreakKind.MEAL ? bits : empty,
+                kind == StreakKind.HEALTH ? bits : empty,
+                kind == StreakKind.WORKOUT ? bits : empty);
+        if (updated == 0) {
+            // The summary already holds the days just written
+            var seeded = fromSummary(userId, year);
+            calendarRepository.upsertDays(userId, year,
+                    seeded.getMealDays(), seeded.getHealthDays(), seeded.getWorkoutDays());
+        }
+    }
+
+    private UserActivityCalendar fromSummary(Long userId, int year) {
+        var calendar = UserActivityCalendar.builder()
+                .userId(userId)
+                .year(year)
+                .mealDays(DayBitset.empty())
+                .healthDays(DayBitset.empty())
+                .workoutDays(DayBitset.empty())
+                .build();
+        summaryRepository.findLoggedDays(userId, LocalDate.of(year, 1, 1), LocalDate.of(year, 12, 31))
+                .forEach(day -> {
+                    for (var kind : StreakKind.values()) {
+                        if ((day.getLoggedFlags() & kind.flag()) != 0) {
+                            DayBitset.set(calendar.days(kind), day.getDate());
+                        }
+                    }
+                });
+        return calendar;
+    }
+}
@@ -11,7 +11,6 @@ import com.health.exception.UnauthorizedException;
 import com.health.exception.ValidationException;
 import com.health.repository.UserProfileRepo;
 import com.health.repository.UserRepository;
-import com.health.security.JwtUtil;
 import com.health.security.UserPrincipal;
 import com.health.util.HealthUtil;
 import lombok.RequiredArgsConstructor;
@@ -21,7 +20,7 @@ import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
@@ -37,20 +36,32 @@ public class AuthService {
     private final UserRepository userRepository;
     private final UserProfileRepo userProfileRepo;
     private final PasswordEncoder passwordEncoder;
-    private final JwtUtil jwtUtil;
+    private final RefreshTokenService refreshTokenService;
     private final AuthenticationManager authenticationManager;
+    private final TransactionTemplate transactionTemplate;
 
 
-    @Transactional
     public AuthResponse register(RegisterRequest request) {
         if (userRepository.existsByEmailIgnoreCase(request.getEmail())) {
             throw new ValidationException("Email is already registered");
         }
 
+        // Hash before opening the transaction so the connection is not held during BCrypt
+        var passwordHash = passwordEncoder.encode(request.getPassword());
+        var savedUser = transactionTemplate.execute(status -> createUser(request, passwordHash));
+
+        return toAuthResponse(refreshTokenService.startSession(UserPrincipal.create(savedUser)));
+    }
+
+    private User createUser(RegisterRequest request, String passwordHash) {
+        if (userRepository.existsByEmailIgnoreCase(request.getEmail())) {
+            throw new ValidationException("Email is already registered");
+        }
+
         // Create new user
         var user = User.builder()
                 .email(request.getEmail().toLowerCase())
-                .password(passwordEncoder.encode(request.getPassword()))
+                .password(passwordHash)
                 .fullName(request.getFullName())
                 .role(Role.USER)
                 .isActive(true)
@@ -86,20 +97,7 @@ public class AuthService {
         }
 
         userProfileRepo.save(profile);
-
-        var userDetails = UserPrincipal.create(savedUser);
-        var token = jwtUtil.generateToken(userDetails);
-        var refreshToken = jwtUtil.generateRefreshToken(userDetails);
-
-        return AuthResponse.builder()
-                .token(token)
-                .refreshToken(refreshToken)
-                .type("Bearer")
-                .id(savedUser.getId())
-                .email(savedUser.getEmail())
-                .fullName(savedUser.getFullName())
-                .role(savedUser.getRole().name())
-                .build();
+        return savedUser;
     }
 
     public AuthResponse login(LoginRequest request, Boolean loginAdmin) {
@@ -121,18 +119,7 @@ public class AuthService {
                 throw new UnauthorizedException("Access denied");
             }
 
-            var token = jwtUtil.generateToken(userPrincipal);
-            var refreshToken = jwtUtil.generateRefreshToken(userPrincipal);
-
-            return AuthResponse.builder()
-                    .token(token)
-                    .refreshToken(refreshToken)
-                    .type("Bearer")
-                    .id(userPrincipal.getId())
-                    .email(userPrincipal.getEmail())
-                    .fullName(userPrincipal.getFullName())
-                    .role(userPrincipal.getRole().name())
-                    .build();
+            return toAuthResponse(refreshTokenService.startSession(userPrincipal));
 
         } catch (BadCredentialsException e) {
             throw new UnauthorizedException("Invalid email or password");
@@ -140,35 +127,23 @@ public class AuthService {
     }
 
     public AuthResponse refreshToken(String refreshToken) {
-        try {
-            if (!jwtUtil.isTokenValid(refreshToken)) {
-                throw new RuntimeException("Invalid refresh token");
-            }
-
-            var email = jwtUtil.getUsernameFromToken(refreshToken);
-            var user = userRepository.findByEmailIgnoreCase(email)
-                    .orElseThrow(() -> new RuntimeException("User not found"));
+        return toAuthResponse(refreshTokenService.rotate(refreshToken));
+    }
 
-            if (!user.getIsActive()) {
-                throw new RuntimeException("Account is deactivated");
-            }
+    public void logout(String refreshToken) {
+        refreshTokenService.revokeSession(refreshToken);
+    }
 
-            var userDetails = UserPrincipal.create(user);
-            var newToken = jwtUtil.generateToken(userDetails);
-            var newRefreshToken = jwtUtil.generateRefreshToken(userDetails);
-            return AuthResponse.builder()
-                    .token(newToken)
-                    .refreshToken(newRefreshToken)
-                    .type("Bearer")
-                    .id(user.getId())
-                    .email(user.getEmail())
-                    .fullName(user.getFullName())
-                    .role(user.getRole().name())
-                    .build();
-
-        } catch (Exception e) {
-            log.error("Token refresh failed: {}", e.getMessage());
-            throw new RuntimeException("Token refresh failed");
-        }
+    private AuthResponse toAuthResponse(RefreshTokenService.IssuedTokens issued) {
+        var principal = issued.principal();
+        return AuthResponse.builder()
+                .token(issued.accessToken())
+                .refreshToken(issued.refreshToken())
+                .type("Bearer")
+                .id(principal.getId())
+                .email(principal.getEmail())
+                .fullName(principal.getFullName())
+                .role(principal.getRole().name())
+                .build();
     }
 }
\ No newline at end of file
@@ -0,0 +1,147 @@
+package com.health.service;
+
+import com.health.entity.DailyUserSummary;
+import com.health.entity.HealthRecord;
+import com.health.repository.DailyUserSummaryRepository;
+import com.health.repository.MealLogRepository;
+import com.health.repository.UserStreakRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.Collection;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Maintains the {@code daily_user_summary} read model.
+ * <p>
+ * Writers call {@link #refreshMealTotals}, {@link #applyHealthRecord} and {@link #markWorkoutLogged} inside
+ * their own transaction, so the summary commits or rolls back with the raw log. Each is a single native
+ * upsert: meal totals are re-aggregated from the day's few meal logs (an index range on
+ * {@code (user_id, date)}), so an edited log never needs its old values subtracted and concurrent writers
+ * converge on the committed state.
+ * <p>
+ * Every writer takes its locks in one order: the user's {@code sync_sequences} row, then the summary rows of
+ * the affected days ({@link #lockDays}, ascending), then the raw rows, then the streak and calendar. The
+ * meal and health re-aggregations read the raw tables with locking reads; since no transaction can hold a
+ * raw row of a day without first holding that day's summary row, those reads never wait on a writer that
+ * in turn waits on them.
+ * {@link #rebuild} recomputes a date range from the raw tables for backfill or repair, then the streaks and
+ * activity calendars derived from it.
+ */
+@Service
+@Slf4j
+public class DailySummaryService {
+
+    private final DailyUserSummaryRepository summaryRepository;
+    private final MealLogRepository mealLogRepository;
+    private final UserStreakRepository streakRepository;
+    private final StreakService streakService;
+    private final ActivityCalendarService activityCalendarService;
+    private final TransactionTemplate transactionTemplate;
+    private final int rebuildChunkDays;
+
+    public DailySummaryService(DailyUserSummaryRepository summaryRepository,
+                               MealLogRepository mealLogRepository,
+                               UserStreakRepository streakRepository,
+                               StreakService streakService,
+                               ActivityCalendarService activityCalendarService,
+                               TransactionTemplate transactionTemplate,
+                               @Value("${summary.rebuild.chunk-days:7}") int rebuildChunkDays) {
+        this.summaryRepository = summaryRepository;
+        this.mealLogRepository = mealLogRepository;
+        this.streakRepository = streakRepository;
+        this.streakService = streakService;
+        this.activityCalendarService = activityCalendarService;
+        this.transactionTemplate = transactionTemplate;
+        this.rebuildChunkDays = Math.max(1, rebuildChunkDays);
+    }
+
+    /**
+     * Lock the summary rows of the user's {@code dates} (in ascending order) before the raw rows of those days
+     * are written. Call after the sync sequence was advanced.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void lockDays(Long userId, Collection<LocalDate> dates) {
+        new TreeSet<>(dates).forEach(date -> summaryRepository.lockDay(userId, date));
+    }
+
+    /**
+     * Recompute the meal totals of the user's day after its meal logs changed.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void refreshMealTotals(Long userId, LocalDate date) {
+        summaryRepository.refreshMealTotals(userId, date, DailyUserSummary.FLAG_MEAL);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void applyHealthRecord(Long userId, HealthRecord record) {
+        summaryRepository.replaceHealthMetrics(userId, record.getDate(),
+                record.getCaloriesBurned(),
+                record.getSteps(),
+                record.getSleepHours(),
+                record.getWeight(),
+                DailyUserSummary.FLAG_HEALTH);
+    }
+
+    /**
+     * Re-copy the health metrics of the user's records in {@code [from, to]} after a bulk write.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void refreshHealthMetrics(Long userId, LocalDate from, LocalDate to) {
+        summaryRepository.refreshHealthMetrics(userId, from, to, DailyUserSummary.FLAG_HEALTH);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void markWorkoutLogged(Long userId, LocalDate date) {
+        summaryRepository.markLogged(userId, date, DailyUserSummary.FLAG_WORKOUT);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void removeHealthRecord(Long userId, LocalDate date) {
+        summaryRepository.clearHealthMetrics(userId, date, DailyUserSummary.FLAG_HEALTH);
+    }
+
+    /**
+     * Recompute every summary row in {@code [from, to]} from {@code meal_logs}, {@code health_records} and
+     * {@code workout_sessions}.
+     * Meal logs written before the macro columns existed get them filled in first.
+     * Runs one transaction per chunk of days so a long backfill never holds locks on the whole range. Each
+     * chunk deletes its summary rows before touching {@code meal_logs}, keeping the writers' summary-first
+     * lock order.
+     *
+     * @return the number of days processed
+     */
+    public long rebuild(LocalDate from, LocalDate to) {
+        // Users whose current run may include days the rebuild drops; a run ending earlier holds none of them
+        Set<Long> users = new TreeSet<>(streakRepository.findUserIdsLoggedSince(from));
+        var days = 0L;
+        for (var chunkStart = from; !chunkStart.isAfter(to); chunkStart = chunkStart.plusDays(rebuildChunkDays)) {
+            var start = chunkStart;
+            var end = chunkStart.plusDays(rebuildChunkDays - 1L);
+            var chunkEnd = end.isAfter(to) ? to : end;
+            transactionTemplate.executeWithoutResult(status -> {
+                summaryRepository.deleteByDateRange(start, chunkEnd);
+                mealLogRepository.backfillMacros(start, chunkEnd);
+                summaryRepository.rebuildMealTotals(start, chunkEnd, DailyUserSummary.FLAG_MEAL);
+                summaryRepository.rebuildHealthMetrics(start, chunkEnd, DailyUserSummary.FLAG_HEALTH);
+                summaryRepository.rebuildWorkoutFlags(start, chunkEnd, DailyUserSummary.FLAG_WORKOUT);
+            });
+            days += ChronoUnit.DAYS.between(start, chunkEnd) + 1;
+        }
+
+        // Streaks and calendars are derived from the summary flags the rebuild rewrote
+        users.addAll(summaryRepository.findUserIdsBetween(from, to));
+        users.forEach(userId -> transactionTemplate.executeWithoutResult(status -> streakService.reseed(userId)));
+        transactionTemplate.executeWithoutResult(status -> activityCalendarService.onSummaryRebuilt(from, to));
+        log.info("Reseeded streaks of {} users after the summary rebuild", users.size());
+        log.info("Rebuilt daily summaries from {} to {} ({} days)", from, to, days);
+        return days;
+    }
+}
@@ -0,0 +1,142 @@
+package com.health.service;
+
+import com.health.dto.DayViewDTO;
+import com.health.dto.WorkoutSessionDTO;
+import com.health.dto.admin.HealthRecordResponse;
+import com.health.entity.MealType;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Everything logged on one of the user's days in a single round trip: the meal logs with their meal, the
+ * health record and the workout sessions with their type are read by one {@code UNION ALL} over the
+ * {@code (user_id, date)} indexes of the three tables, each branch padded to a common column layout.
+ */
+@Service
+@RequiredArgsConstructor
+public class DayViewService {
+    private static final String DAY_SQL = """
+            select 'M' as kind, ml.id, ml.meal_type as meal_type, ml.meal_id as ref_id, m.name as name,
+                   m.calories as unit_calories, ml.quantity as amount, ml.total_calories as calories,
+                   ml.total_protein as protein, ml.total_carbs as carbs, ml.total_fat as fat,
+                   null as steps, null as distance, null as weight, null as bmi, null as heart_rate,
+                   null as sleep_hours, ml.note, ml.created_at
+            from meal_logs ml
+            join meals m on m.id = ml.meal_id
+            where ml.user_id = :userId and ml.date = :date
+            union all
+            select 'H', hr.id, null, null, null,
+                   null, null, hr.calories_burned,
+                   null, null, null,
+                   hr.steps, hr.distance, hr.weight, hr.bmi, hr.heart_rate,
+                   hr.sleep_hours, hr.note, hr.created_at
+            from health_records hr
+            where hr.user_id = :userId and hr.date = :date
+            union all
+            select 'W', ws.id, null, ws.workout_type_id, wt.name,
+                   null, ws.duration_minutes, ws.calories_burned,
+                   null, null, null,
+                   null, null, null, null, null,
+                   null, ws.note, ws.created_at
+            from workout_sessions ws
+            join workout_type wt on wt.id = ws.workout_type_id
+            where ws.user_id = :userId and ws.date = :date
+            """;
+
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    @Transactional(readOnly = true)
+    public DayViewDTO getDay(Long userId, LocalDate date) {
+        List<DayViewDTO.Meal> meals = new ArrayList<>();
+        List<WorkoutSessionDTO> workouts = new ArrayList<>();
+        var day = DayViewDTO.builder().date(date);
+
+        var params = new MapSqlParameterSource()
+                .addValue("userId", userId)
+                .addValue("date", date);
+        namedParameterJdbcTemplate.query(DAY_SQL, params, rs -> {
+            switch (rs.getString("kind")) {
+                case "M" -> meals.add(DayViewDTO.Meal.builder()
+                        .id(rs.getLong("id"))
+                        .mealType(MealType.valueOf(rs.getString("meal_type")))
+                        .mealId(rs.getLong("ref_id"))
+                        .mealName(rs.getString("name"))
+                        .caloriesPerUnit(getDouble(rs, "unit_calories"))
+                        .quantity(getDouble(rs, "amount"))
+                        .totalCalories(getDouble(rs, "calories"))
+                        .totalProtein(getDouble(rs, "protein"))
+                        .totalCarbs(getDouble(rs, "carbs"))
+                        .totalFat(getDouble(rs, "fat"))
+                        .note(rs.getString("note"))
+                        .build());
+                case "H" -> day.healthRecord(HealthRecordResponse.builder()
+                        .id(rs.getLong("id"))
+                        .date(date)
+                        .steps(getInteger(rs, "steps"))
+                        .distance(getDouble(rs, "distance"))
+                        .caloriesBurned(getInteger(rs, "calories"))
+                        .weight(getDouble(rs, "weight"))
+                        .bmi(getDouble(rs, "bmi"))
+                        .heartRate(getInteger(rs, "heart_rate"))
+                        .sleepHours(getDouble(rs, "sleep_hours"))
+                        .note(rs.getString("note"))
+                        .createdAt(rs.getObject("created_at", LocalDateTime.class))
+                        .build());
+                default -> workouts.add(WorkoutSessionDTO.builder()
+                        .id(rs.getLong("id"))
+                        .date(date)
+                        .workoutTypeId(rs.getLong("ref_id"))
+                        .workoutTypeName(rs.getString("name"))
+                        .durationMinutes(getDouble(rs, "amount"))
+                        .caloriesBurned(getDouble(rs, "calories"))
+                        .note(rs.getString("note"))
+                        .createdAt(rs.getObject("created_at", LocalDateTime.class))
+                        .build());
+            }
+        });
+
+        meals.sort(Comparator.comparing(DayViewDTO.Meal::getMealType));
+        workouts.sort(Comparator.comparing(WorkoutSessionDTO::getCreatedAt,
+                Comparator.nullsLast(Comparator.naturalOrder())));
+        var result = day.meals(meals).workouts(workouts).build();
+
+        for (var meal : meals) {
+            result.setCaloriesConsumed(result.getCaloriesConsumed() + orZero(meal.getTotalCalories()));
+            result.setProtein(result.getProtein() + orZero(meal.getTotalProtein()));
+            result.setCarbs(result.getCarbs() + orZero(meal.getTotalCarbs()));
+            result.setFat(result.getFat() + orZero(meal.getTotalFat()));
+        }
+        var burned = workouts.stream().mapToDouble(workout -> orZero(workout.getCaloriesBurned())).sum();
+        if (result.getHealthRecord() != null && result.getHealthRecord().getCaloriesBurned() != null) {
+            burned += result.getHealthRecord().getCaloriesBurned();
+        }
+        result.setCaloriesBurned(burned);
+        result.setCalorieBalance(result.getCaloriesConsumed() - burned);
+        return result;
+    }
+
+    private static Double getDouble(ResultSet rs, String column) throws SQLException {
+        var value = rs.getDouble(column);
+        return rs.wasNull() ? null : value;
+    }
+
+    private static Integer getInteger(ResultSet rs, String column) throws SQLException {
+        var value = rs.getInt(column);
+        return rs.wasNull() ? null : value;
+    }
+
+    private static double orZero(Double value) {
+        return value != null ? value : 0;
+    }
+}
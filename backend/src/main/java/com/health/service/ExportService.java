@@ -0,0 +1,160 @@
+package com.health.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.health.dto.MealLogResponseDTO;
+import com.health.dto.WorkoutSessionDTO;
+import com.health.dto.admin.HealthRecordResponse;
+import com.health.entity.SyncEntityType;
+import com.health.repository.HealthRecordRepository;
+import com.health.repository.MealLogRepository;
+import com.health.repository.WorkoutSessionRepository;
+import com.health.util.CsvWriter;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Writes a user's full history (health records, meal logs, workout sessions) to an output stream.
+ * <p>
+ * The three tables are read one after another in one read-only transaction as unmanaged DTOs, each query
+ * streamed by Connector/J ({@link HealthRecordRepository#STREAMING_FETCH_SIZE}), and each row is written as
+ * soon as it is read, so heap use does not grow with the number of rows. Every other query keeps the
+ * driver's default buffered result sets.
+ */
+@Service
+public class ExportService {
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final String[] CSV_HEADER = {
+            "type", "id", "date", "weight", "bmi", "heart_rate", "sleep_hours", "steps", "distance",
+            "calories_burned", "meal_type", "meal_name", "quantity", "total_calories", "workout_type",
+            "duration_minutes", "note"
+    };
+
+    public enum Format {NDJSON, CSV}
+
+    private final HealthRecordRepository healthRecordRepository;
+    private final MealLogRepository mealLogRepository;
+    private final WorkoutSessionRepository workoutSessionRepository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate readOnlyTransaction;
+
+    public ExportService(HealthRecordRepository healthRecordRepository,
+                         MealLogRepository mealLogRepository,
+                         WorkoutSessionRepository workoutSessionRepository,
+                         ObjectMapper objectMapper,
+                         PlatformTransactionManager transactionManager) {
+        this.healthRecordRepository = healthRecordRepository;
+        this.mealLogRepository = mealLogRepository;
+        this.workoutSessionRepository = workoutSessionRepository;
+        this.objectMapper = objectMapper;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    // One NDJSON line
+    private record Line(SyncEntityType type, Object data) {
+    }
+
+    public void export(Long userId, Format format, OutputStream out) throws IOException {
+        var writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE);
+        try {
+            if (format == Format.CSV) {
+                CsvWriter.writeRow(writer, (Object[]) CSV_HEADER);
+                exportRows(userId, new CsvRows(writer));
+            } else {
+                var generator = objectMapper.getFactory().createGenerator(writer);
+                generator.setRootValueSeparator(new SerializedString("\n"));
+                exportRows(userId, new NdjsonRows(generator));
+                generator.flush();
+                writer.write('\n');
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        writer.flush();
+    }
+
+    private void exportRows(Long userId, Rows rows) {
+        readOnlyTransaction.executeWithoutResult(status -> {
+            try (var records = healthRecordRepository.streamForExport(userId)) {
+                records.forEach(record -> unchecked(() -> rows.healthRecord(record)));
+            }
+            try (var logs = mealLogRepository.streamForExport(userId)) {
+                logs.forEach(log -> unchecked(() -> rows.mealLog(log)));
+            }
+            try (var sessions = workoutSessionRepository.streamForExport(userId)) {
+                sessions.forEach(session -> unchecked(() -> rows.workoutSession(session)));
+            }
+        });
+    }
+
+    private interface Rows {
+        void healthRecord(HealthRecordResponse r) throws IOException;
+
+        void mealLog(MealLogResponseDTO l) throws IOException;
+
+        void workoutSession(WorkoutSessionDTO s) throws IOException;
+    }
+
+    private record NdjsonRows(JsonGenerator generator) implements Rows {
+        private void line(SyncEntityType type, Object data) throws IOException {
+            generator.writePOJO(new Line(type, data));
+        }
+
+        @Override
+        public void healthRecord(HealthRecordResponse r) throws IOException {
+            line(SyncEntityType.HEALTH_RECORD, r);
+        }
+
+        @Override
+        public void mealLog(MealLogResponseDTO l) throws IOException {
+            line(SyncEntityType.MEAL_LOG, l);
+        }
+
+        @Override
+        public void workoutSession(WorkoutSessionDTO s) throws IOException {
+            line(SyncEntityType.WORKOUT_SESSION, s);
+        }
+    }
+
+    private record CsvRows(Writer writer) implements Rows {
+        @Override
+        public void healthRecord(HealthRecordResponse r) throws IOException {
+            CsvWriter.writeRow(writer, SyncEntityType.HEALTH_RECORD, r.getId(), r.getDate(), r.getWeight(), r.getBmi(),
+                    r.getHeartRate(), r.getSleepHours(), r.getSteps(), r.getDistance(), r.getCaloriesBurned(),
+                    null, null, null, null, null, null, r.getNote());
+        }
+
+        @Override
+        public void mealLog(MealLogResponseDTO l) throws IOException {
+            CsvWriter.writeRow(writer, SyncEntityType.MEAL_LOG, l.getId(), l.getDate(), null, null, null, null, null,
+                    null, null, l.getMealType(), l.getMealName(), l.getQuantity(), l.getTotalCalories(), null, null,
+                    l.getNote());
+        }
+
+        @Override
+        public void workoutSession(WorkoutSessionDTO s) throws IOException {
+            CsvWriter.writeRow(writer, SyncEntityType.WORKOUT_SESSION, s.getId(), s.getDate(), null, null, null, null,
+                    null, null, s.getCaloriesBurned(), null, null, null, null, s.getWorkoutTypeName(),
+                    s.getDurationMinutes(), s.getNote());
+        }
+    }
+
+    @FunctionalInterface
+    private interface IoAction {
+        void run() throws IOException;
+    }
+
+    private static void unchecked(IoAction action) {
+        try {
+            action.run();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,411 @@
+package com.health.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.health.dto.HealthImportJobDTO;
+import com.health.dto.HealthRecordRequestDTO;
+import com.health.entity.StreakKind;
+import com.health.exception.ResourceNotFoundException;
+import com.health.exception.TooManyRequestsException;
+import com.health.exception.ValidationException;
+import com.health.repository.HealthRecordRepository;
+import com.health.repository.UserProfileRepo;
+import com.health.util.CsvReader;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Asynchronous bulk import of health history exported from other apps (CSV with a header row, or a JSON
+ * array of health record objects).
+ * <p>
+ * The upload is spooled to a temporary file and the request returns a job id right away. A small worker
+ * pool then parses the file incrementally (CSV tokenizer or Jackson streaming, one row at a time) and upserts
+ * rows in chunks of {@code import.chunk-size}: one transaction per chunk holding one JDBC batch of the
+ * regular health record upsert, the sync sequence reservation and one summary refresh. The profile height
+ * used for BMI is read once per job. Progress is kept in memory for {@code import.job-retention}.
+ */
+@Service
+@Slf4j
+public class HealthImportService {
+    private static final int MAX_REPORTED_ERRORS = 20;
+
+    private enum Format {CSV, JSON}
+
+    private final UserProfileRepo userProfileRepo;
+    private final DailySummaryService dailySummaryService;
+    private final SyncService syncService;
+    private final LeaderboardService leaderboardService;
+    private final StreakService streakService;
+    private final ActivityCalendarService activityCalendarService;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final int chunkSize;
+    private final ThreadPoolExecutor executor;
+    private final Cache<String, Job> jobs;
+
+    public HealthImportService(UserProfileRepo userProfileRepo,
+                               DailySummaryService dailySummaryService,
+                               SyncService syncService,
+                               LeaderboardService leaderboardService,
+                               StreakService streakService,
+                               ActivityCalendarService activityCalendarService,
+                               NamedParameterJdbcTemplate namedParameterJdbcTemplate,
+                               TransactionTemplate transactionTemplate,
+                               ObjectMapper objectMapper,
+                               @Value("${import.chunk-size:500}") int chunkSize,
+                               @Value("${import.threads:2}") int threads,
+                               @Value("${import.queue-capacity:16}") int queueCapacity,
+                               @Value("${import.job-retention:1h}") Duration jobRetention) {
+        this.userProfileRepo = userProfileRepo;
+        this.dailySummaryService = dailySummaryService;
+        this.syncService = syncService;
+        this.leaderboardService = leaderboardService;
+        this.streakService = streakService;
+        this.activityCalendarService = activityCalendarService;
+        this.namedParameterJdbcTemplate = namedParameterJdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.objectMapper = objectMapper;
+        this.chunkSize = Math.max(1, chunkSize);
+        var threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    var thread = new Thread(runnable, "health-import-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        this.jobs = Caffeine.newBuilder()
+                .expireAfterWrite(jobRetention)
+                .build();
+    }
+
+    private static final class Job {
+        final String id = UUID.randomUUID().toString();
+        final Long userId;
+        final Format format;
+        final long totalBytes;
+        final LocalDateTime createdAt = LocalDateTime.now();
+        final AtomicLong bytesRead = new AtomicLong();
+        final AtomicLong rowsRead = new AtomicLong();
+        final AtomicLong rowsImported = new AtomicLong();
+        final AtomicLong rowsRejected = new AtomicLong();
+        final List<String> errors = Collections.synchronizedList(new ArrayList<>());
+        volatile HealthImportJobDTO.Status status = HealthImportJobDTO.Status.QUEUED;
+        volatile LocalDateTime finishedAt;
+
+        Job(Long userId, Format format, long totalBytes) {
+            this.userId = userId;
+            this.format = format;
+            this.totalBytes = totalBytes;
+        }
+
+        void reject(String error) {
+            rowsRejected.incrementAndGet();
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(error);
+            }
+        }
+
+        HealthImportJobDTO snapshot() {
+            var read = bytesRead.get();
+            return HealthImportJobDTO.builder()
+                    .id(id)
+                    .status(status)
+                    .format(format.name())
+                    .totalBytes(totalBytes)
+                    .bytesRead(read)
+                    .progressPercent(status == HealthImportJobDTO.Status.COMPLETED ? 100
+                            : totalBytes > 0 ? (int) Math.min(99, read * 100 / totalBytes) : 0)
+                    .rowsRead(rowsRead.get())
+                    .rowsImported(rowsImported.get())
+                    .rowsRejected(rowsRejected.get())
+                    .errors(List.copyOf(errors))
+                    .createdAt(createdAt)
+                    .finishedAt(finishedAt)
+                    .build();
+        }
+    }
+
+    public HealthImportJobDTO submit(Long userId, MultipartFile file) throws IOException {
+        if (file == null || file.isEmpty()) {
+            throw new ValidationException("Import file is required");
+        }
+        var format = detectFormat(file);
+        var spooled = Files.createTempFile("health-import-", "." + format.name().toLowerCase());
+        file.transferTo(spooled);
+
+        var job = new Job(userId, format, file.getSize());
+        jobs.put(job.id, job);
+        try {
+            executor.execute(() -> run(job, spooled));
+        } catch (RejectedExecutionException e) {
+            jobs.invalidate(job.id);
+            Files.deleteIfExists(spooled);
+            throw new TooManyRequestsException("Too many imports in progress, please try again later", 30);
+        }
+        return job.snapshot();
+    }
+
+    public HealthImportJobDTO getJob(Long userId, String jobId) {
+        var job = jobs.getIfPresent(jobId);
+        if (job == null || !job.userId.equals(userId)) {
+            throw new ResourceNotFoundException("Import job not found");
+        }
+        return job.snapshot();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private void run(Job job, Path spooled) {
+        job.status = HealthImportJobDTO.Status.RUNNING;
+        var heightM = userProfileRepo.findHeightCmByUserId(job.userId)
+                .filter(height -> height.doubleValue() > 0)
+                .map(height -> height.doubleValue() / 100.0)
+                .orElse(null);
+        var chunk = new ArrayList<HealthRecordRequestDTO>(chunkSize);
+
+        try (var in = new CountingInputStream(new BufferedInputStream(Files.newInputStream(spooled)), job.bytesRead)) {
+            RowHandler handler = row -> {
+                chunk.add(row);
+                if (chunk.size() == chunkSize) {
+                    writeChunk(job, chunk, heightM);
+                    chunk.clear();
+                }
+            };
+            if (job.format == Format.CSV) {
+                parseCsv(job, in, handler);
+            } else {
+                parseJson(job, in, handler);
+            }
+            if (!chunk.isEmpty()) {
+                writeChunk(job, chunk, heightM);
+            }
+            job.status = HealthImportJobDTO.Status.COMPLETED;
+            log.info("Health import {} for user {}: {} rows imported, {} rejected",
+                    job.id, job.userId, job.rowsImported.get(), job.rowsRejected.get());
+        } catch (Exception e) {
+            job.status = HealthImportJobDTO.Status.FAILED;
+            job.errors.add("Import failed: " + e.getMessage());
+            log.warn("Health import {} for user {} failed after {} rows", job.id, job.userId, job.rowsImported.get(), e);
+        } finally {
+            job.finishedAt = LocalDateTime.now();
+            try {
+                Files.deleteIfExists(spooled);
+            } catch (IOException e) {
+                log.warn("Could not delete import file {}", spooled, e);
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface RowHandler {
+        void accept(HealthRecordRequestDTO row);
+    }
+
+    private void parseCsv(Job job, InputStream in, RowHandler handler) throws IOException {
+        try (var csv = new CsvReader(new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8)))) {
+            var header = csv.next();
+            if (header == null) {
+                return;
+            }
+            Map<String, Integer> columns = new HashMap<>();
+            for (int i = 0; i < header.size(); i++) {
+                columns.put(normalize(header.get(i)), i);
+            }
+            if (!columns.containsKey("date") || !columns.containsKey("weight")) {
+                throw new ValidationException("CSV header must contain date and weight columns");
+            }
+
+            List<String> fields;
+            while ((fields = csv.next()) != null) {
+                job.rowsRead.incrementAndGet();
+                var line = csv.getRecordLine();
+                try {
+                    var row = new HealthRecordRequestDTO();
+                    row.setDate(LocalDate.parse(field(fields, columns, "date")));
+                    row.setWeight(toDouble(field(fields, columns, "weight")));
+                    row.setSteps(toInteger(field(fields, columns, "steps")));
+                    row.setDistance(toDouble(field(fields, columns, "distance")));
+                    row.setCaloriesBurned(toInteger(field(fields, columns, "caloriesburned")));
+                    row.setHeartRate(toInteger(field(fields, columns, "heartrate")));
+                    row.setSleepHours(toDouble(field(fields, columns, "sleephours")));
+                    row.setNote(field(fields, columns, "note"));
+                    accept(job, row, "line " + line, handler);
+                } catch (DateTimeParseException | NumberFormatException e) {
+                    job.reject("line " + line + ": " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    private void parseJson(Job job, InputStream in, RowHandler handler) throws IOException {
+        try (var parser = objectMapper.getFactory().createParser(in)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new ValidationException("JSON import must be an array of health records");
+            }
+            var index = 0;
+            while (parser.nextToken() == JsonToken.START_OBJECT) {
+                job.rowsRead.incrementAndGet();
+                // Only the current element is materialized
+                JsonNode node = parser.readValueAsTree();
+                try {
+                    accept(job, objectMapper.treeToValue(node, HealthRecordRequestDTO.class), "record " + index, handler);
+                } catch (JsonProcessingException e) {
+                    job.reject("record " + index + ": " + e.getOriginalMessage());
+                }
+                index++;
+            }
+        }
+    }
+
+    private static void accept(Job job, HealthRecordRequestDTO row, String position, RowHandler handler) {
+        if (row.getDate() == null || row.getWeight() == null || row.getWeight() <= 0) {
+            job.reject(position + ": date and a positive weight are required");
+            return;
+        }
+        // JSON rows can carry "NaN"/"Infinity" as strings, which Jackson coerces to doubles
+        if (!isFinite(row.getWeight()) || !isFinite(row.getDistance()) || !isFinite(row.getSleepHours())) {
+            job.reject(position + ": numeric fields must be finite");
+            return;
+        }
+        handler.accept(row);
+    }
+
+    private void writeChunk(Job job, List<HealthRecordRequestDTO> rows, Double heightM) {
+        var userId = job.userId;
+        transactionTemplate.executeWithoutResult(status -> {
+            var now = LocalDateTime.now();
+            var seq = syncService.reserve(userId, rows.size());
+            dailySummaryService.lockDays(userId, rows.stream().map(HealthRecordRequestDTO::getDate).toList());
+            var params = new MapSqlParameterSource[rows.size()];
+            var from = rows.get(0).getDate();
+            var to = from;
+            for (int i = 0; i < rows.size(); i++) {
+                var row = rows.get(i);
+                Double bmi = heightM != null ? Math.round(row.getWeight() / (heightM * heightM) * 100.0) / 100.0 : null;
+                params[i] = new MapSqlParameterSource()
+                        .addValue("userId", userId)
+                        .addValue("date", row.getDate())
+                        .addValue("steps", row.getSteps())
+                        .addValue("distance", row.getDistance())
+                        .addValue("caloriesBurned", row.getCaloriesBurned())
+                        .addValue("weight", row.getWeight())
+                        .addValue("bmi", bmi)
+                        .addValue("heartRate", row.getHeartRate())
+                        .addValue("sleepHours", row.getSleepHours())
+                        .addValue("note", row.getNote())
+                        .addValue("changeSeq", seq + i)
+                        .addValue("now", now);
+                from = row.getDate().isBefore(from) ? row.getDate() : from;
+                to = row.getDate().isAfter(to) ? row.getDate() : to;
+            }
+            namedParameterJdbcTemplate.batchUpdate(HealthRecordRepository.UPSERT_SQL, params);
+            dailySummaryService.refreshHealthMetrics(userId, from, to);
+            streakService.onLogged(userId, StreakKind.HEALTH, from, to);
+            activityCalendarService.onLogged(userId, StreakKind.HEALTH, from, to);
+            leaderboardService.refreshAfterCommit(userId, LeaderboardService.Metric.STEPS, from, to);
+        });
+        job.rowsImported.addAndGet(rows.size());
+    }
+
+    private static Format detectFormat(MultipartFile file) {
+        var name = Optional.ofNullable(file.getOriginalFilename()).orElse("").toLowerCase();
+        var contentType = Optional.ofNullable(file.getContentType()).orElse("");
+        if (name.endsWith(".csv") || contentType.contains("csv")) {
+            return Format.CSV;
+        }
+        if (name.endsWith(".json") || contentType.contains("json")) {
+            return Format.JSON;
+        }
+        throw new ValidationException("Unsupported import file, expected .csv or .json");
+    }
+
+    // "Calories Burned", "calories_burned" and "caloriesBurned" all name the same column
+    private static String normalize(String header) {
+        return header.replaceAll("[\\s_\\-\\uFEFF]", "").toLowerCase();
+    }
+
+    private static String field(List<String> fields, Map<String, Integer> columns, String column) {
+        var index = columns.get(column);
+        if (index == null || index >= fields.size()) {
+            return null;
+        }
+        var value = fields.get(index).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    // Double.parseDouble accepts "NaN" and "Infinity", which must never reach the upsert
+    private static Double toDouble(String value) {
+        if (value == null) {
+            return null;
+        }
+        var parsed = Double.parseDouble(value);
+        if (!Double.isFinite(parsed)) {
+            throw new NumberFormatException("not a finite number: \"" + value + "\"");
+        }
+        return parsed;
+    }
+
+    private static Integer toInteger(String value) {
+        var parsed = toDouble(value);
+        return parsed != null ? (int) Math.round(parsed) : null;
+    }
+
+    private static boolean isFinite(Double value) {
+        return value == null || Double.isFinite(value);
+    }
+
+    private static final class CountingInputStream extends FilterInputStream {
+        private final AtomicLong counter;
+
+        CountingInputStream(InputStream in, AtomicLong counter) {
+            super(in);
+            this.counter = counter;
+        }
+
+        @Override
+        public int read() throws IOException {
+            var b = super.read();
+            if (b != -1) {
+                counter.incrementAndGet();
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            var n = super.read(b, off, len);
+            if (n > 0) {
+                counter.addAndGet(n);
+            }
+            return n;
+        }
+    }
+}
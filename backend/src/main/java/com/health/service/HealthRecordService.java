@@ -0,0 +1,92 @@
+package com.health.service;
+
+import com.health.dto.HealthRecordRequestDTO;
+import com.health.dto.admin.HealthRecordResponse;
+import com.health.entity.HealthRecord;
+import com.health.entity.StreakKind;
+import com.health.entity.SyncEntityType;
+import com.health.exception.ResourceNotFoundException;
+import com.health.repository.HealthRecordRepository;
+import com.health.repository.UserProfileRepo;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Writes health records. Each user has at most one record per day (uk_health_record_user_date), written with
+ * a single {@code INSERT ... ON DUPLICATE KEY UPDATE}; the daily summary, streak, activity calendar and
+ * leaderboards are updated in the same transaction, as for meal logs in {@link MealLogService}.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class HealthRecordService {
+
+    private final HealthRecordRepository healthRecordRepository;
+    private final UserProfileRepo userProfileRepo;
+    private final DailySummaryService dailySummaryService;
+    private final SyncService syncService;
+    private final StreakService streakService;
+    private final ActivityCalendarService activityCalendarService;
+    private final LeaderboardService leaderboardService;
+
+    @Transactional(readOnly = true)
+    public List<HealthRecordResponse> getRecords(Long userId) {
+        return healthRecordRepository.findByUserIdOrderByDateDesc(userId).stream()
+                .map(HealthRecordResponse::mapToDto)
+                .toList();
+    }
+
+    /**
+     * @return true when a new record was created, false when the day's existing record was replaced
+     */
+    @Transactional
+    public boolean upsert(Long userId, LocalDate date, HealthRecordRequestDTO dto) {
+        var target = new HealthRecord();
+        target.setDate(date);
+        target.setWeight(dto.getWeight());
+        target.setHeartRate(dto.getHeartRate());
+        target.setSleepHours(dto.getSleepHours());
+        target.setCaloriesBurned(dto.getCaloriesBurned());
+        target.setDistance(dto.getDistance());
+        target.setSteps(dto.getSteps());
+        target.setNote(dto.getNote());
+
+        var heightCm = userProfileRepo.findHeightCmByUserId(userId).orElse(null);
+        if (heightCm != null && heightCm.doubleValue() > 0) {
+            double heightM = heightCm.doubleValue() / 100.0;
+            double bmi = target.getWeight() / (heightM * heightM);
+            target.setBmi(Math.round(bmi * 100.0) / 100.0);
+        }
+
+        var seq = syncService.next(userId);
+        dailySummaryService.lockDays(userId, List.of(date));
+        var affected = healthRecordRepository.upsert(userId, date, target.getSteps(), target.getDistance(),
+                target.getCaloriesBurned(), target.getWeight(), target.getBmi(), target.getHeartRate(),
+                target.getSleepHours(), target.getNote(), seq, LocalDateTime.now());
+        dailySummaryService.applyHealthRecord(userId, target);
+        streakService.onLogged(userId, StreakKind.HEALTH, date, date);
+        activityCalendarService.onLogged(userId, StreakKind.HEALTH, date, date);
+        leaderboardService.refreshAfterCommit(userId, LeaderboardService.Metric.STEPS, date, date);
+        return affected == 1;
+    }
+
+    @Transactional
+    public void delete(Long userId, Long id) {
+        var record = healthRecordRepository.findByIdAndUserId(id, userId)
+                .orElseThrow(() -> new ResourceNotFoundException("Health record not found"));
+        syncService.recordDeletion(userId, SyncEntityType.HEALTH_RECORD, id);
+        dailySummaryService.lockDays(userId, List.of(record.getDate()));
+        healthRecordRepository.delete(record);
+        healthRecordRepository.flush();
+        dailySummaryService.removeHealthRecord(userId, record.getDate());
+        streakService.onDayCleared(userId, StreakKind.HEALTH, record.getDate());
+        activityCalendarService.onDayCleared(userId, StreakKind.HEALTH, record.getDate());
+        leaderboardService.refreshAfterCommit(userId, LeaderboardService.Metric.STEPS, record.getDate(), record.getDate());
+    }
+}
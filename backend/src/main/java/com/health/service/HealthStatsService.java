@@ -0,0 +1,195 @@
+package com.health.service;
+
+import com.health.dto.HealthSeriesDTO;
+import com.health.dto.HealthStatsDTO;
+import com.health.exception.ValidationException;
+import com.health.util.Lttb;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Locale;
+
+/**
+ * Range statistics of a health metric, computed in the database.
+ * <p>
+ * One aggregate query groups the user's records in the range by bucket (an index range scan on
+ * uk_health_record_user_date) and computes the moving average with a range window on the bucket date, so at
+ * most {@value #MAX_BUCKETS} rows leave the database whatever the span of the range. The metric column and
+ * bucket expression come from the enums below, never from the request.
+ * <p>
+ * {@link #series} returns the raw per-day values for charting, optionally reduced with {@link Lttb}.
+ */
+@Service
+public class HealthStatsService {
+    public static final int MAX_BUCKETS = 400;
+    public static final int MAX_WINDOW = 60;
+    public static final int MAX_SERIES_DAYS = 3660;
+    public static final int MAX_POINTS = 5000;
+
+    public enum Metric {
+        WEIGHT("weight", "weight"),
+        HEART_RATE("heartRate", "heart_rate"),
+        SLEEP_HOURS("sleepHours", "sleep_hours"),
+        STEPS("steps", "steps");
+
+        private final String param;
+        private final String column;
+
+        Metric(String param, String column) {
+            this.param = param;
+            this.column = column;
+        }
+
+        public String param() {
+            return param;
+        }
+
+        public static Metric fromParam(String value) {
+            return Arrays.stream(values())
+                    .filter(metric -> metric.param.equalsIgnoreCase(value))
+                    .findFirst()
+                    .orElseThrow(() -> new ValidationException("metric must be weight, heartRate, sleepHours or steps"));
+        }
+    }
+
+    public enum Bucket {
+        // Weeks start on Monday, months on the 1st; the constant name is also the MySQL interval unit
+        DAY("r.date", ChronoUnit.DAYS),
+        WEEK("subdate(r.date, weekday(r.date))", ChronoUnit.WEEKS),
+        MONTH("subdate(r.date, dayofmonth(r.date) - 1)", ChronoUnit.MONTHS);
+
+        private final String expression;
+        private final ChronoUnit unit;
+
+        Bucket(String expression, ChronoUnit unit) {
+            this.expression = expression;
+            this.unit = unit;
+        }
+
+        public static Bucket fromParam(String value) {
+            return Arrays.stream(values())
+                    .filter(bucket -> bucket.name().equalsIgnoreCase(value))
+                    .findFirst()
+                    .orElseThrow(() -> new ValidationException("bucket must be day, week or month"));
+        }
+    }
+
+    private record Row(HealthStatsDTO.Bucket bucket, double sum) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public HealthStatsService(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Transactional(readOnly = true)
+    public HealthStatsDTO stats(Long userId, Metric metric, Bucket bucket, LocalDate from, LocalDate to, int window) {
+        if (from.isAfter(to)) {
+            throw new ValidationException("from must not be after to");
+        }
+        if (bucket.unit.between(from, to) >= MAX_BUCKETS) {
+            throw new ValidationException("Range spans more than " + MAX_BUCKETS + " "
+                    + bucket.name().toLowerCase(Locale.ROOT) + " buckets, use a coarser bucket");
+        }
+        if (window < 1 || window > MAX_WINDOW) {
+            throw new ValidationException("window must be between 1 and " + MAX_WINDOW);
+        }
+
+        // A range frame on the bucket date spans window - 1 calendar buckets, even where some have no rows;
+        // the frame must be a literal, built from a validated int and the enum's unit
+        var sql = """
+                select b.bucket_start, b.cnt, b.min_value, b.max_value,
+                       b.sum_value / b.cnt as avg_value,
+                       b.sum_value,
+                       sum(b.sum_value) over w / sum(b.cnt) over w as moving_avg
+                from (select %1$s as bucket_start,
+                             count(r.%2$s) as cnt,
+                             min(r.%2$s) as min_value,
+                             max(r.%2$s) as max_value,
+                             sum(r.%2$s) as sum_value
+                      from health_records r
+                      where r.user_id = ? and r.date between ? and ? and r.%2$s is not null
+                      group by bucket_start) b
+                window w as (order by b.bucket_start range between interval %3$d %4$s preceding and current row)
+                order by b.bucket_start
+                """.formatted(bucket.expression, metric.column, window - 1, bucket.name());
+
+        var rows = jdbcTemplate.query(sql, (rs, rowNum) -> new Row(HealthStatsDTO.Bucket.builder()
+                .start(rs.getObject("bucket_start", LocalDate.class))
+                .count(rs.getLong("cnt"))
+                .min(rs.getDouble("min_value"))
+                .max(rs.getDouble("max_value"))
+                .avg(round(rs.getDouble("avg_value")))
+                .movingAvg(round(rs.getDouble("moving_avg")))
+                .build(), rs.getDouble("sum_value")), userId, from, to);
+
+        var buckets = rows.stream().map(Row::bucket).toList();
+        var count = buckets.stream().mapToLong(HealthStatsDTO.Bucket::getCount).sum();
+        return HealthStatsDTO.builder()
+                .metric(metric.param())
+                .bucket(bucket.name().toLowerCase(Locale.ROOT))
+                .from(from)
+                .to(to)
+                .window(window)
+                .count(count)
+                .min(buckets.stream().map(HealthStatsDTO.Bucket::getMin).min(Comparator.naturalOrder()).orElse(null))
+                .max(buckets.stream().map(HealthStatsDTO.Bucket::getMax).max(Comparator.naturalOrder()).orElse(null))
+                .avg(count == 0 ? null : round(rows.stream().mapToDouble(Row::sum).sum() / count))
+                .buckets(buckets)
+                .build();
+    }
+
+    /**
+     * Per-day values of the metric in {@code [from, to]}, downsampled to {@code maxPoints} when given.
+     */
+    @Transactional(readOnly = true)
+    public HealthSeriesDTO series(Long userId, Metric metric, LocalDate from, LocalDate to, Integer maxPoints) {
+        var days = ChronoUnit.DAYS.between(from, to) + 1;
+        if (days < 1 || days > MAX_SERIES_DAYS) {
+            throw new ValidationException("Date range must be ascending and at most " + MAX_SERIES_DAYS + " days");
+        }
+        if (maxPoints != null && (maxPoints < Lttb.MIN_THRESHOLD || maxPoints > MAX_POINTS)) {
+            throw new ValidationException("maxPoints must be between " + Lttb.MIN_THRESHOLD + " and " + MAX_POINTS);
+        }
+
+        // At most one record per day (uk_health_record_user_date), so the range bounds the buffer size
+        var epochDays = new long[(int) days];
+        var values = new double[(int) days];
+        var size = new int[1];
+        jdbcTemplate.query("""
+                select r.date, r.%1$s
+                from health_records r
+                where r.user_id = ? and r.date between ? and ? and r.%1$s is not null
+                order by r.date
+                """.formatted(metric.column), rs -> {
+            epochDays[size[0]] = rs.getObject(1, LocalDate.class).toEpochDay();
+            values[size[0]] = rs.getDouble(2);
+            size[0]++;
+        }, userId, from, to);
+
+        var total = size[0];
+        var kept = maxPoints != null ? Lttb.downsample(epochDays, values, total, maxPoints) : total;
+        var dates = new int[kept];
+        for (int i = 0; i < kept; i++) {
+            dates[i] = (int) epochDays[i];
+        }
+        return HealthSeriesDTO.builder()
+                .metric(metric.param())
+                .from(from)
+                .to(to)
+                .totalPoints(total)
+                .dates(dates)
+                .values(Arrays.copyOf(values, kept))
+                .build();
+    }
+
+    private static Double round(double value) {
+        return Math.round(value * 100.0) / 100.0;
+    }
+}
@@ -0,0 +1,102 @@
+package com.health.service;
+
+import com.health.dto.HomeUserDTO;
+import com.health.dto.admin.HealthRecordResponse;
+import com.health.exception.ServiceUnavailableException;
+import com.health.repository.HealthRecordRepository;
+import com.health.repository.UserProfileRepo;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.*;
+
+/**
+ * Builds the home dashboard for {@code GET /users/my}.
+ * <p>
+ * One ranged query loads the last seven days of health records, which also serves yesterday and today.
+ * The profile goal is read concurrently with it on a virtual thread, and recommendations for that goal
+ * come from the in-memory {@link RecommendationCatalog}. The fan-out shares one deadline; a failure or
+ * timeout in any branch fails the request and cancels the branches that have not started yet.
+ */
+@Service
+@Slf4j
+public class HomeService {
+    private static final int WEEK_DAYS = 7;
+
+    private final HealthRecordRepository healthRecordRepository;
+    private final UserProfileRepo userProfileRepo;
+    private final RecommendationCatalog recommendationCatalog;
+    private final Duration deadline;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    public HomeService(HealthRecordRepository healthRecordRepository,
+                       UserProfileRepo userProfileRepo,
+                       RecommendationCatalog recommendationCatalog,
+                       @Value("${home.dashboard.deadline:2s}") Duration deadline) {
+        this.healthRecordRepository = healthRecordRepository;
+        this.userProfileRepo = userProfileRepo;
+        this.recommendationCatalog = recommendationCatalog;
+        this.deadline = deadline;
+    }
+
+    public HomeUserDTO getHome(Long userId) {
+        var today = LocalDate.now();
+        var yesterday = today.minusDays(1);
+
+        var records = CompletableFuture.supplyAsync(() -> healthRecordRepository
+                .findByUserIdAndDateBetweenOrderByDateAsc(userId, today.minusDays(WEEK_DAYS - 1), today)
+                .stream()
+                .map(HealthRecordResponse::mapToDto)
+                .toList(), executor);
+        // No goal (or no profile) is kept as null: those users get the catalog items without a goal
+        var goal = CompletableFuture.supplyAsync(() -> userProfileRepo.findGoalByUserId(userId)
+                .orElse(null), executor);
+
+        List<CompletableFuture<?>> branches = List.of(records, goal);
+        try {
+            CompletableFuture.allOf(branches.toArray(CompletableFuture[]::new))
+                    .get(deadline.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            branches.forEach(branch -> branch.cancel(true));
+            log.warn("Home dashboard for user {} exceeded its {} deadline", userId, deadline);
+            throw new ServiceUnavailableException("Dashboard is taking too long, please try again", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            branches.forEach(branch -> branch.cancel(true));
+            throw new ServiceUnavailableException("Dashboard request was interrupted", e);
+        } catch (ExecutionException e) {
+            branches.forEach(branch -> branch.cancel(true));
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException("Failed to load dashboard", e.getCause());
+        }
+
+        var weekly = records.join();
+        var userGoal = goal.join();
+        return HomeUserDTO.builder()
+                .yesterdaysHealthRecord(findByDate(weekly, yesterday))
+                .todayHealthRecord(findByDate(weekly, today))
+                .weeklyHealthRecords(weekly)
+                .recommendedWorkouts(recommendationCatalog.workouts(userGoal))
+                .recommendedMeals(recommendationCatalog.meals(userGoal))
+                .build();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private static HealthRecordResponse findByDate(List<HealthRecordResponse> records, LocalDate date) {
+        return records.stream()
+                .filter(record -> date.equals(record.getDate()))
+                .findFirst()
+                .orElse(null);
+    }
+}
@@ -0,0 +1,163 @@
+package com.health.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.health.entity.IdempotencyKey;
+import com.health.entity.IdempotencyStatus;
+import com.health.repository.IdempotencyKeyRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * TTL store of {@code Idempotency-Key} claims and the responses they produced.
+ * <p>
+ * Completed responses are kept in a byte-bounded in-memory LRU in front of {@code idempotency_keys}, so a
+ * retry landing on the same node is answered without any query and a retry on another node costs one
+ * indexed lookup. A key is claimed by inserting a PENDING row; the unique {@code (scope, idem_key)}
+ * constraint lets exactly one concurrent request through. While a request runs, its claim is renewed every
+ * {@code idempotency.heartbeat-interval}, so a slow request is never claimed a second time; claims left
+ * behind by a crashed node stop being renewed and can be taken over after the pending timeout.
+ */
+@Service
+@Slf4j
+public class IdempotencyService {
+
+    private final IdempotencyKeyRepository repository;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration ttl;
+    private final Duration pendingTimeout;
+    private final Cache<CacheKey, StoredResponse> cache;
+    // Claims held by requests running on this node -> row id, renewed by the heartbeat
+    private final Map<CacheKey, Long> inFlight = new ConcurrentHashMap<>();
+
+    public IdempotencyService(IdempotencyKeyRepository repository,
+                              TransactionTemplate transactionTemplate,
+                              @Value("${idempotency.ttl:24h}") Duration ttl,
+                              @Value("${idempotency.pending-timeout:1m}") Duration pendingTimeout,
+                              @Value("${idempotency.cache.max-bytes:16777216}") long maxCacheBytes) {
+        this.repository = repository;
+        this.transactionTemplate = transactionTemplate;
+        this.ttl = ttl;
+        this.pendingTimeout = pendingTimeout;
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxCacheBytes)
+                .weigher((CacheKey key, StoredResponse response) -> response.weight())
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    private record CacheKey(String scope, String key) {
+    }
+
+    public record StoredResponse(String requestHash, int status, String contentType, byte[] body) {
+        // Approximate footprint in the LRU, including key and object overhead
+        int weight() {
+            return 256 + (body != null ? body.length : 0);
+        }
+    }
+
+    /**
+     * Outcome of {@link #claim}: either the caller owns the key, or a stored response must be replayed,
+     * or another request holding the key is still running ({@code pendingHash} is its request hash, when
+     * known).
+     */
+    public record Claim(boolean acquired, StoredResponse replay, String pendingHash) {
+        static final Claim ACQUIRED = new Claim(true, null, null);
+
+        static Claim inProgress(String pendingHash) {
+            return new Claim(false, null, pendingHash);
+        }
+    }
+
+    public Claim claim(String scope, String key, String requestHash) {
+        var cacheKey = new CacheKey(scope, key);
+        var cached = cache.getIfPresent(cacheKey);
+        if (cached != null) {
+            return new Claim(false, cached, null);
+        }
+
+        var now = LocalDateTime.now();
+        var existing = repository.findByScopeAndIdemKey(scope, key).orElse(null);
+        if (existing == null) {
+            try {
+                var claimed = repository.saveAndFlush(IdempotencyKey.builder()
+                        .scope(scope)
+                        .idemKey(key)
+                        .requestHash(requestHash)
+                        .status(IdempotencyStatus.PENDING)
+                        .createdAt(now)
+                        .expiresAt(now.plus(ttl))
+                        .build());
+                inFlight.put(cacheKey, claimed.getId());
+                return Claim.ACQUIRED;
+            } catch (DataIntegrityViolationException e) {
+                // A concurrent request claimed the key first
+                existing = repository.findByScopeAndIdemKey(scope, key).orElse(null);
+                if (existing == null) {
+                    return Claim.inProgress(null);
+                }
+            }
+        }
+
+        if (existing.getStatus() == IdempotencyStatus.COMPLETED && existing.getExpiresAt().isAfter(now)) {
+            var stored = new StoredResponse(existing.getRequestHash(), existing.getResponseStatus(),
+                    existing.getResponseContentType(), existing.getResponseBody());
+            cache.put(cacheKey, stored);
+            return new Claim(false, stored, null);
+        }
+
+        var id = existing.getId();
+        var reclaimed = transactionTemplate.execute(status ->
+                repository.reclaim(id, requestHash, now, now.plus(ttl), now.minus(pendingTimeout)));
+        if (Objects.equals(reclaimed, 1)) {
+            log.info("Reclaimed stale idempotency key {} of {}", key, scope);
+            inFlight.put(cacheKey, id);
+            return Claim.ACQUIRED;
+        }
+        return Claim.inProgress(existing.getRequestHash());
+    }
+
+    @Transactional
+    public void complete(String scope, String key, StoredResponse response) {
+        inFlight.remove(new CacheKey(scope, key));
+        repository.complete(scope, key, response.status(), response.contentType(), response.body());
+        cache.put(new CacheKey(scope, key), response);
+    }
+
+    /**
+     * Give the key back so the client can retry, e.g. after a failed request.
+     */
+    @Transactional
+    public void release(String scope, String key) {
+        inFlight.remove(new CacheKey(scope, key));
+        repository.deletePending(scope, key);
+    }
+
+    @Scheduled(fixedDelayString = "${idempotency.heartbeat-interval:PT20S}")
+    @Transactional
+    public void renewInFlight() {
+        var ids = List.copyOf(inFlight.values());
+        if (!ids.isEmpty()) {
+            repository.renewPending(ids, LocalDateTime.now());
+        }
+    }
+
+    @Scheduled(cron = "${idempotency.cleanup-cron:0 0 * * * *}")
+    @Transactional
+    public void purgeExpired() {
+        var deleted = repository.deleteExpired(LocalDateTime.now());
+        log.info("Purged {} expired idempotency keys", deleted);
+    }
+}
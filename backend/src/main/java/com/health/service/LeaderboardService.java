@@ -0,0 +1,450 @@
+package com.health.service;
+
+import com.health.dto.LeaderboardDTO;
+import com.health.entity.Goal;
+import com.health.exception.ServiceUnavailableException;
+import com.health.exception.ValidationException;
+import com.health.repository.SyncSequenceRepository;
+import com.health.repository.UserName;
+import com.health.repository.UserProfileRepo;
+import com.health.repository.UserRepository;
+import com.health.util.RankedScoreSet;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.*;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Weekly and monthly leaderboards of steps and workout minutes, global and per {@link Goal}.
+ * <p>
+ * Each board is held in memory as {@link RankedScoreSet}s (one global, one per goal) of the users' totals
+ * for the current period, so top-N and "my rank" never sort in the database. Writers call
+ * {@link #refreshAfterCommit}; once their transaction commits, the user's period totals are re-summed over
+ * the {@code (user_id, date)} index and moved in place. A board whose period has ended is rebuilt for the
+ * new one on first use.
+ * <p>
+ * At startup the boards are restored from the local snapshot (written every
+ * {@code leaderboard.snapshot.interval} and at shutdown) and users who wrote since it was taken, per
+ * {@code sync_sequences.updated_at}, are refreshed; without a usable snapshot they are rebuilt with one
+ * aggregate query per board. Boards are per instance: {@link #refreshAfterCommit} only reaches the node that
+ * served the write, so every {@code leaderboard.catch-up-interval} each node also re-ranks the users written
+ * since its previous poll, the same way a restore catches up.
+ */
+@Service
+@Slf4j
+public class LeaderboardService {
+    public static final int MAX_LIMIT = 100;
+    private static final int SNAPSHOT_MAGIC = 0x4C42_5331; // "LBS1"
+
+    public enum Metric {
+        STEPS("steps", "health_records", "steps"),
+        WORKOUT_MINUTES("workoutMinutes", "workout_sessions", "duration_minutes");
+
+        private final String param;
+        private final String table;
+        private final String column;
+
+        Metric(String param, String table, String column) {
+            this.param = param;
+            this.table = table;
+            this.column = column;
+        }
+
+        public String param() {
+            return param;
+        }
+
+        public static Metric fromParam(String value) {
+            return Arrays.stream(values())
+                    .filter(metric -> metric.param.equalsIgnoreCase(value))
+                    .findFirst()
+                    .orElseThrow(() -> new ValidationException("metric must be steps or workoutMinutes"));
+        }
+    }
+
+    public enum Period {
+        // Weeks start on Monday
+        WEEK,
+        MONTH;
+
+        LocalDate start(LocalDate day) {
+            return this == WEEK ? day.with(DayOfWeek.MONDAY) : day.withDayOfMonth(1);
+        }
+
+        LocalDate end(LocalDate start) {
+            return this == WEEK ? start.plusDays(6) : start.plusMonths(1).minusDays(1);
+        }
+
+        public static Period fromParam(String value) {
+            return Arrays.stream(values())
+                    .filter(period -> period.name().equalsIgnoreCase(value))
+                    .findFirst()
+                    .orElseThrow(() -> new ValidationException("period must be week or month"));
+        }
+    }
+
+    private record Key(Metric metric, Period period) {
+    }
+
+    private static final class Board {
+        final LocalDate start;
+        final RankedScoreSet all = new RankedScoreSet();
+        final Map<Goal, RankedScoreSet> byGoal = new EnumMap<>(Goal.class);
+        final Map<Long, Goal> goals = new HashMap<>();
+
+        Board(LocalDate start) {
+            this.start = start;
+            for (var goal : Goal.values()) {
+                byGoal.put(goal, new RankedScoreSet());
+            }
+        }
+
+        // Users with a zero total are not ranked
+        synchronized void put(long userId, Goal goal, double score) {
+            var previous = goals.remove(userId);
+            if (previous != null && previous != goal) {
+                byGoal.get(previous).remove(userId);
+            }
+            if (score <= 0) {
+                all.remove(userId);
+                if (goal != null) {
+                    byGoal.get(goal).remove(userId);
+                }
+                return;
+            }
+            all.put(userId, score);
+            if (goal != null) {
+                goals.put(userId, goal);
+                byGoal.get(goal).put(userId, score);
+            }
+        }
+
+        RankedScoreSet ranking(Goal goal) {
+            return goal != null ? byGoal.get(goal) : all;
+        }
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final UserProfileRepo userProfileRepo;
+    private final UserRepository userRepository;
+    private final SyncSequenceRepository syncSequenceRepository;
+    private final Path snapshotPath;
+    private final Duration snapshotMaxAge;
+    private final Duration catchUpMargin;
+
+    private final Map<Key, Board> boards = new ConcurrentHashMap<>();
+    private final Set<Long> pendingUsers = ConcurrentHashMap.newKeySet();
+    private volatile boolean ready;
+    private volatile LocalDateTime lastPoll;
+
+    public LeaderboardService(JdbcTemplate jdbcTemplate,
+                              UserProfileRepo userProfileRepo,
+                              UserRepository userRepository,
+                              SyncSequenceRepository syncSequenceRepository,
+                              @Value("${leaderboard.snapshot.path:${java.io.tmpdir}/smart-health/leaderboards.bin}") Path snapshotPath,
+                              @Value("${leaderboard.snapshot.max-age:PT6H}") Duration snapshotMaxAge,
+                              @Value("${leaderboard.snapshot.catch-up-margin:PT5M}") Duration catchUpMargin) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.userProfileRepo = userProfileRepo;
+        this.userRepository = userRepository;
+        this.syncSequenceRepository = syncSequenceRepository;
+        this.snapshotPath = snapshotPath;
+        this.snapshotMaxAge = snapshotMaxAge;
+        this.catchUpMargin = catchUpMargin;
+    }
+
+    public LeaderboardDTO leaderboard(Long userId, Metric metric, Period period, Goal goal, int limit) {
+        if (!ready) {
+            throw new ServiceUnavailableException("Leaderboards are loading, please try again shortly");
+        }
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new ValidationException("limit must be between 1 and " + MAX_LIMIT);
+        }
+        var board = board(new Key(metric, period));
+        List<RankedScoreSet.Entry> top;
+        int total;
+        int myRank;
+        double myScore;
+        synchronized (board) {
+            var ranking = board.ranking(goal);
+            top = ranking.top(limit);
+            total = ranking.size();
+            myRank = ranking.rank(userId);
+            myScore = ranking.score(userId);
+        }
+
+        var ids = top.stream().map(RankedScoreSet.Entry::id).collect(Collectors.toSet());
+        ids.add(userId);
+        var names = userRepository.findByIdIn(ids).stream()
+                .collect(Collectors.toMap(UserName::getId, name -> Objects.toString(name.getFullName(), "")));
+
+        List<LeaderboardDTO.Entry> entries = new ArrayList<>(top.size());
+        for (int i = 0; i < top.size(); i++) {
+            var entry = top.get(i);
+            entries.add(new LeaderboardDTO.Entry(i + 1, entry.id(), names.get(entry.id()), entry.score()));
+        }
+        return LeaderboardDTO.builder()
+                .metric(metric.param())
+                .period(period.name().toLowerCase(Locale.ROOT))
+                .goal(goal)
+                .periodStart(board.start)
+                .periodEnd(period.end(board.start))
+                .totalUsers(total)
+                .top(entries)
+                .me(myRank > 0 ? new LeaderboardDTO.Entry(myRank, userId, names.get(userId), myScore) : null)
+                .build();
+    }
+
+    /**
+     * Re-rank the user on the boards of {@code metric} once the current transaction commits, if
+     * {@code [from, to]} touches a current period.
+     */
+    public void refreshAfterCommit(Long userId, Metric metric, LocalDate from, LocalDate to) {
+        var today = LocalDate.now();
+        var earliest = Period.MONTH.start(today).isBefore(Period.WEEK.start(today))
+                ? Period.MONTH.start(today) : Period.WEEK.start(today);
+        if (to.isBefore(earliest)) {
+            return;
+        }
+        afterCommit(() -> refresh(userId, List.of(metric)));
+    }
+
+    /**
+     * Re-rank the user on every board once the current transaction commits (e.g. after a goal change).
+     */
+    public void refreshAfterCommit(Long userId) {
+        afterCommit(() -> refresh(userId, List.of(Metric.values())));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        var started = System.nanoTime();
+        lastPoll = LocalDateTime.now();
+        var takenAt = restoreSnapshot();
+        var today = LocalDate.now();
+        for (var metric : Metric.values()) {
+            for (var period : Period.values()) {
+                var key = new Key(metric, period);
+                if (!boards.containsKey(key)) {
+                    boards.put(key, rebuild(key, period.start(today)));
+                }
+            }
+        }
+        var caughtUp = takenAt != null
+                ? catchUp(LocalDateTime.ofInstant(takenAt.minus(catchUpMargin), ZoneId.systemDefault()))
+                : 0;
+        ready = true;
+        pendingUsers.forEach(userId -> refresh(userId, List.of(Metric.values())));
+        pendingUsers.clear();
+        log.info("Leaderboards loaded in {} ms ({}, {} users caught up)", (System.nanoTime() - started) / 1_000_000,
+                takenAt != null ? "from snapshot" : "rebuilt", caughtUp);
+    }
+
+    /**
+     * Re-rank the users written since the previous poll (minus the catch-up margin, for transactions that
+     * were still in flight), including writes served by other nodes.
+     */
+    @Scheduled(fixedDelayString = "${leaderboard.catch-up-interval:PT30S}",
+            initialDelayString = "${leaderboard.catch-up-interval:PT30S}")
+    public void poll() {
+        if (!ready) {
+            return;
+        }
+        var now = LocalDateTime.now();
+        try {
+            var caughtUp = catchUp(lastPoll.minus(catchUpMargin));
+            lastPoll = now;
+            log.debug("Leaderboard poll re-ranked {} users", caughtUp);
+        } catch (RuntimeException e) {
+            // lastPoll is kept, so the next poll covers these users too
+            log.warn("Leaderboard poll failed: {}", e.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${leaderboard.snapshot.interval:PT5M}",
+            initialDelayString = "${leaderboard.snapshot.interval:PT5M}")
+    @PreDestroy
+    public void snapshot() {
+        if (!ready) {
+            return;
+        }
+        var takenAt = Instant.now();
+        try {
+            Files.createDirectories(snapshotPath.toAbsolutePath().getParent());
+            var temp = snapshotPath.resolveSibling(snapshotPath.getFileName() + ".tmp");
+            try (var out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp), 64 * 1024))) {
+                out.writeInt(SNAPSHOT_MAGIC);
+                out.writeLong(takenAt.toEpochMilli());
+                out.writeInt(boards.size());
+                for (var board : boards.entrySet()) {
+                    writeBoard(out, board.getKey(), board.getValue());
+                }
+            }
+            Files.move(temp, snapshotPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            log.debug("Leaderboard snapshot written to {}", snapshotPath);
+        } catch (IOException e) {
+            log.warn("Could not write leaderboard snapshot to {}: {}", snapshotPath, e.getMessage());
+        }
+    }
+
+    // Re-rank every user whose records or profile changed since the given time
+    private int catchUp(LocalDateTime since) {
+        Set<Long> stale = new HashSet<>();
+        stale.addAll(syncSequenceRepository.findUserIdsUpdatedSince(since));
+        stale.addAll(userProfileRepo.findUserIdsUpdatedSince(since));
+        stale.forEach(userId -> refresh(userId, List.of(Metric.values())));
+        return stale.size();
+    }
+
+    private void refresh(Long userId, List<Metric> metrics) {
+        if (!ready) {
+            pendingUsers.add(userId);
+            return;
+        }
+        var goal = userProfileRepo.findGoalByUserId(userId).orElse(null);
+        for (var metric : metrics) {
+            for (var period : Period.values()) {
+                var board = board(new Key(metric, period));
+                var total = jdbcTemplate.queryForObject(
+                        "select coalesce(sum(%s), 0) from %s where user_id = ? and date between ? and ?"
+                                .formatted(metric.column, metric.table),
+                        Double.class, userId, board.start, period.end(board.start));
+                board.put(userId, goal, total != null ? total : 0);
+            }
+        }
+    }
+
+    // The board of the current period, rebuilt from the database when its period has ended
+    private Board board(Key key) {
+        var start = key.period().start(LocalDate.now());
+        var board = boards.get(key);
+        if (board != null && board.start.equals(start)) {
+            return board;
+        }
+        return boards.compute(key, (k, existing) ->
+                existing != null && existing.start.equals(start) ? existing : rebuild(k, start));
+    }
+
+    private Board rebuild(Key key, LocalDate start) {
+        var board = new Board(start);
+        var metric = key.metric();
+        jdbcTemplate.query("""
+                select t.user_id, p.goal, sum(t.%1$s)
+                from %2$s t left join user_profiles p on p.user_id = t.user_id
+                where t.date between ? and ? and t.%1$s is not null
+                group by t.user_id, p.goal
+                """.formatted(metric.column, metric.table), rs -> {
+            var goal = rs.getString(2);
+            board.put(rs.getLong(1), goal != null ? Goal.valueOf(goal) : null, rs.getDouble(3));
+        }, start, key.period().end(start));
+        return board;
+    }
+
+    private static void writeBoard(DataOutputStream out, Key key, Board board) throws IOException {
+        long[] ids;
+        double[] scores;
+        byte[] goals;
+        // Copy under the lock, write outside it
+        synchronized (board) {
+            var entries = board.all.top(board.all.size());
+            ids = new long[entries.size()];
+            scores = new double[entries.size()];
+            goals = new byte[entries.size()];
+            for (int i = 0; i < entries.size(); i++) {
+                ids[i] = entries.get(i).id();
+                scores[i] = entries.get(i).score();
+                var goal = board.goals.get(ids[i]);
+                goals[i] = (byte) (goal != null ? goal.ordinal() : -1);
+            }
+        }
+        out.writeByte(key.metric().ordinal());
+        out.writeByte(key.period().ordinal());
+        out.writeLong(board.start.toEpochDay());
+        out.writeInt(ids.length);
+        for (int i = 0; i < ids.length; i++) {
+            out.writeLong(ids[i]);
+            out.writeByte(goals[i]);
+            out.writeDouble(scores[i]);
+        }
+    }
+
+    /**
+     * Install the snapshot's boards that are still for the current period.
+     *
+     * @return when the snapshot was taken, or null when there is no usable snapshot
+     */
+    private Instant restoreSnapshot() {
+        if (!Files.isReadable(snapshotPath)) {
+            return null;
+        }
+        var today = LocalDate.now();
+        Map<Key, Board> restored = new HashMap<>();
+        Instant takenAt;
+        try (var in = new DataInputStream(new BufferedInputStream(Files.newInputStream(snapshotPath), 64 * 1024))) {
+            if (in.readInt() != SNAPSHOT_MAGIC) {
+                log.warn("Ignoring leaderboard snapshot {} with an unknown format", snapshotPath);
+                return null;
+            }
+            takenAt = Instant.ofEpochMilli(in.readLong());
+            if (takenAt.isBefore(Instant.now().minus(snapshotMaxAge))) {
+                log.info("Ignoring leaderboard snapshot taken at {} (older than {})", takenAt, snapshotMaxAge);
+                return null;
+            }
+            var count = in.readInt();
+            for (int b = 0; b < count; b++) {
+                var key = new Key(Metric.values()[in.readByte()], Period.values()[in.readByte()]);
+                var board = new Board(LocalDate.ofEpochDay(in.readLong()));
+                var size = in.readInt();
+                for (int i = 0; i < size; i++) {
+                    var userId = in.readLong();
+                    var goal = in.readByte();
+                    board.put(userId, goal >= 0 ? Goal.values()[goal] : null, in.readDouble());
+                }
+                if (board.start.equals(key.period().start(today))) {
+                    restored.put(key, board);
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            log.warn("Could not read leaderboard snapshot {}: {}", snapshotPath, e.toString());
+            return null;
+        }
+        boards.putAll(restored);
+        return takenAt;
+    }
+
+    // The write has committed by then, so a failed refresh is logged rather than failing the request
+    private static void afterCommit(Runnable refresh) {
+        Runnable guarded = () -> {
+            try {
+                refresh.run();
+            } catch (RuntimeException e) {
+                log.warn("Leaderboard refresh failed: {}", e.getMessage());
+            }
+        };
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            guarded.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                guarded.run();
+            }
+        });
+    }
+}
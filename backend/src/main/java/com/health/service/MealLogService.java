@@ -0,0 +1,183 @@
+package com.health.service;
+
+import com.health.dto.MealLogBatchResponse;
+import com.health.dto.MealLogRequestDTO;
+import com.health.entity.Meal;
+import com.health.entity.MealType;
+import com.health.entity.StreakKind;
+import com.health.entity.SyncEntityType;
+import com.health.exception.ResourceNotFoundException;
+import com.health.exception.ValidationException;
+import com.health.repository.MealLogRepository;
+import com.health.repository.MealRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Writes meal logs. Each user's {@code (date, mealType)} slot holds one log (uk_meal_log_user_date_type), and
+ * every write is a single {@code INSERT ... ON DUPLICATE KEY UPDATE}, so concurrent writers to the same
+ * slot cannot create duplicates.
+ * <p>
+ * Batches from the offline sync cost a fixed number of round trips regardless of their size: one
+ * {@code IN} query for the referenced meals, one slot probe (only for the created/updated counts), one
+ * JDBC batch of upserts and one summary refresh per distinct date. Within a batch the last entry for a
+ * slot wins.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class MealLogService {
+
+    private final MealLogRepository mealLogRepository;
+    private final MealRepository mealRepository;
+    private final DailySummaryService dailySummaryService;
+    private final SyncService syncService;
+    private final StreakService streakService;
+    private final ActivityCalendarService activityCalendarService;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    private record Entry(LocalDate date, MealType mealType, Meal meal, double quantity, String note) {
+        Double totalCalories() {
+            return meal.getCalories() != null ? meal.getCalories() * quantity : null;
+        }
+
+        Double totalProtein() {
+            return meal.getProtein() != null ? meal.getProtein() * quantity : null;
+        }
+
+        Double totalCarbs() {
+            return meal.getCarbs() != null ? meal.getCarbs() * quantity : null;
+        }
+
+        Double totalFat() {
+            return meal.getFat() != null ? meal.getFat() * quantity : null;
+        }
+    }
+
+    private record Slot(LocalDate date, MealType mealType) {
+    }
+
+    /**
+     * @return true when a new log was created, false when the slot's existing log was replaced
+     */
+    @Transactional
+    public boolean upsert(Long userId, LocalDate date, MealLogRequestDTO dto) {
+        var meal = mealRepository.findById(dto.getMealId())
+                .orElseThrow(() -> new ResourceNotFoundException("Meal not found"));
+        var entry = new Entry(date, dto.getMealType(), meal, dto.getQuantity(), dto.getNote());
+        var seq = syncService.next(userId);
+        dailySummaryService.lockDays(userId, List.of(date));
+        var affected = mealLogRepository.upsert(userId, meal.getId(), entry.mealType().name(), date,
+                entry.quantity(), entry.totalCalories(), entry.totalProtein(), entry.totalCarbs(), entry.totalFat(),
+                entry.note(), seq, LocalDateTime.now());
+        dailySummaryService.refreshMealTotals(userId, date);
+        streakService.onLogged(userId, StreakKind.MEAL, date, date);
+        activityCalendarService.onLogged(userId, StreakKind.MEAL, date, date);
+        return affected == 1;
+    }
+
+    @Transactional
+    public MealLogBatchResponse ingest(Long userId, List<MealLogRequestDTO> requests) {
+        var meals = loadMeals(requests);
+
+        Map<Slot, Entry> entries = new LinkedHashMap<>();
+        for (int i = 0; i < requests.size(); i++) {
+            var entry = toEntry(i, requests.get(i), meals);
+            var slot = new Slot(entry.date(), entry.mealType());
+            entries.remove(slot);
+            entries.put(slot, entry);
+        }
+
+        var dates = entries.keySet().stream().map(Slot::date).collect(Collectors.toCollection(TreeSet::new));
+        var occupied = mealLogRepository.findSlotsByUserIdAndDateBetween(userId, dates.first(), dates.last())
+                .stream()
+                .map(slot -> new Slot(slot.getDate(), slot.getMealType()))
+                .collect(Collectors.toSet());
+
+        var now = LocalDateTime.now();
+        var seq = new AtomicLong(syncService.reserve(userId, entries.size()));
+        dailySummaryService.lockDays(userId, dates);
+        var params = entries.values().stream()
+                .map(entry -> new MapSqlParameterSource()
+                        .addValue("userId", userId)
+                        .addValue("mealId", entry.meal().getId())
+                        .addValue("mealType", entry.mealType().name())
+                        .addValue("date", entry.date())
+                        .addValue("quantity", entry.quantity())
+                        .addValue("totalCalories", entry.totalCalories())
+                        .addValue("totalProtein", entry.totalProtein())
+                        .addValue("totalCarbs", entry.totalCarbs())
+                        .addValue("totalFat", entry.totalFat())
+                        .addValue("note", entry.note())
+                        .addValue("changeSeq", seq.getAndIncrement())
+                        .addValue("now", now))
+                .toArray(MapSqlParameterSource[]::new);
+        namedParameterJdbcTemplate.batchUpdate(MealLogRepository.UPSERT_SQL, params);
+        // Every summary row, then the streak and calendar once: the same lock order as a single write
+        dates.forEach(date -> dailySummaryService.refreshMealTotals(userId, date));
+        streakService.onLogged(userId, StreakKind.MEAL, dates.first(), dates.last());
+        activityCalendarService.onLogged(userId, StreakKind.MEAL, dates.first(), dates.last());
+
+        var updated = (int) entries.keySet().stream().filter(occupied::contains).count();
+        log.debug("Meal log batch for user {}: {} received, {} slots written, {} replaced",
+                userId, requests.size(), entries.size(), updated);
+        return MealLogBatchResponse.builder()
+                .received(requests.size())
+                .created(entries.size() - updated)
+                .updated(updated)
+                .build();
+    }
+
+    @Transactional
+    public void delete(Long userId, Long id) {
+        var mealLog = mealLogRepository.findByIdAndUserId(id, userId)
+                .orElseThrow(() -> new ResourceNotFoundException("Meal log not found"));
+        syncService.recordDeletion(userId, SyncEntityType.MEAL_LOG, id);
+        dailySummaryService.lockDays(userId, List.of(mealLog.getDate()));
+        mealLogRepository.delete(mealLog);
+        mealLogRepository.flush();
+        dailySummaryService.refreshMealTotals(userId, mealLog.getDate());
+        streakService.onDayCleared(userId, StreakKind.MEAL, mealLog.getDate());
+        activityCalendarService.onDayCleared(userId, StreakKind.MEAL, mealLog.getDate());
+    }
+
+    private Map<Long, Meal> loadMeals(List<MealLogRequestDTO> requests) {
+        var ids = requests.stream()
+                .map(MealLogRequestDTO::getMealId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        var meals = mealRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Meal::getId, Function.identity()));
+        if (meals.size() != ids.size()) {
+            var missing = new TreeSet<>(ids);
+            missing.removeAll(meals.keySet());
+            throw new ValidationException("Meal not found: " + missing);
+        }
+        return meals;
+    }
+
+    private static Entry toEntry(int index, MealLogRequestDTO dto, Map<Long, Meal> meals) {
+        if (dto.getMealId() == null || dto.getMealType() == null || dto.getQuantity() == null) {
+            throw new ValidationException("Entry " + index + ": mealId, mealType and quantity are required");
+        }
+        LocalDate date;
+        try {
+            date = dto.getDate() != null ? LocalDate.parse(dto.getDate()) : LocalDate.now();
+        } catch (DateTimeParseException e) {
+            throw new ValidationException("Entry " + index + ": invalid date (must be yyyy-MM-dd)");
+        }
+        return new Entry(date, dto.getMealType(), meals.get(dto.getMealId()), dto.getQuantity(), dto.getNote());
+    }
+}
@@ -0,0 +1,146 @@
+package com.health.service;
+
+import com.health.dto.admin.MealDTO;
+import com.health.dto.admin.WorkoutTypeDTO;
+import com.health.entity.Goal;
+import com.health.repository.MealRepository;
+import com.health.repository.WorkoutTypeRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * Immutable, versioned snapshot of the active meal and workout catalog, indexed by {@link Goal}.
+ * Items without a goal form their own bucket, recommended to users who have not set one.
+ * <p>
+ * The catalog only changes through the admin endpoints, so recommendations are served from pre-built DTO
+ * lists without touching the database. The same snapshot indexes workout types by id for calorie estimation
+ * when sessions are logged. Admin writes call {@link #refreshAfterCommit()}; the snapshot is
+ * rebuilt from the committed state and swapped in with a single volatile write, so readers always see
+ * one consistent version.
+ * <p>
+ * Admin writes only refresh the node that served them, so every node also reloads on
+ * {@code recommendations.catalog.reload-interval}, and a workout type missing from the snapshot is looked
+ * up in the database before it is reported as unknown.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class RecommendationCatalog {
+
+    private final MealRepository mealRepository;
+    private final WorkoutTypeRepository workoutTypeRepository;
+
+    private volatile Snapshot snapshot = new Snapshot(0, GoalIndex.empty(), GoalIndex.empty(), Map.of());
+
+    private record Snapshot(long version,
+                            GoalIndex<MealDTO> meals,
+                            GoalIndex<WorkoutTypeDTO> workouts,
+                            Map<Long, WorkoutTypeDTO> workoutTypes) {
+    }
+
+    // EnumMap cannot hold a null key, so items without a goal are kept beside it
+    private record GoalIndex<D>(Map<Goal, List<D>> byGoal, List<D> withoutGoal) {
+        List<D> get(Goal goal) {
+            return goal == null ? withoutGoal : byGoal.get(goal);
+        }
+
+        static <D> GoalIndex<D> empty() {
+            Map<Goal, List<D>> empty = new EnumMap<>(Goal.class);
+            for (var goal : Goal.values()) {
+                empty.put(goal, List.of());
+            }
+            return new GoalIndex<>(Collections.unmodifiableMap(empty), List.of());
+        }
+    }
+
+    /**
+     * Active meals for {@code goal}; a null goal gets the meals that have none, as {@code goal IS NULL} did.
+     */
+    public List<MealDTO> meals(Goal goal) {
+        return snapshot.meals().get(goal);
+    }
+
+    /**
+     * Active workout types for {@code goal}; a null goal gets the types that have none.
+     */
+    public List<WorkoutTypeDTO> workouts(Goal goal) {
+        return snapshot.workouts().get(goal);
+    }
+
+    /**
+     * An active workout type by id, falling back to the database for types created after the last reload.
+     */
+    public Optional<WorkoutTypeDTO> workoutType(Long id) {
+        var cached = snapshot.workoutTypes().get(id);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        return workoutTypeRepository.findById(id)
+                .filter(type -> Boolean.TRUE.equals(type.getIsActive()))
+                .map(WorkoutTypeDTO::new);
+    }
+
+    public long version() {
+        return snapshot.version();
+    }
+
+    /**
+     * Rebuild the snapshot once the current transaction commits, or right away when there is none.
+     */
+    public void refreshAfterCommit() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            reload();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                reload();
+            }
+        });
+    }
+
+    // Serialized so an older reload can never overwrite a newer one
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${recommendations.catalog.reload-interval:PT5M}",
+            initialDelayString = "${recommendations.catalog.reload-interval:PT5M}")
+    public synchronized void reload() {
+        var meals = index(mealRepository.findByIsActiveTrue(), meal -> meal.getGoal(), meal -> meal.getId(), MealDTO::new);
+        var activeWorkouts = workoutTypeRepository.findAllByIsActiveTrue();
+        var workouts = index(activeWorkouts, workout -> workout.getGoal(), workout -> workout.getId(), WorkoutTypeDTO::new);
+        // Every active type can be logged, whatever its goal
+        Map<Long, WorkoutTypeDTO> workoutTypes = new HashMap<>();
+        activeWorkouts.forEach(workout -> workoutTypes.put(workout.getId(), new WorkoutTypeDTO(workout)));
+        var next = new Snapshot(snapshot.version() + 1, meals, workouts, Map.copyOf(workoutTypes));
+        snapshot = next;
+        log.info("Recommendation catalog v{} loaded", next.version());
+    }
+
+    private static <E, D> GoalIndex<D> index(List<E> entities,
+                                            Function<E, Goal> goalOf,
+                                            Function<E, Long> idOf,
+                                            Function<E, D> toDto) {
+        Map<Goal, List<D>> grouped = new EnumMap<>(Goal.class);
+        for (var goal : Goal.values()) {
+            grouped.put(goal, new ArrayList<>());
+        }
+        List<D> withoutGoal = new ArrayList<>();
+        entities.stream()
+                .sorted(Comparator.comparing(idOf))
+                .forEach(entity -> {
+                    var goal = goalOf.apply(entity);
+                    (goal == null ? withoutGoal : grouped.get(goal)).add(toDto.apply(entity));
+                });
+        grouped.replaceAll((goal, dtos) -> List.copyOf(dtos));
+        return new GoalIndex<>(Collections.unmodifiableMap(grouped), List.copyOf(withoutGoal));
+    }
+}
@@ -0,0 +1,188 @@
+package com.health.service;
+
+import com.health.entity.RefreshToken;
+import com.health.entity.TokenRevocationReason;
+import com.health.exception.UnauthorizedException;
+import com.health.repository.RefreshTokenRepository;
+import com.health.repository.UserRepository;
+import com.health.security.JwtUtil;
+import com.health.security.SessionRevocationList;
+import com.health.security.UserPrincipal;
+import io.jsonwebtoken.Claims;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Issues, rotates and revokes refresh tokens tracked by jti in {@code refresh_tokens}.
+ * <p>
+ * Every login starts a session (token family). Each refresh retires the presented token and issues a
+ * child in the same family. Presenting an already rotated token means it leaked, so the whole family is
+ * revoked and the session id is published to the {@link SessionRevocationList} checked by the auth filter.
+ * <p>
+ * The one exception is a retry: a client whose refresh response was lost (timeout, app killed mid-request)
+ * presents the previous token again. Within {@code jwt.refresh.reuse-grace} of its rotation, and while its
+ * successor has not been used yet, that token gets the successor back instead of ending the session.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class RefreshTokenService {
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final UserRepository userRepository;
+    private final JwtUtil jwtUtil;
+    private final SessionRevocationList sessionRevocationList;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${jwt.refresh.reuse-grace:30s}")
+    private Duration reuseGrace;
+
+    public record IssuedTokens(UserPrincipal principal, String accessToken, String refreshToken) {
+    }
+
+    private record Rotation(IssuedTokens issued, String revokedSession, String error) {
+    }
+
+    @Transactional
+    public IssuedTokens startSession(UserPrincipal principal) {
+        return issue(principal, UUID.randomUUID().toString(), null, UUID.randomUUID().toString());
+    }
+
+    public IssuedTokens rotate(String refreshToken) {
+        var claims = verifyRefreshToken(refreshToken);
+
+        var rotation = transactionTemplate.execute(status -> {
+            var stored = refreshTokenRepository.findByJtiForUpdate(claims.getId()).orElse(null);
+            if (stored == null) {
+                return new Rotation(null, null, "Invalid refresh token");
+            }
+            if (stored.getRevokedAt() != null) {
+                if (stored.getRevokedReason() == TokenRevocationReason.ROTATED) {
+                    var retried = reissueSuccessor(stored, claims);
+                    if (retried != null) {
+                        return new Rotation(retried, null, null);
+                    }
+                    revokeFamily(stored.getFamilyId(), TokenRevocationReason.REUSE_DETECTED);
+                    return new Rotation(null, stored.getFamilyId(), "Refresh token reuse detected");
+                }
+                return new Rotation(null, null, "Refresh token has been revoked");
+            }
+
+            var user = stored.getUser();
+            var tokenVersion = claims.get(JwtUtil.CLAIM_SECURITY_VERSION, Integer.class);
+            if (!Boolean.TRUE.equals(user.getIsActive()) || !user.getSecurityVersion().equals(tokenVersion)) {
+                revokeFamily(stored.getFamilyId(), TokenRevocationReason.ACCOUNT_CHANGED);
+                return new Rotation(null, stored.getFamilyId(), "Account is deactivated or credentials changed");
+            }
+
+            var childJti = UUID.randomUUID().toString();
+            var issued = issue(UserPrincipal.create(user), stored.getFamilyId(), stored.getJti(), childJti);
+            stored.setRevokedAt(LocalDateTime.now());
+            stored.setRevokedReason(TokenRevocationReason.ROTATED);
+            stored.setReplacedBy(childJti);
+            return new Rotation(issued, null, null);
+        });
+
+        if (rotation.revokedSession() != null) {
+            sessionRevocationList.revoke(rotation.revokedSession());
+            log.warn("Revoked session {}: {}", rotation.revokedSession(), rotation.error());
+        }
+        if (rotation.issued() == null) {
+            throw new UnauthorizedException(rotation.error());
+        }
+        return rotation.issued();
+    }
+
+    /**
+     * Revoke the whole session the refresh token belongs to (logout).
+     */
+    public void revokeSession(String refreshToken) {
+        var claims = verifyRefreshToken(refreshToken);
+        var sessionId = claims.get(JwtUtil.CLAIM_SESSION_ID, String.class);
+        transactionTemplate.executeWithoutResult(status -> revokeFamily(sessionId, TokenRevocationReason.LOGOUT));
+        sessionRevocationList.revoke(sessionId);
+    }
+
+    @Scheduled(cron = "${jwt.refresh.cleanup-cron:0 30 3 * * *}")
+    @Transactional
+    public void purgeExpired() {
+        var now = LocalDateTime.now();
+        var deleted = refreshTokenRepository.deleteExpired(now,
+                now.minus(Duration.ofMillis(jwtUtil.getExpirationMillis())));
+        log.info("Purged {} expired refresh tokens", deleted);
+    }
+
+    private IssuedTokens issue(UserPrincipal principal, String sessionId, String parentJti, String jti) {
+        var now = LocalDateTime.now();
+        refreshTokenRepository.save(RefreshToken.builder()
+                .jti(jti)
+                .user(userRepository.getReferenceById(principal.getId()))
+                .familyId(sessionId)
+                .parentJti(parentJti)
+                .issuedAt(now)
+                .expiresAt(now.plus(Duration.ofMillis(jwtUtil.getRefreshExpirationMillis())))
+                .build());
+
+        return new IssuedTokens(
+                principal,
+                jwtUtil.generateToken(principal, sessionId),
+                jwtUtil.generateRefreshToken(principal, jti, sessionId));
+    }
+
+    /**
+     * The successor of a token rotated less than {@code reuseGrace} ago, re-signed under the successor's jti
+     * and expiry, or null when the grace has passed or the successor was already used or revoked.
+     */
+    private IssuedTokens reissueSuccessor(RefreshToken stored, Claims claims) {
+        if (stored.getReplacedBy() == null
+                || stored.getRevokedAt().isBefore(LocalDateTime.now().minus(reuseGrace))) {
+            return null;
+        }
+        var successor = refreshTokenRepository.findByJtiForUpdate(stored.getReplacedBy()).orElse(null);
+        if (successor == null || successor.getRevokedAt() != null) {
+            return null;
+        }
+        var user = successor.getUser();
+        var tokenVersion = claims.get(JwtUtil.CLAIM_SECURITY_VERSION, Integer.class);
+        if (!Boolean.TRUE.equals(user.getIsActive()) || !user.getSecurityVersion().equals(tokenVersion)) {
+            return null;
+        }
+        var principal = UserPrincipal.create(user);
+        var remaining = Duration.between(LocalDateTime.now(), successor.getExpiresAt());
+        log.info("Refresh token {} presented again {} after rotation; returning its successor",
+                stored.getJti(), Duration.between(stored.getRevokedAt(), LocalDateTime.now()));
+        return new IssuedTokens(
+                principal,
+                jwtUtil.generateToken(principal, successor.getFamilyId()),
+                jwtUtil.generateRefreshToken(principal, successor.getJti(), successor.getFamilyId(),
+                        remaining.toMillis()));
+    }
+
+    private void revokeFamily(String familyId, TokenRevocationReason reason) {
+        refreshTokenRepository.revokeFamily(familyId, reason, LocalDateTime.now());
+    }
+
+    private Claims verifyRefreshToken(String refreshToken) {
+        Claims claims;
+        try {
+            claims = jwtUtil.verify(refreshToken);
+        } catch (Exception e) {
+            throw new UnauthorizedException("Invalid refresh token");
+        }
+        if (!JwtUtil.TYPE_REFRESH.equals(claims.get(JwtUtil.CLAIM_TYPE, String.class))
+                || claims.getId() == null || claims.get(JwtUtil.CLAIM_SESSION_ID) == null) {
+            // Refresh tokens issued before rotation tracking cannot be revoked, so they are no longer accepted
+            throw new UnauthorizedException("Invalid refresh token, please log in again");
+        }
+        return claims;
+    }
+}
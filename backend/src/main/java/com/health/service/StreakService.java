@@ -0,0 +1,217 @@
+package com.health.service;
+
+import com.health.dto.StreakDTO;
+import com.health.entity.StreakKind;
+import com.health.entity.UserStreak;
+import com.health.repository.DailyUserSummaryRepository;
+import com.health.repository.UserStreakRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Maintains "days in a row" streaks in {@code user_streaks}, one row per user and {@link StreakKind}.
+ * <p>
+ * Writers call {@link #onLogged} after the day's flag is set in {@code daily_user_summary}, in the same
+ * transaction and under a row lock on the streak. Logging the day after the current run, a day inside it
+ * or a later day is O(1). A backfilled day before the current run, or a bulk range, recomputes only the
+ * window around it from the summary flags, widening it while a run reaches its edge. A streak row that has
+ * never been written (a user whose history predates streaks) is first seeded from all of the user's summary
+ * flags. Reads are one indexed lookup; a run that ended before yesterday reads as a current streak of 0.
+ * <p>
+ * Batch writers update every summary row before calling {@link #onLogged} once for the whole range, so locks
+ * are always taken in the order summary rows, then streak.
+ */
+@Service
+@RequiredArgsConstructor
+public class StreakService {
+    // Initial reach of a recompute window on each side of the written days
+    private static final int SCAN_DAYS = 62;
+    // The MySQL DATE range, used to seed a streak from the whole history
+    private static final LocalDate FIRST_DAY = LocalDate.of(1000, 1, 1);
+    private static final LocalDate LAST_DAY = LocalDate.of(9999, 12, 31);
+
+    private final UserStreakRepository streakRepository;
+    private final DailyUserSummaryRepository summaryRepository;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void onLogged(Long userId, StreakKind kind, LocalDate from, LocalDate to) {
+        var streak = lock(userId, kind);
+        var last = streak.getLastLoggedDate();
+        if (from.equals(to)) {
+            if (last == null || from.isAfter(last.plusDays(1))) {
+                startRun(streak, from);
+                return;
+            }
+            if (from.equals(last.plusDays(1))) {
+                streak.setCurrentStreak(streak.getCurrentStreak() + 1);
+                streak.setLastLoggedDate(from);
+                streak.setLongestStreak(Math.max(streak.getLongestStreak(), streak.getCurrentStreak()));
+                touch(streak);
+                return;
+            }
+            if (!from.isBefore(streak.getStreakStartDate())) {
+                return;
+            }
+        }
+        recompute(streak, from, to);
+    }
+
+    /**
+     * Adjust the streak after {@code date} may have lost its last log of {@code kind}. The longest streak
+     * is kept as the best run ever reached.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void onDayCleared(Long userId, StreakKind kind, LocalDate date) {
+        if (!summaryRepository.findLoggedDates(userId, kind.flag(), date, date).isEmpty()) {
+            return;
+        }
+        var streak = lock(userId, kind);
+        var last = streak.getLastLoggedDate();
+        if (last == null || date.isAfter(last) || date.isBefore(streak.getStreakStartDate())) {
+            return;
+        }
+        if (date.isBefore(last)) {
+            // The current run now starts the day after
+            streak.setStreakStartDate(date.plusDays(1));
+            streak.setCurrentStreak((int) ChronoUnit.DAYS.between(date, last));
+            touch(streak);
+            return;
+        }
+        // The latest day was cleared: the current run is the one ending at the previous logged day
+        var previous = summaryRepository.findLastLoggedDateBefore(userId, kind.flag(), date).orElse(null);
+        streak.setLastLoggedDate(previous);
+        streak.setStreakStartDate(previous);
+        streak.setCurrentStreak(previous != null ? 1 : 0);
+        if (previous != null) {
+            recompute(streak, previous, previous);
+        } else {
+            touch(streak);
+        }
+    }
+
+    /**
+     * Recompute every streak of the user from the summary flags alone, e.g. after the summary was rebuilt.
+     * Unlike incremental updates this may lower the longest streak.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void reseed(Long userId) {
+        for (var kind : StreakKind.values()) {
+            streakRepository.insertIfAbsent(userId, kind.name());
+            var streak = streakRepository.findForUpdate(userId, kind).orElseThrow();
+            streak.setCurrentStreak(0);
+            streak.setLongestStreak(0);
+            streak.setStreakStartDate(null);
+            streak.setLastLoggedDate(null);
+            seed(streak);
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public List<StreakDTO> getStreaks(Long userId) {
+        Map<StreakKind, UserStreak> streaks = new EnumMap<>(StreakKind.class);
+        streakRepository.findByUserId(userId).forEach(streak -> streaks.put(streak.getKind(), streak));
+        var today = LocalDate.now();
+        return Arrays.stream(StreakKind.values())
+                .map(kind -> StreakDTO.of(kind, streaks.get(kind), today))
+                .toList();
+    }
+
+    private UserStreak lock(Long userId, StreakKind kind) {
+        streakRepository.insertIfAbsent(userId, kind.name());
+        var streak = streakRepository.findForUpdate(userId, kind).orElseThrow();
+        // Every write touches the row, so a null updated_at marks a row just inserted (or never seeded).
+        // The insert's row count cannot tell: Connector/J reports found rows, 1 for an existing row too.
+        if (streak.getUpdatedAt() == null) {
+            seed(streak);
+        }
+        return streak;
+    }
+
+    // Runs from every logged day of the user, including the ones written by the current transaction
+    private void seed(UserStreak streak) {
+        var days = summaryRepository.findLoggedDates(streak.getUserId(), streak.getKind().flag(), FIRST_DAY, LAST_DAY);
+        if (days.isEmpty()) {
+            touch(streak);
+            return;
+        }
+        applyRuns(streak, days, days.get(days.size() - 1));
+    }
+
+    private static void startRun(UserStreak streak, LocalDate date) {
+        streak.setCurrentStreak(1);
+        streak.setStreakStartDate(date);
+        streak.setLastLoggedDate(date);
+        streak.setLongestStreak(Math.max(streak.getLongestStreak(), 1));
+        touch(streak);
+    }
+
+    /**
+     * Recompute the runs around {@code [from, to]} from the summary flags. The longest run found raises
+     * the longest streak; the run ending at the last logged day, if the window reaches it, becomes the
+     * current run.
+     */
+    private void recompute(UserStreak streak, LocalDate from, LocalDate to) {
+        var userId = streak.getUserId();
+        var flag = streak.getKind().flag();
+        var last = streak.getLastLoggedDate() == null || to.isAfter(streak.getLastLoggedDate())
+                ? to : streak.getLastLoggedDate();
+
+        var lo = from.minusDays(SCAN_DAYS);
+        var hi = min(to.plusDays(SCAN_DAYS), last);
+        TreeSet<LocalDate> days;
+        while (true) {
+            days = new TreeSet<>(summaryRepository.findLoggedDates(userId, flag, lo, hi));
+            // A run touching an edge of the window may continue past it
+            var widenLo = days.contains(lo);
+            var widenHi = days.contains(hi) && hi.isBefore(last);
+            if (!widenLo && !widenHi) {
+                break;
+            }
+            var reach = ChronoUnit.DAYS.between(lo, hi) + 1;
+            lo = widenLo ? lo.minusDays(reach) : lo;
+            hi = widenHi ? min(hi.plusDays(reach), last) : hi;
+        }
+        applyRuns(streak, days, last);
+    }
+
+    // Raise the longest streak to the longest run in days; the run ending at last becomes the current run
+    private static void applyRuns(UserStreak streak, Collection<LocalDate> days, LocalDate last) {
+        var longest = streak.getLongestStreak();
+        LocalDate runStart = null;
+        LocalDate previous = null;
+        for (var day : days) {
+            if (previous == null || !day.equals(previous.plusDays(1))) {
+                runStart = day;
+            }
+            longest = Math.max(longest, (int) ChronoUnit.DAYS.between(runStart, day) + 1);
+            previous = day;
+        }
+        streak.setLongestStreak(longest);
+        if (previous != null && previous.equals(last)) {
+            streak.setStreakStartDate(runStart);
+            streak.setCurrentStreak((int) ChronoUnit.DAYS.between(runStart, last) + 1);
+            streak.setLastLoggedDate(last);
+        }
+        touch(streak);
+    }
+
+    private static LocalDate min(LocalDate a, LocalDate b) {
+        return a.isBefore(b) ? a : b;
+    }
+
+    private static void touch(UserStreak streak) {
+        streak.setUpdatedAt(LocalDateTime.now());
+    }
+}
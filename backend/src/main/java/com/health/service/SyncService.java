@@ -0,0 +1,147 @@
+package com.health.service;
+
+import com.health.dto.MealLogResponseDTO;
+import com.health.dto.SyncChangeDTO;
+import com.health.dto.SyncResponse;
+import com.health.dto.WorkoutSessionDTO;
+import com.health.dto.admin.HealthRecordResponse;
+import com.health.entity.SyncEntityType;
+import com.health.entity.SyncTombstone;
+import com.health.repository.HealthRecordRepository;
+import com.health.repository.MealLogRepository;
+import com.health.repository.SyncSequenceRepository;
+import com.health.repository.SyncTombstoneRepository;
+import com.health.repository.WorkoutSessionRepository;
+import com.health.util.SyncCursor;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Per-user change sequence and the delta-sync feed behind {@code GET /sync}.
+ * <p>
+ * Every write to health records, meal logs and workout sessions stamps the row with the next value of the
+ * user's counter in {@code sync_sequences}; deletions leave a tombstone with its own sequence number. The
+ * counter row stays locked until the writer commits, so a user's changes become visible in sequence order
+ * and a client that resumes after the last sequence it saw never skips a change.
+ * <p>
+ * The feed reads each stream from its {@code (user_id, change_seq)} index, merges them and pages on
+ * {@code (changeSeq, stream, rowId)}. Rows written before change tracking all carry sequence 0 and are
+ * returned on a first sync.
+ */
+@Service
+@RequiredArgsConstructor
+public class SyncService {
+
+    // Stream order breaks ties between rows sharing a sequence number (only legacy rows at 0 do)
+    private static final int STREAM_HEALTH_RECORDS = 0;
+    private static final int STREAM_MEAL_LOGS = 1;
+    private static final int STREAM_WORKOUT_SESSIONS = 2;
+    private static final int STREAM_TOMBSTONES = 3;
+
+    private final SyncSequenceRepository syncSequenceRepository;
+    private final SyncTombstoneRepository syncTombstoneRepository;
+    private final HealthRecordRepository healthRecordRepository;
+    private final MealLogRepository mealLogRepository;
+    private final WorkoutSessionRepository workoutSessionRepository;
+
+    private record Change(long seq, int stream, long rowId, SyncChangeDTO dto) {
+        SyncCursor position() {
+            return new SyncCursor(seq, stream, rowId);
+        }
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public long next(Long userId) {
+        return reserve(userId, 1);
+    }
+
+    /**
+     * Reserve {@code count} consecutive sequence numbers for the user.
+     *
+     * @return the first reserved number
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public long reserve(Long userId, int count) {
+        syncSequenceRepository.advance(userId, count, LocalDateTime.now());
+        return syncSequenceRepository.findSeq(userId) - count + 1;
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordDeletion(Long userId, SyncEntityType type, Long entityId) {
+        syncTombstoneRepository.save(SyncTombstone.builder()
+                .userId(userId)
+                .entityType(type)
+                .entityId(entityId)
+                .changeSeq(next(userId))
+                .deletedAt(LocalDateTime.now())
+                .build());
+    }
+
+    @Transactional(readOnly = true)
+    public SyncResponse changesSince(Long userId, SyncCursor since, int size) {
+        // Each stream returns at most size + 1 rows after the cursor; merged, that is enough to fill the page
+        // and to know whether anything is left
+        var limit = PageRequest.ofSize(size + 1);
+        List<Change> changes = new ArrayList<>();
+
+        healthRecordRepository.findChangesSince(userId, since.seq(), afterId(since, STREAM_HEALTH_RECORDS), limit)
+                .forEach(r -> changes.add(upsert(r.getChangeSeq(), STREAM_HEALTH_RECORDS, r.getId(),
+                        SyncEntityType.HEALTH_RECORD, HealthRecordResponse.mapToDto(r))));
+        mealLogRepository.findChangesSince(userId, since.seq(), afterId(since, STREAM_MEAL_LOGS), limit)
+                .forEach(l -> changes.add(upsert(l.getChangeSeq(), STREAM_MEAL_LOGS, l.getId(),
+                        SyncEntityType.MEAL_LOG, MealLogResponseDTO.mapToDto(l))));
+        workoutSessionRepository.findChangesSince(userId, since.seq(), afterId(since, STREAM_WORKOUT_SESSIONS), limit)
+                .forEach(s -> changes.add(upsert(s.getChangeSeq(), STREAM_WORKOUT_SESSIONS, s.getId(),
+                        SyncEntityType.WORKOUT_SESSION, WorkoutSessionDTO.mapToDto(s))));
+        syncTombstoneRepository.findChangesSince(userId, since.seq(), afterId(since, STREAM_TOMBSTONES), limit)
+                .forEach(t -> changes.add(new Change(t.getChangeSeq(), STREAM_TOMBSTONES, t.getId(),
+                        SyncChangeDTO.builder()
+                                .type(t.getEntityType())
+                                .op(SyncChangeDTO.Operation.DELETE)
+                                .id(t.getEntityId())
+                                .seq(t.getChangeSeq())
+                                .build())));
+
+        changes.sort(Comparator.comparingLong(Change::seq)
+                .thenComparingInt(Change::stream)
+                .thenComparingLong(Change::rowId));
+        var hasMore = changes.size() > size;
+        var page = hasMore ? changes.subList(0, size) : changes;
+        var last = page.isEmpty() ? since : page.get(page.size() - 1).position();
+
+        return SyncResponse.builder()
+                .changes(page.stream().map(Change::dto).toList())
+                .nextCursor(last.encode())
+                .hasMore(hasMore)
+                .build();
+    }
+
+    /**
+     * Lowest row id to return at the cursor's sequence number: streams ordered before the cursor's stream
+     * are already done at that number, later ones have not started.
+     */
+    private static long afterId(SyncCursor since, int stream) {
+        if (stream < since.stream()) {
+            return Long.MAX_VALUE;
+        }
+        return stream == since.stream() ? since.rowId() : 0;
+    }
+
+    private static Change upsert(long seq, int stream, long rowId, SyncEntityType type, Object data) {
+        return new Change(seq, stream, rowId, SyncChangeDTO.builder()
+                .type(type)
+                .op(SyncChangeDTO.Operation.UPSERT)
+                .id(rowId)
+                .seq(seq)
+                .data(data)
+                .build());
+    }
+}
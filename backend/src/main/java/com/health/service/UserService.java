@@ -16,9 +16,9 @@ public interface UserService {
 
     UserResponse getUserById(Long userId);
 
-    UserProfileResponse getUserProfile(String userEmail);
+    UserProfileResponse getUserProfile(Long userId);
 
-    UserProfileResponse updateUserProfile(String userEmail, UpdateUserProfileRequest request);
+    UserProfileResponse updateUserProfile(Long userId, UpdateUserProfileRequest request);
 
-    MessageResponse changePassword(String userEmail, ChangePasswordRequest request);
+    MessageResponse changePassword(Long userId, ChangePasswordRequest request);
 }
\ No newline at end of file
@@ -0,0 +1,267 @@
+package com.health.service;
+
+import com.health.dto.WearableIngestResponse;
+import com.health.dto.WearableSeriesDTO;
+import com.health.entity.WearableMetric;
+import com.health.exception.ValidationException;
+import com.health.repository.WearableSampleChunkRepository;
+import com.health.util.GorillaCodec;
+import com.health.util.Lttb;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Append-only storage of high-frequency wearable samples.
+ * <p>
+ * Each ingested series is sorted, cut into chunks of at most {@code wearable.chunk.max-samples} samples that
+ * never cross a UTC day, compressed with {@link GorillaCodec} and written with one JDBC batch insert. Chunks
+ * are never rewritten; a query decodes only the chunks overlapping its range and, when several chunks carry
+ * the same second, keeps the sample written last.
+ */
+@Service
+@Slf4j
+public class WearableService {
+    private static final long SECONDS_PER_DAY = 86_400;
+
+    private final WearableSampleChunkRepository chunkRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final int chunkMaxSamples;
+    private final int maxSamplesPerRequest;
+
+    public WearableService(WearableSampleChunkRepository chunkRepository,
+                           JdbcTemplate jdbcTemplate,
+                           @Value("${wearable.chunk.max-samples:1024}") int chunkMaxSamples,
+                           @Value("${wearable.ingest.max-samples:100000}") int maxSamplesPerRequest) {
+        this.chunkRepository = chunkRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.chunkMaxSamples = Math.max(2, chunkMaxSamples);
+        this.maxSamplesPerRequest = maxSamplesPerRequest;
+    }
+
+    @Transactional
+    public WearableIngestResponse ingest(Long userId, List<WearableSeriesDTO> series) {
+        var total = 0;
+        for (var s : series) {
+            if (s.getTimestamps().length != s.getValues().length) {
+                throw new ValidationException(s.getMetric() + ": timestamps and values must have the same length");
+            }
+            total += s.getTimestamps().length;
+        }
+        if (total > maxSamplesPerRequest) {
+            throw new ValidationException("At most " + maxSamplesPerRequest + " samples per request");
+        }
+
+        var now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> rows = new ArrayList<>();
+        var storedBytes = 0L;
+        for (var s : series) {
+            var sorted = sorted(s);
+            var timestamps = sorted.getTimestamps();
+            var values = sorted.getValues();
+            var start = 0;
+            while (start < timestamps.length) {
+                var day = Math.floorDiv(timestamps[start], SECONDS_PER_DAY);
+                var end = start + 1;
+                while (end < timestamps.length && end - start < chunkMaxSamples
+                        && Math.floorDiv(timestamps[end], SECONDS_PER_DAY) == day) {
+                    end++;
+                }
+                var data = GorillaCodec.encode(timestamps, values, start, end);
+                storedBytes += data.length;
+                rows.add(new Object[]{userId, s.getMetric().name(), LocalDate.ofEpochDay(day),
+                        timestamps[start], timestamps[end - 1], end - start, data, now});
+                start = end;
+            }
+        }
+        jdbcTemplate.batchUpdate(WearableSampleChunkRepository.INSERT_SQL, rows);
+
+        log.debug("Stored {} wearable samples for user {} in {} chunks ({} bytes)", total, userId, rows.size(), storedBytes);
+        return WearableIngestResponse.builder()
+                .samples(total)
+                .chunks(rows.size())
+                .storedBytes(storedBytes)
+                .build();
+    }
+
+    /**
+     * Samples of one metric in {@code [from, to]} (epoch seconds), ordered by time and downsampled to
+     * {@code maxPoints} with {@link Lttb} when given.
+     * <p>
+     * Samples are decoded straight into primitive arrays sized from the chunks' sample counts, and a range
+     * whose chunks hold more than {@code wearable.ingest.max-samples} samples is rejected before decoding.
+     */
+    @Transactional(readOnly = true)
+    public WearableSeriesDTO query(Long userId, WearableMetric metric, long from, long to, Integer maxPoints) {
+        if (maxPoints != null && (maxPoints < Lttb.MIN_THRESHOLD || maxPoints > maxSamplesPerRequest)) {
+            throw new ValidationException("maxPoints must be between " + Lttb.MIN_THRESHOLD + " and " + maxSamplesPerRequest);
+        }
+        var chunks = chunkRepository.findOverlapping(userId, metric,
+                LocalDate.ofEpochDay(Math.floorDiv(from, SECONDS_PER_DAY)),
+                LocalDate.ofEpochDay(Math.floorDiv(to, SECONDS_PER_DAY)),
+                from, to);
+
+        var stored = 0L;
+        for (var chunk : chunks) {
+            stored += chunk.getSampleCount();
+        }
+        if (stored > maxSamplesPerRequest) {
+            throw new ValidationException("The range holds " + stored + " samples, more than the "
+                    + maxSamplesPerRequest + " a request may read; narrow it");
+        }
+
+        // Appended in write order: every chunk is sorted, but chunks may overlap or arrive out of order
+        var buffer = new SampleBuffer((int) stored, from, to);
+        for (var chunk : chunks) {
+            GorillaCodec.decode(chunk.getData(), chunk.getSampleCount(), buffer);
+        }
+        var length = buffer.orderKeepingLastWrite();
+        var timestamps = buffer.timestamps;
+        var values = buffer.values;
+        if (maxPoints != null && length > maxPoints) {
+            length = Lttb.downsample(timestamps, values, length, maxPoints);
+        }
+        return WearableSeriesDTO.builder()
+                .metric(metric)
+                .timestamps(Arrays.copyOf(timestamps, length))
+                .values(Arrays.copyOf(values, length))
+                .build();
+    }
+
+    private static WearableSeriesDTO sorted(WearableSeriesDTO s) {
+        var timestamps = s.getTimestamps();
+        var values = s.getValues();
+        for (int i = 0; i < timestamps.length; i++) {
+            if (timestamps[i] < 0) {
+                throw new ValidationException(s.getMetric() + ": timestamps must be epoch seconds");
+            }
+            if (!Double.isFinite(values[i])) {
+                throw new ValidationException(s.getMetric() + ": values must be finite numbers");
+            }
+        }
+        if (isOrdered(timestamps, timestamps.length)) {
+            return s;
+        }
+        var order = stableOrder(timestamps, timestamps.length);
+        var sortedTimestamps = new long[order.length];
+        var sortedValues = new double[order.length];
+        for (int i = 0; i < order.length; i++) {
+            sortedTimestamps[i] = timestamps[order[i]];
+            sortedValues[i] = values[order[i]];
+        }
+        return WearableSeriesDTO.builder()
+                .metric(s.getMetric())
+                .timestamps(sortedTimestamps)
+                .values(sortedValues)
+                .build();
+    }
+
+    private static boolean isOrdered(long[] timestamps, int length) {
+        for (int i = 1; i < length; i++) {
+            if (timestamps[i - 1] > timestamps[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Indices of the first {@code length} keys in ascending key order; equal keys keep their original order.
+     * Bottom-up merge sort over {@code int[]}, so no index is boxed.
+     */
+    private static int[] stableOrder(long[] keys, int length) {
+        var order = new int[length];
+        for (int i = 0; i < length; i++) {
+            order[i] = i;
+        }
+        var scratch = new int[length];
+        for (int width = 1; width < length; width *= 2) {
+            for (int lo = 0; lo < length; lo += 2 * width) {
+                var mid = Math.min(lo + width, length);
+                var hi = Math.min(lo + 2 * width, length);
+                int left = lo, right = mid, out = lo;
+                while (left < mid && right < hi) {
+                    // <= takes the left (earlier) index first on ties
+                    scratch[out++] = keys[order[left]] <= keys[order[right]] ? order[left++] : order[right++];
+                }
+                while (left < mid) {
+                    scratch[out++] = order[left++];
+                }
+                while (right < hi) {
+                    scratch[out++] = order[right++];
+                }
+            }
+            var swap = order;
+            order = scratch;
+            scratch = swap;
+        }
+        return order;
+    }
+
+    /**
+     * Decoded samples within {@code [from, to]}, appended in chunk write order into preallocated arrays.
+     */
+    private static final class SampleBuffer implements GorillaCodec.SampleConsumer {
+        private final long from;
+        private final long to;
+        private long[] timestamps;
+        private double[] values;
+        private int length;
+
+        SampleBuffer(int capacity, long from, long to) {
+            this.from = from;
+            this.to = to;
+            this.timestamps = new long[capacity];
+            this.values = new double[capacity];
+        }
+
+        @Override
+        public void accept(long timestamp, double value) {
+            if (timestamp >= from && timestamp <= to) {
+                timestamps[length] = timestamp;
+                values[length] = value;
+                length++;
+            }
+        }
+
+        /**
+         * Sort by time, stably so samples of the same second stay in write order, then keep only the last
+         * of each second.
+         *
+         * @return the number of samples left at the start of the arrays
+         */
+        int orderKeepingLastWrite() {
+            if (!isOrdered(timestamps, length)) {
+                var order = stableOrder(timestamps, length);
+                var sortedTimestamps = new long[length];
+                var sortedValues = new double[length];
+                for (int i = 0; i < length; i++) {
+                    sortedTimestamps[i] = timestamps[order[i]];
+                    sortedValues[i] = values[order[i]];
+                }
+                timestamps = sortedTimestamps;
+                values = sortedValues;
+            }
+            var out = 0;
+            for (int i = 0; i < length; i++) {
+                if (out > 0 && timestamps[out - 1] == timestamps[i]) {
+                    out--;
+                }
+                timestamps[out] = timestamps[i];
+                values[out] = values[i];
+                out++;
+            }
+            length = out;
+            return out;
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package com.health.service;
+
+import com.health.dto.WorkoutSessionBatchResponse;
+import com.health.dto.WorkoutSessionDTO;
+import com.health.dto.WorkoutSessionRequestDTO;
+import com.health.dto.admin.WorkoutTypeDTO;
+import com.health.entity.StreakKind;
+import com.health.entity.WorkoutSession;
+import com.health.exception.ValidationException;
+import com.health.repository.UserRepository;
+import com.health.repository.WorkoutSessionRepository;
+import com.health.repository.WorkoutTypeRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+/**
+ * Logs workout sessions.
+ * <p>
+ * Burned calories are estimated as {@code caloriesPerMinute * durationMinutes} of the workout type, read
+ * from the {@link RecommendationCatalog} snapshot, so a write never selects the type. A single session is
+ * one insert; a batch is one JDBC batch insert (rewritten into multi-row inserts by the MySQL driver).
+ * Sessions are append-only, so clients retrying a batch should send an {@code Idempotency-Key}.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class WorkoutSessionService {
+    private static final double MAX_DURATION_MINUTES = 24 * 60;
+
+    private final WorkoutSessionRepository workoutSessionRepository;
+    private final WorkoutTypeRepository workoutTypeRepository;
+    private final UserRepository userRepository;
+    private final RecommendationCatalog recommendationCatalog;
+    private final SyncService syncService;
+    private final LeaderboardService leaderboardService;
+    private final DailySummaryService dailySummaryService;
+    private final StreakService streakService;
+    private final ActivityCalendarService activityCalendarService;
+    private final JdbcTemplate jdbcTemplate;
+
+    private record Entry(LocalDate date, WorkoutTypeDTO type, double durationMinutes, String note) {
+        Double caloriesBurned() {
+            return type.getCaloriesPerMinute() != null
+                    ? Math.round(type.getCaloriesPerMinute() * durationMinutes * 100.0) / 100.0
+                    : null;
+        }
+    }
+
+    @Transactional
+    public WorkoutSessionDTO log(Long userId, WorkoutSessionRequestDTO dto) {
+        var entry = toEntry(null, dto);
+        var seq = syncService.next(userId);
+        dailySummaryService.lockDays(userId, List.of(entry.date()));
+        var session = workoutSessionRepository.save(WorkoutSession.builder()
+                .user(userRepository.getReferenceById(userId))
+                .workoutType(workoutTypeRepository.getReferenceById(entry.type().getId()))
+                .date(entry.date())
+                .durationMinutes(entry.durationMinutes())
+                .caloriesBurned(entry.caloriesBurned())
+                .note(entry.note())
+                .changeSeq(seq)
+                .build());
+        dailySummaryService.markWorkoutLogged(userId, entry.date());
+        streakService.onLogged(userId, StreakKind.WORKOUT, entry.date(), entry.date());
+        activityCalendarService.onLogged(userId, StreakKind.WORKOUT, entry.date(), entry.date());
+        leaderboardService.refreshAfterCommit(userId, LeaderboardService.Metric.WORKOUT_MINUTES, entry.date(), entry.date());
+        return WorkoutSessionDTO.builder()
+                .id(session.getId())
+                .date(session.getDate())
+                .workoutTypeId(entry.type().getId())
+                .workoutTypeName(entry.type().getName())
+                .durationMinutes(session.getDurationMinutes())
+                .caloriesBurned(session.getCaloriesBurned())
+                .note(session.getNote())
+                .createdAt(session.getCreatedAt())
+                .build();
+    }
+
+    @Transactional
+    public WorkoutSessionBatchResponse ingest(Long userId, List<WorkoutSessionRequestDTO> requests) {
+        List<Entry> entries = new ArrayList<>(requests.size());
+        for (int i = 0; i < requests.size(); i++) {
+            entries.add(toEntry(i, requests.get(i)));
+        }
+
+        var now = Timestamp.valueOf(LocalDateTime.now());
+        var seq = syncService.reserve(userId, entries.size());
+        var dates = entries.stream().map(Entry::date).collect(Collectors.toCollection(TreeSet::new));
+        dailySummaryService.lockDays(userId, dates);
+        List<Object[]> rows = new ArrayList<>(entries.size());
+        var minutes = 0.0;
+        var calories = 0.0;
+        for (var entry : entries) {
+            rows.add(new Object[]{userId, entry.type().getId(), entry.date(), entry.durationMinutes(),
+                    entry.caloriesBurned(), entry.note(), seq++, now});
+            minutes += entry.durationMinutes();
+            calories += entry.caloriesBurned() != null ? entry.caloriesBurned() : 0;
+        }
+        jdbcTemplate.batchUpdate(WorkoutSessionRepository.INSERT_SQL, rows);
+        // Every summary row, then the streak and calendar once: the same lock order as a single write
+        dates.forEach(date -> dailySummaryService.markWorkoutLogged(userId, date));
+        streakService.onLogged(userId, StreakKind.WORKOUT, dates.first(), dates.last());
+        activityCalendarService.onLogged(userId, StreakKind.WORKOUT, dates.first(), dates.last());
+        var latest = dates.last();
+        leaderboardService.refreshAfterCommit(userId, LeaderboardService.Metric.WORKOUT_MINUTES, latest, latest);
+
+        log.debug("Workout session batch for user {}: {} sessions, {} min", userId, rows.size(), minutes);
+        return WorkoutSessionBatchResponse.builder()
+                .received(requests.size())
+                .created(rows.size())
+                .durationMinutes(minutes)
+                .caloriesBurned(Math.round(calories * 100.0) / 100.0)
+                .build();
+    }
+
+    private Entry toEntry(Integer index, WorkoutSessionRequestDTO dto) {
+        var prefix = index != null ? "Entry " + index + ": " : "";
+        if (dto.getWorkoutTypeId() == null || dto.getDurationMinutes() == null) {
+            throw new ValidationException(prefix + "workoutTypeId and durationMinutes are required");
+        }
+        if (!(dto.getDurationMinutes() > 0) || dto.getDurationMinutes() > MAX_DURATION_MINUTES) {
+            throw new ValidationException(prefix + "durationMinutes must be between 0 and " + (int) MAX_DURATION_MINUTES);
+        }
+        var type = recommendationCatalog.workoutType(dto.getWorkoutTypeId())
+                .orElseThrow(() -> new ValidationException(prefix + "Workout type not found: " + dto.getWorkoutTypeId()));
+        LocalDate date;
+        try {
+            date = dto.getDate() != null ? LocalDate.parse(dto.getDate()) : LocalDate.now();
+        } catch (DateTimeParseException e) {
+            throw new ValidationException(prefix + "invalid date (must be yyyy-MM-dd)");
+        }
+        return new Entry(date, type, dto.getDurationMinutes(), dto.getNote());
+    }
+}
@@ -8,10 +8,13 @@ import com.health.dto.user.ChangePasswordRequest;
 import com.health.dto.user.UpdateUserProfileRequest;
 import com.health.dto.user.UserProfileResponse;
 import com.health.entity.User;
+import com.health.entity.UserProfile;
 import com.health.exception.ResourceNotFoundException;
 import com.health.exception.ValidationException;
 import com.health.repository.UserProfileRepo;
 import com.health.repository.UserRepository;
+import com.health.security.PrincipalCache;
+import com.health.service.LeaderboardService;
 import com.health.service.UserService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -20,7 +23,9 @@ import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.util.StringUtils;
 
 import java.math.BigDecimal;
@@ -37,6 +42,9 @@ public class UserServiceImpl implements UserService {
     private final UserProfileRepo userProfileRepository;
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final PrincipalCache principalCache;
+    private final TransactionTemplate transactionTemplate;
+    private final LeaderboardService leaderboardService;
 
     @Override
     @Transactional(readOnly = true)
@@ -79,7 +87,9 @@ public class UserServiceImpl implements UserService {
         var user = userRepository.findById(userId)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found"));
         user.setIsActive(request.getIsActive());
+        user.setSecurityVersion(user.getSecurityVersion() + 1);
         var savedUser = userRepository.save(user);
+        principalCache.invalidateAfterCommit(savedUser);
 
         return mapToUserResponse(savedUser);
     }
@@ -95,20 +105,18 @@ public class UserServiceImpl implements UserService {
 
     @Override
     @Transactional(readOnly = true)
-    public UserProfileResponse getUserProfile(String userEmail) {
-        var user = userRepository.findByEmail(userEmail)
-                .orElseThrow(() -> new ResourceNotFoundException("User not found"));
+    public UserProfileResponse getUserProfile(Long userId) {
+        var profile = userProfileRepository.findWithUserByUserId(userId)
+                .orElseThrow(() -> new ResourceNotFoundException("User profile not found"));
 
-        return mapToUserProfileResponse(user);
+        return mapToUserProfileResponse(profile.getUser(), profile);
     }
 
     @Override
-    public UserProfileResponse updateUserProfile(String userEmail, UpdateUserProfileRequest req) {
-        var user = userRepository.findByEmail(userEmail)
-                .orElseThrow(() -> new ResourceNotFoundException("User not found"));
-
-        var profile = userProfileRepository.findByUser(user)
+    public UserProfileResponse updateUserProfile(Long userId, UpdateUserProfileRequest req) {
+        var profile = userProfileRepository.findWithUserByUserId(userId)
                 .orElseThrow(() -> new ResourceNotFoundException("User profile not found"));
+        var user = profile.getUser();
 
         if (StringUtils.hasText(req.getFullName())) user.setFullName(req.getFullName());
         if (req.getBirthDate() != null) {
@@ -119,7 +127,11 @@ public class UserServiceImpl implements UserService {
         if (req.getHeightCm() != null) profile.setHeightCm(req.getHeightCm());
         if (req.getWeightKg() != null) profile.setWeightKg(req.getWeightKg());
         if (req.getTargetWeightKg() != null) profile.setTargetWeightKg(req.getTargetWeightKg());
-        if (req.getGoal() != null) profile.setGoal(req.getGoal());
+        if (req.getGoal() != null && req.getGoal() != profile.getGoal()) {
+            profile.setGoal(req.getGoal());
+            // Move the user to the boards of the new goal
+            leaderboardService.refreshAfterCommit(userId);
+        }
         if (req.getActivityLevel() != null) profile.setActivityLevel(req.getActivityLevel());
 
         if (profile.getHeightCm() != null && profile.getWeightKg() != null) {
@@ -158,24 +170,34 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
-    public MessageResponse changePassword(String userEmail, ChangePasswordRequest request) {
-        var user = userRepository.findByEmail(userEmail)
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public MessageResponse changePassword(Long userId, ChangePasswordRequest request) {
+        // BCrypt work runs outside any transaction so no pooled connection is held while hashing
+        var currentHash = userRepository.findPasswordById(userId)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found"));
 
-        if (!passwordEncoder.matches(request.getCurrentPassword(), user.getPassword())) {
-            throw new ValidationException("Current password is incorrect");
-        }
-
         if (!request.getNewPassword().equals(request.getConfirmPassword())) {
             throw new ValidationException("New password and confirmation do not match");
         }
 
-        if (passwordEncoder.matches(request.getNewPassword(), user.getPassword())) {
+        if (!passwordEncoder.matches(request.getCurrentPassword(), currentHash)) {
+            throw new ValidationException("Current password is incorrect");
+        }
+
+        if (passwordEncoder.matches(request.getNewPassword(), currentHash)) {
             throw new ValidationException("New password must be different from current password");
         }
 
-        user.setPassword(passwordEncoder.encode(request.getNewPassword()));
-        userRepository.save(user);
+        var newPasswordHash = passwordEncoder.encode(request.getNewPassword());
+
+        transactionTemplate.executeWithoutResult(status -> {
+            var managed = userRepository.findById(userId)
+                    .orElseThrow(() -> new ResourceNotFoundException("User not found"));
+            managed.setPassword(newPasswordHash);
+            managed.setSecurityVersion(managed.getSecurityVersion() + 1);
+            userRepository.save(managed);
+            principalCache.invalidateAfterCommit(managed);
+        });
 
         return MessageResponse.builder()
                 .message("Password changed successfully")
@@ -197,22 +219,22 @@ public class UserServiceImpl implements UserService {
         return builder.build();
     }
 
-    private UserProfileResponse mapToUserProfileResponse(User user) {
+    private UserProfileResponse mapToUserProfileResponse(User user, UserProfile profile) {
         UserProfileResponse.UserProfileResponseBuilder builder = UserProfileResponse.builder()
                 .id(user.getId())
                 .email(user.getEmail())
                 .fullName(user.getFullName())
                 .role(user.getRole())
-                .age(user.getProfile().getAge())
-                .birthDate(user.getProfile().getBirthDate())
-                .bmi(user.getProfile().getBmi())
-                .bmr(user.getProfile().getBmr())
-                .tdee(user.getProfile().getTdee())
-                .heightCm(user.getProfile().getHeightCm())
-                .weightKg(user.getProfile().getWeightKg())
-                .goal(user.getProfile().getGoal())
-                .targetWeightKg(user.getProfile().getTargetWeightKg())
-                .activityLevel(user.getProfile().getActivityLevel())
+                .age(profile.getAge())
+                .birthDate(profile.getBirthDate())
+                .bmi(profile.getBmi())
+                .bmr(profile.getBmr())
+                .tdee(profile.getTdee())
+                .heightCm(profile.getHeightCm())
+                .weightKg(profile.getWeightKg())
+                .goal(profile.getGoal())
+                .targetWeightKg(profile.getTargetWeightKg())
+                .activityLevel(profile.getActivityLevel())
                 .isActive(user.getIsActive())
                 .createdAt(user.getCreatedAt())
                 .updatedAt(user.getUpdatedAt());
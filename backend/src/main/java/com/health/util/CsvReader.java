@@ -0,0 +1,124 @@
+package com.health.util;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Minimal streaming RFC 4180 tokenizer: comma-separated fields, optional double quotes (with {@code ""} as
+ * an escaped quote, and commas or line breaks inside quotes), CRLF or LF line endings. Reads one record at a
+ * time from a buffered reader, so the input is never held in memory. Blank lines are skipped.
+ */
+public class CsvReader implements Closeable {
+    private final Reader reader;
+    private int peeked = -2;
+    private long line = 1;
+    private long recordLine;
+
+    public CsvReader(Reader reader) {
+        this.reader = reader;
+    }
+
+    /**
+     * @return the next record's fields, or null at end of input
+     */
+    public List<String> next() throws IOException {
+        List<String> fields = new ArrayList<>();
+        var field = new StringBuilder();
+        var quoted = false;
+        var fieldStarted = false;
+        var start = -1L;
+
+        while (true) {
+            var c = read();
+            if (c == -1) {
+                if (quoted) {
+                    throw new IOException("Unterminated quoted field starting at line " + start);
+                }
+                if (!fieldStarted && fields.isEmpty()) {
+                    return null;
+                }
+                fields.add(field.toString());
+                recordLine = start;
+                return fields;
+            }
+            if (start < 0 && c != '\r' && c != '\n') {
+                start = line;
+            }
+            if (quoted) {
+                if (c == '"') {
+                    if (peek() == '"') {
+                        read();
+                        field.append('"');
+                    } else {
+                        quoted = false;
+                    }
+                } else {
+                    if (c == '\n') {
+                        line++;
+                    }
+                    field.append((char) c);
+                }
+                continue;
+            }
+            switch (c) {
+                case '"' -> {
+                    quoted = true;
+                    fieldStarted = true;
+                }
+                case ',' -> {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                    fieldStarted = true;
+                }
+                case '\r' -> {
+                    // Treated as part of the line break that follows
+                }
+                case '\n' -> {
+                    line++;
+                    if (!fieldStarted && fields.isEmpty()) {
+                        continue;
+                    }
+                    fields.add(field.toString());
+                    recordLine = start;
+                    return fields;
+                }
+                default -> {
+                    field.append((char) c);
+                    fieldStarted = true;
+                }
+            }
+        }
+    }
+
+    /**
+     * Line number (1-based) on which the record last returned by {@link #next()} starts; blank lines before
+     * it and line breaks inside quoted fields are counted.
+     */
+    public long getRecordLine() {
+        return recordLine;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private int read() throws IOException {
+        if (peeked != -2) {
+            var c = peeked;
+            peeked = -2;
+            return c;
+        }
+        return reader.read();
+    }
+
+    private int peek() throws IOException {
+        if (peeked == -2) {
+            peeked = reader.read();
+        }
+        return peeked;
+    }
+}
@@ -0,0 +1,70 @@
+package com.health.util;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+
+/**
+ * One bit per day of a calendar year, packed into {@value #BYTES} bytes (366 bits, BINARY(46) in MySQL).
+ * Day-of-year {@code d} is bit {@code d - 1}, most significant bit of each byte first, so the bytes read
+ * left to right in calendar order.
+ */
+public final class DayBitset {
+    public static final int BYTES = 46;
+
+    private DayBitset() {
+    }
+
+    public static byte[] empty() {
+        return new byte[BYTES];
+    }
+
+    public static byte[] full() {
+        var bits = new byte[BYTES];
+        Arrays.fill(bits, (byte) 0xFF);
+        return bits;
+    }
+
+    public static void set(byte[] bits, LocalDate date) {
+        var index = date.getDayOfYear() - 1;
+        bits[index >>> 3] |= (byte) (0x80 >>> (index & 7));
+    }
+
+    public static void clear(byte[] bits, LocalDate date) {
+        var index = date.getDayOfYear() - 1;
+        bits[index >>> 3] &= (byte) ~(0x80 >>> (index & 7));
+    }
+
+    public static boolean isSet(byte[] bits, int index) {
+        return (bits[index >>> 3] & (0x80 >>> (index & 7))) != 0;
+    }
+
+    public static int count(byte[] bits) {
+        var count = 0;
+        for (var b : bits) {
+            count += Integer.bitCount(b & 0xFF);
+        }
+        return count;
+    }
+
+    /**
+     * Alternating run lengths of unset and set days over the first {@code days} bits, starting with an unset
+     * run (0 when the first day is set); the lengths sum to {@code days}.
+     */
+    public static int[] runLengths(byte[] bits, int days) {
+        var runs = new int[days + 1];
+        var length = 0;
+        var current = false;
+        var run = 0;
+        for (int i = 0; i < days; i++) {
+            var set = isSet(bits, i);
+            if (set != current) {
+                runs[length++] = run;
+                current = set;
+                run = 0;
+            }
+            run++;
+        }
+        runs[length++] = run;
+        return Arrays.copyOf(runs, length);
+    }
+}
@@ -0,0 +1,181 @@
+package com.health.util;
+
+import java.util.Arrays;
+
+/**
+ * Gorilla-style compression of a time series chunk (Pelkonen et al., VLDB 2015).
+ * <p>
+ * Timestamps (epoch seconds) are stored as delta-of-delta in variable-width buckets, so a regular sampling
+ * interval costs one bit per sample. Values are XORed with their predecessor; an unchanged value costs one
+ * bit and a changed one stores only its meaningful bits, reusing the previous leading/trailing-zero window
+ * when it fits. The sample count is kept outside the payload.
+ */
+public final class GorillaCodec {
+
+    @FunctionalInterface
+    public interface SampleConsumer {
+        void accept(long timestamp, double value);
+    }
+
+    private GorillaCodec() {
+    }
+
+    /**
+     * Encode samples {@code [from, to)}; timestamps must be non-decreasing and span less than 2^31 seconds.
+     */
+    public static byte[] encode(long[] timestamps, double[] values, int from, int to) {
+        var out = new BitWriter(16 + (to - from) * 2);
+        var prevTimestamp = timestamps[from];
+        var prevDelta = 0L;
+        var prevBits = Double.doubleToRawLongBits(values[from]);
+        var prevLeading = -1;
+        var prevTrailing = 0;
+        out.write(prevTimestamp, 64);
+        out.write(prevBits, 64);
+
+        for (int i = from + 1; i < to; i++) {
+            var delta = timestamps[i] - prevTimestamp;
+            var deltaOfDelta = delta - prevDelta;
+            if (deltaOfDelta == 0) {
+                out.write(0b0, 1);
+            } else if (fits(deltaOfDelta, 7)) {
+                out.write(0b10, 2);
+                out.write(deltaOfDelta, 7);
+            } else if (fits(deltaOfDelta, 9)) {
+                out.write(0b110, 3);
+                out.write(deltaOfDelta, 9);
+            } else if (fits(deltaOfDelta, 12)) {
+                out.write(0b1110, 4);
+                out.write(deltaOfDelta, 12);
+            } else {
+                out.write(0b1111, 4);
+                out.write(deltaOfDelta, 32);
+            }
+            prevDelta = delta;
+            prevTimestamp = timestamps[i];
+
+            var bits = Double.doubleToRawLongBits(values[i]);
+            var xor = bits ^ prevBits;
+            if (xor == 0) {
+                out.write(0b0, 1);
+            } else {
+                var leading = Math.min(Long.numberOfLeadingZeros(xor), 31);
+                var trailing = Long.numberOfTrailingZeros(xor);
+                if (prevLeading >= 0 && leading >= prevLeading && trailing >= prevTrailing) {
+                    // Meaningful bits fit in the previous window
+                    out.write(0b10, 2);
+                    out.write(xor >>> prevTrailing, 64 - prevLeading - prevTrailing);
+                } else {
+                    var meaningful = 64 - leading - trailing;
+                    out.write(0b11, 2);
+                    out.write(leading, 5);
+                    // 64 meaningful bits do not fit in 6 bits and are written as 0
+                    out.write(meaningful & 0x3F, 6);
+                    out.write(xor >>> trailing, meaningful);
+                    prevLeading = leading;
+                    prevTrailing = trailing;
+                }
+            }
+            prevBits = bits;
+        }
+        return out.toByteArray();
+    }
+
+    public static void decode(byte[] data, int count, SampleConsumer consumer) {
+        if (count <= 0) {
+            return;
+        }
+        var in = new BitReader(data);
+        var timestamp = in.read(64);
+        var bits = in.read(64);
+        var delta = 0L;
+        var leading = 0;
+        var trailing = 0;
+        consumer.accept(timestamp, Double.longBitsToDouble(bits));
+
+        for (int i = 1; i < count; i++) {
+            long deltaOfDelta;
+            if (in.read(1) == 0) {
+                deltaOfDelta = 0;
+            } else if (in.read(1) == 0) {
+                deltaOfDelta = signed(in.read(7), 7);
+            } else if (in.read(1) == 0) {
+                deltaOfDelta = signed(in.read(9), 9);
+            } else if (in.read(1) == 0) {
+                deltaOfDelta = signed(in.read(12), 12);
+            } else {
+                deltaOfDelta = signed(in.read(32), 32);
+            }
+            delta += deltaOfDelta;
+            timestamp += delta;
+
+            if (in.read(1) == 1) {
+                if (in.read(1) == 1) {
+                    leading = (int) in.read(5);
+                    var meaningful = (int) in.read(6);
+                    if (meaningful == 0) {
+                        meaningful = 64;
+                    }
+                    trailing = 64 - leading - meaningful;
+                }
+                bits ^= in.read(64 - leading - trailing) << trailing;
+            }
+            consumer.accept(timestamp, Double.longBitsToDouble(bits));
+        }
+    }
+
+    private static boolean fits(long value, int width) {
+        var bound = 1L << (width - 1);
+        return value >= -bound && value < bound;
+    }
+
+    private static long signed(long value, int width) {
+        return (value << (64 - width)) >> (64 - width);
+    }
+
+    private static final class BitWriter {
+        private byte[] buffer;
+        private long bitCount;
+
+        BitWriter(int initialBytes) {
+            buffer = new byte[Math.max(16, initialBytes)];
+        }
+
+        // Low `width` bits of value, most significant first
+        void write(long value, int width) {
+            for (int shift = width - 1; shift >= 0; shift--) {
+                var index = (int) (bitCount >>> 3);
+                if (index == buffer.length) {
+                    buffer = Arrays.copyOf(buffer, buffer.length * 2);
+                }
+                if (((value >>> shift) & 1) != 0) {
+                    buffer[index] |= (byte) (0x80 >>> (bitCount & 7));
+                }
+                bitCount++;
+            }
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(buffer, (int) ((bitCount + 7) >>> 3));
+        }
+    }
+
+    private static final class BitReader {
+        private final byte[] buffer;
+        private long position;
+
+        BitReader(byte[] buffer) {
+            this.buffer = buffer;
+        }
+
+        long read(int width) {
+            var value = 0L;
+            for (int i = 0; i < width; i++) {
+                var bit = (buffer[(int) (position >>> 3)] >>> (7 - (position & 7))) & 1;
+                value = (value << 1) | bit;
+                position++;
+            }
+            return value;
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.health.util;
+
+/**
+ * Largest-Triangle-Three-Buckets downsampling (Steinarsson, 2013).
+ * <p>
+ * Keeps the first and last point and, from each of {@code threshold - 2} equal buckets in between, the point
+ * forming the largest triangle with the previously kept point and the average of the next bucket. Peaks and
+ * troughs survive, unlike with plain averaging or striding. Works in one pass over primitive arrays and
+ * compacts them in place: a kept point is always written at or before the index it was read from, and the
+ * previously kept point is held in locals.
+ */
+public final class Lttb {
+    public static final int MIN_THRESHOLD = 3;
+
+    private Lttb() {
+    }
+
+    /**
+     * Downsample the first {@code length} points of ({@code x}, {@code y}), with {@code x} ascending, to at
+     * most {@code threshold} points, in place.
+     *
+     * @return the number of points kept at the start of the arrays
+     */
+    public static int downsample(long[] x, double[] y, int length, int threshold) {
+        if (threshold < MIN_THRESHOLD) {
+            throw new IllegalArgumentException("threshold must be at least " + MIN_THRESHOLD);
+        }
+        if (length <= threshold) {
+            return length;
+        }
+
+        var bucketSize = (double) (length - 2) / (threshold - 2);
+        double keptX = x[0];
+        var keptY = y[0];
+        var out = 1;
+
+        for (int bucket = 0; bucket < threshold - 2; bucket++) {
+            // Average of the next bucket (the last point for the final bucket)
+            var nextStart = (int) ((bucket + 1) * bucketSize) + 1;
+            var nextEnd = Math.min((int) ((bucket + 2) * bucketSize) + 1, length);
+            var avgX = 0.0;
+            var avgY = 0.0;
+            for (int i = nextStart; i < nextEnd; i++) {
+                avgX += x[i];
+                avgY += y[i];
+            }
+            avgX /= nextEnd - nextStart;
+            avgY /= nextEnd - nextStart;
+
+            var start = (int) (bucket * bucketSize) + 1;
+            var end = (int) ((bucket + 1) * bucketSize) + 1;
+            var maxArea = -1.0;
+            var chosen = start;
+            for (int i = start; i < end; i++) {
+                // Twice the triangle area; only the comparison matters
+                var area = Math.abs((keptX - avgX) * (y[i] - keptY) - (keptX - x[i]) * (avgY - keptY));
+                if (area > maxArea) {
+                    maxArea = area;
+                    chosen = i;
+                }
+            }
+
+            keptX = x[chosen];
+            keptY = y[chosen];
+            x[out] = x[chosen];
+            y[out] = y[chosen];
+            out++;
+        }
+
+        x[out] = x[length - 1];
+        y[out] = y[length - 1];
+        return out + 1;
+    }
+}
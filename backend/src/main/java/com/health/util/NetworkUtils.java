@@ -1,8 +1,10 @@
 package com.health.util;
 
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.extern.java.Log;
 
 import java.net.NetworkInterface;
+import java.util.Set;
 import java.util.logging.Level;
 
 @Log
@@ -34,5 +36,36 @@ public class NetworkUtils {
         }
         return "127.0.0.1";
     }
-}
 
+    /**
+     * Resolve the calling client's address. X-Forwarded-For is only honoured when the app runs behind a
+     * trusted reverse proxy, otherwise any client could pick its own key. Entries are appended by each hop,
+     * so only the right end of the header is trustworthy: the address is the rightmost entry that is not one
+     * of {@code trustedProxies}. With no proxies configured the direct peer is the only trusted hop and the
+     * rightmost entry is used.
+     */
+    public static String getClientIp(HttpServletRequest request, boolean trustForwardedFor, Set<String> trustedProxies) {
+        var remoteAddr = request.getRemoteAddr();
+        if (!trustForwardedFor) {
+            return remoteAddr;
+        }
+        var forwarded = request.getHeader("X-Forwarded-For");
+        if (forwarded == null || forwarded.isBlank()
+                || (!trustedProxies.isEmpty() && !trustedProxies.contains(remoteAddr))) {
+            return remoteAddr;
+        }
+        var hops = forwarded.split(",");
+        var candidate = remoteAddr;
+        for (int i = hops.length - 1; i >= 0; i--) {
+            var hop = hops[i].trim();
+            if (hop.isEmpty()) {
+                continue;
+            }
+            candidate = hop;
+            if (!trustedProxies.contains(hop)) {
+                break;
+            }
+        }
+        return candidate;
+    }
+}
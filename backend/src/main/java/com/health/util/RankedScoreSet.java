@@ -0,0 +1,181 @@
+package com.health.util;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Indexable skip list of {@code (id, score)} pairs ranked by score descending, ties broken by ascending id.
+ * <p>
+ * Every forward link records how many entries it skips, so the rank of an entry is the sum of the spans
+ * on its search path: insert, update, remove and rank lookup are O(log n) expected, and the top n entries
+ * are a walk along the bottom level. A hash index by id finds an entry's current score for updates.
+ * Not thread-safe; callers synchronize.
+ */
+public final class RankedScoreSet {
+    private static final int MAX_LEVEL = 32;
+
+    public record Entry(long id, double score) {
+    }
+
+    private static final class Node {
+        final long id;
+        final double score;
+        final Node[] next;
+        final int[] span;
+
+        Node(long id, double score, int level) {
+            this.id = id;
+            this.score = score;
+            this.next = new Node[level];
+            this.span = new int[level];
+        }
+    }
+
+    private final Node head = new Node(Long.MIN_VALUE, Double.POSITIVE_INFINITY, MAX_LEVEL);
+    private final Map<Long, Node> index = new HashMap<>();
+    private int level = 1;
+    private int length;
+
+    public int size() {
+        return length;
+    }
+
+    /**
+     * Set the entry's score, inserting it when absent.
+     */
+    public void put(long id, double score) {
+        var existing = index.get(id);
+        if (existing != null) {
+            if (existing.score == score) {
+                return;
+            }
+            unlink(existing);
+        }
+        index.put(id, insert(id, score));
+    }
+
+    public void remove(long id) {
+        var existing = index.remove(id);
+        if (existing != null) {
+            unlink(existing);
+        }
+    }
+
+    /**
+     * @return the entry's score, or NaN when absent
+     */
+    public double score(long id) {
+        var node = index.get(id);
+        return node != null ? node.score : Double.NaN;
+    }
+
+    /**
+     * @return the 1-based rank of the entry, or 0 when absent
+     */
+    public int rank(long id) {
+        var node = index.get(id);
+        if (node == null) {
+            return 0;
+        }
+        var rank = 0;
+        var x = head;
+        for (int i = level - 1; i >= 0; i--) {
+            while (x.next[i] != null && !before(node.score, node.id, x.next[i])) {
+                rank += x.span[i];
+                x = x.next[i];
+            }
+            if (x == node) {
+                return rank;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * The first {@code limit} entries in rank order.
+     */
+    public List<Entry> top(int limit) {
+        List<Entry> entries = new ArrayList<>(Math.min(limit, size()));
+        for (var x = head.next[0]; x != null && entries.size() < limit; x = x.next[0]) {
+            entries.add(new Entry(x.id, x.score));
+        }
+        return entries;
+    }
+
+    private Node insert(long id, double score) {
+        var update = new Node[MAX_LEVEL];
+        var rank = new int[MAX_LEVEL];
+        var x = head;
+        for (int i = level - 1; i >= 0; i--) {
+            rank[i] = i == level - 1 ? 0 : rank[i + 1];
+            while (x.next[i] != null && before(x.next[i].score, x.next[i].id, score, id)) {
+                rank[i] += x.span[i];
+                x = x.next[i];
+            }
+            update[i] = x;
+        }
+
+        var nodeLevel = randomLevel();
+        if (nodeLevel > level) {
+            for (int i = level; i < nodeLevel; i++) {
+                rank[i] = 0;
+                update[i] = head;
+                head.span[i] = length;
+            }
+            level = nodeLevel;
+        }
+
+        var node = new Node(id, score, nodeLevel);
+        for (int i = 0; i < nodeLevel; i++) {
+            node.next[i] = update[i].next[i];
+            update[i].next[i] = node;
+            node.span[i] = update[i].span[i] - (rank[0] - rank[i]);
+            update[i].span[i] = rank[0] - rank[i] + 1;
+        }
+        for (int i = nodeLevel; i < level; i++) {
+            update[i].span[i]++;
+        }
+        length++;
+        return node;
+    }
+
+    private void unlink(Node node) {
+        var x = head;
+        for (int i = level - 1; i >= 0; i--) {
+            while (x.next[i] != null && before(x.next[i].score, x.next[i].id, node.score, node.id)) {
+                x = x.next[i];
+            }
+            if (x.next[i] == node) {
+                x.span[i] += node.span[i] - 1;
+                x.next[i] = node.next[i];
+            } else {
+                x.span[i]--;
+            }
+        }
+        while (level > 1 && head.next[level - 1] == null) {
+            level--;
+        }
+        length--;
+    }
+
+    // Whether (scoreA, idA) ranks strictly before (scoreB, idB)
+    private static boolean before(double scoreA, long idA, double scoreB, long idB) {
+        return scoreA > scoreB || (scoreA == scoreB && idA < idB);
+    }
+
+    private static boolean before(double score, long id, Node node) {
+        return before(score, id, node.score, node.id);
+    }
+
+    private static int randomLevel() {
+        var nodeLevel = 1;
+        var random = ThreadLocalRandom.current();
+        while (nodeLevel < MAX_LEVEL && random.nextInt(4) == 0) {
+            nodeLevel++;
+        }
+        return nodeLevel;
+    }
+}
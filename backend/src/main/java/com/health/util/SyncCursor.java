@@ -0,0 +1,28 @@
+package com.health.util;
+
+import com.health.exception.ValidationException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Opaque delta-sync cursor: the {@code (changeSeq, stream, rowId)} position of the last change returned.
+ * {@link #START} sorts before every row, including rows that predate change tracking (sequence 0).
+ */
+public record SyncCursor(long seq, int stream, long rowId) {
+    public static final SyncCursor START = new SyncCursor(-1, 0, 0);
+
+    public String encode() {
+        var raw = seq + ":" + stream + ":" + rowId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static SyncCursor decode(String cursor) {
+        try {
+            var parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split(":");
+            return new SyncCursor(Long.parseLong(parts[0]), Integer.parseInt(parts[1]), Long.parseLong(parts[2]));
+        } catch (RuntimeException e) {
+            throw new ValidationException("Invalid cursor");
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.health;
+
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+/**
+ * Base for tests that need the real database: the native upserts and Connector/J's affected-rows counts
+ * only behave as in production on MySQL. Skipped where no Docker daemon is available.
+ * <p>
+ * One container serves every test class (and the cached application context built on it); it is started
+ * on first use and removed when the JVM exits.
+ */
+@SpringBootTest(properties = {
+        // Cost 4 keeps test logins fast; production calibrates to 12 or more
+        "security.password.bcrypt-strength=4",
+        "logging.file.name="
+})
+@Testcontainers(disabledWithoutDocker = true)
+public abstract class MySqlIntegrationTest {
+
+    private static final MySQLContainer<?> MYSQL = new MySQLContainer<>("mysql:8.0");
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        MYSQL.start();
+        registry.add("spring.datasource.url", MYSQL::getJdbcUrl);
+        registry.add("spring.datasource.username", MYSQL::getUsername);
+        registry.add("spring.datasource.password", MYSQL::getPassword);
+    }
+}
@@ -0,0 +1,217 @@
+package com.health.repository;
+
+import com.health.MySqlIntegrationTest;
+import com.health.dto.HealthRecordRequestDTO;
+import com.health.dto.MealLogRequestDTO;
+import com.health.entity.DailyUserSummary;
+import com.health.entity.Goal;
+import com.health.entity.Meal;
+import com.health.entity.MealType;
+import com.health.entity.User;
+import com.health.service.HealthRecordService;
+import com.health.service.MealLogService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.IntFunction;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+/**
+ * Many writers hitting one slot at once must leave a single row whose values match the daily summary,
+ * and exactly one of them must see MySQL's "inserted" affected-rows count (1) while the rest see 2.
+ * Writers spread over the slots of one day (and a delete among them) must neither deadlock nor lose a
+ * contribution to that day's summary.
+ */
+class SlotUpsertConcurrencyTest extends MySqlIntegrationTest {
+    private static final int THREADS = 64;
+    private static final LocalDate DATE = LocalDate.of(2026, 1, 15);
+
+    @Autowired
+    private MealLogService mealLogService;
+    @Autowired
+    private HealthRecordService healthRecordService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private MealLogRepository mealLogRepository;
+    @Autowired
+    private MealRepository mealRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void concurrentMealLogUpsertsKeepOneRowPerSlot() throws Exception {
+        var userId = newUser();
+        var meal = newMeal();
+
+        var created = runConcurrently(i -> () -> {
+            var dto = new MealLogRequestDTO();
+            dto.setMealId(meal.getId());
+            dto.setMealType(MealType.LUNCH);
+            dto.setQuantity(i + 1.0);
+            return mealLogService.upsert(userId, DATE, dto);
+        });
+
+        assertThat(created).filteredOn(Boolean::booleanValue).hasSize(1);
+        var rows = jdbcTemplate.queryForList("""
+                select quantity, total_calories, total_protein, total_carbs, total_fat from meal_logs
+                where user_id = ? and date = ? and meal_type = ?
+                """, userId, DATE, MealType.LUNCH.name());
+        assertThat(rows).hasSize(1);
+        var row = rows.get(0);
+        var quantity = ((Number) row.get("quantity")).doubleValue();
+        assertThat(((Number) row.get("total_calories")).doubleValue()).isCloseTo(420.0 * quantity, within(1e-9));
+
+        var summary = jdbcTemplate.queryForMap("""
+                select calories_consumed, protein_grams, carbs_grams, fat_grams from daily_user_summary
+                where user_id = ? and date = ?
+                """, userId, DATE);
+        assertThat(((Number) summary.get("calories_consumed")).doubleValue())
+                .isCloseTo(((Number) row.get("total_calories")).doubleValue(), within(1e-9));
+        assertThat(((Number) summary.get("protein_grams")).doubleValue())
+                .isCloseTo(((Number) row.get("total_protein")).doubleValue(), within(1e-9));
+        assertThat(((Number) summary.get("carbs_grams")).doubleValue())
+                .isCloseTo(((Number) row.get("total_carbs")).doubleValue(), within(1e-9));
+        assertThat(((Number) summary.get("fat_grams")).doubleValue())
+                .isCloseTo(((Number) row.get("total_fat")).doubleValue(), within(1e-9));
+    }
+
+    @Test
+    void concurrentWritesToDifferentSlotsOfOneDayKeepTheSummaryExact() throws Exception {
+        var userId = newUser();
+        var meal = newMeal();
+        var snack = new MealLogRequestDTO();
+        snack.setMealId(meal.getId());
+        snack.setMealType(MealType.SNACK);
+        snack.setQuantity(1.0);
+        mealLogService.upsert(userId, DATE, snack);
+        var snackId = mealLogRepository.findByUserIdAndDateAndMealType(userId, DATE, MealType.SNACK)
+                .orElseThrow().getId();
+
+        // One delete, health record upserts and upserts of the three other meal slots, all on the same day;
+        // a deadlock would surface as an exception from the losing thread
+        var slots = new MealType[]{MealType.BREAKFAST, MealType.LUNCH, MealType.DINNER};
+        runConcurrently(i -> () -> {
+            if (i == 0) {
+                mealLogService.delete(userId, snackId);
+            } else if (i % 4 == 3) {
+                var dto = new HealthRecordRequestDTO();
+                dto.setWeight(60.0 + i);
+                dto.setSteps(1_000 * i);
+                healthRecordService.upsert(userId, DATE, dto);
+            } else {
+                var dto = new MealLogRequestDTO();
+                dto.setMealId(meal.getId());
+                dto.setMealType(slots[i % slots.length]);
+                dto.setQuantity(i + 1.0);
+                mealLogService.upsert(userId, DATE, dto);
+            }
+            return null;
+        });
+
+        var meals = jdbcTemplate.queryForMap("""
+                select count(*) as slots, sum(total_calories) as calories from meal_logs
+                where user_id = ? and date = ?
+                """, userId, DATE);
+        assertThat(((Number) meals.get("slots")).intValue()).isEqualTo(slots.length);
+        var steps = jdbcTemplate.queryForObject(
+                "select steps from health_records where user_id = ? and date = ?", Integer.class, userId, DATE);
+
+        var summary = jdbcTemplate.queryForMap(
+                "select calories_consumed, steps, logged_flags from daily_user_summary where user_id = ? and date = ?",
+                userId, DATE);
+        assertThat(((Number) summary.get("calories_consumed")).doubleValue())
+                .isCloseTo(((Number) meals.get("calories")).doubleValue(), within(1e-9));
+        assertThat(((Number) summary.get("steps")).intValue()).isEqualTo(steps);
+        assertThat(((Number) summary.get("logged_flags")).intValue())
+                .isEqualTo(DailyUserSummary.FLAG_MEAL | DailyUserSummary.FLAG_HEALTH);
+    }
+
+    @Test
+    void concurrentHealthRecordUpsertsKeepOneRowPerDay() throws Exception {
+        var userId = newUser();
+
+        var created = runConcurrently(i -> () -> {
+            var dto = new HealthRecordRequestDTO();
+            dto.setWeight(60.0 + i);
+            dto.setSteps(1_000 * (i + 1));
+            dto.setSleepHours(7.0);
+            dto.setCaloriesBurned(100 + i);
+            return healthRecordService.upsert(userId, DATE, dto);
+        });
+
+        assertThat(created).filteredOn(Boolean::booleanValue).hasSize(1);
+        var rows = jdbcTemplate.queryForList(
+                "select steps, weight, calories_burned from health_records where user_id = ? and date = ?",
+                userId, DATE);
+        assertThat(rows).hasSize(1);
+        var row = rows.get(0);
+
+        var summary = jdbcTemplate.queryForMap(
+                "select steps, weight, calories_burned from daily_user_summary where user_id = ? and date = ?",
+                userId, DATE);
+        assertThat(((Number) summary.get("steps")).intValue()).isEqualTo(((Number) row.get("steps")).intValue());
+        assertThat(((Number) summary.get("weight")).doubleValue())
+                .isCloseTo(((Number) row.get("weight")).doubleValue(), within(1e-9));
+        assertThat(((Number) summary.get("calories_burned")).intValue())
+                .isEqualTo(((Number) row.get("calories_burned")).intValue());
+    }
+
+    private Long newUser() {
+        return userRepository.save(User.builder()
+                .email("upsert-" + UUID.randomUUID() + "@example.com")
+                .password("not-used")
+                .fullName("Upsert Stress")
+                .build()).getId();
+    }
+
+    private Meal newMeal() {
+        return mealRepository.save(Meal.builder()
+                .name("Stress test bowl")
+                .category(MealType.LUNCH)
+                .goal(Goal.MAINTAIN)
+                .calories(420.0)
+                .protein(30.0)
+                .carbs(50.0)
+                .fat(12.0)
+                .isActive(true)
+                .build());
+    }
+
+    /**
+     * Run one task per thread, all released at the same moment, and return their results in task order.
+     */
+    private static <T> List<T> runConcurrently(IntFunction<Callable<T>> task) throws Exception {
+        var start = new CountDownLatch(1);
+        var executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<T>> futures = new ArrayList<>();
+            for (int i = 0; i < THREADS; i++) {
+                var callable = task.apply(i);
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return callable.call();
+                }));
+            }
+            start.countDown();
+            List<T> results = new ArrayList<>();
+            for (var future : futures) {
+                results.add(future.get());
+            }
+            return results;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.health.repository;
+
+import com.health.MySqlIntegrationTest;
+import com.health.entity.DailyUserSummary;
+import com.health.entity.StreakKind;
+import com.health.entity.User;
+import com.health.service.ActivityCalendarService;
+import com.health.util.DayBitset;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The calendar bit operations run in MySQL (binary-string {@code |} and {@code &}); a year without a row is
+ * seeded from the summary flags, both when read and on its first write.
+ */
+class UserActivityCalendarRepositoryTest extends MySqlIntegrationTest {
+
+    @Autowired
+    private UserActivityCalendarRepository calendarRepository;
+    @Autowired
+    private DailyUserSummaryRepository summaryRepository;
+    @Autowired
+    private ActivityCalendarService activityCalendarService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private Long userId;
+
+    @BeforeEach
+    void newUser() {
+        userId = userRepository.save(User.builder()
+                .email("calendar-" + UUID.randomUUID() + "@example.com")
+                .password("not-used")
+                .fullName("Calendar")
+                .build()).getId();
+    }
+
+    @Test
+    void readingAMissingYearSeedsItFromTheSummary() {
+        logged(LocalDate.of(2025, 1, 1), DailyUserSummary.FLAG_MEAL | DailyUserSummary.FLAG_HEALTH);
+        logged(LocalDate.of(2025, 12, 31), DailyUserSummary.FLAG_WORKOUT);
+        logged(LocalDate.of(2024, 12, 31), DailyUserSummary.FLAG_MEAL);
+
+        var calendar = activityCalendarService.getCalendar(userId, 2025, ActivityCalendarService.Format.RLE);
+
+        assertThat(calendar.getDays()).isEqualTo(365);
+        assertThat(calendar.getActivities()).satisfiesExactly(
+                meal -> assertThat(meal.getRuns()).containsExactly(0, 1, 364),
+                health -> assertThat(health.getRuns()).containsExactly(0, 1, 364),
+                workout -> assertThat(workout.getRuns()).containsExactly(364, 1));
+        // A read does not create the row
+        assertThat(calendarRepository.findByUserIdAndYear(userId, 2025)).isEmpty();
+    }
+
+    @Test
+    void firstWriteOfAYearSeedsTheRowFromTheSummary() {
+        var earlier = LocalDate.of(2024, 3, 1);
+        var day366 = LocalDate.of(2024, 12, 31);
+        logged(earlier, DailyUserSummary.FLAG_MEAL);
+        transactionTemplate.executeWithoutResult(status -> {
+            summaryRepository.markLogged(userId, day366, DailyUserSummary.FLAG_MEAL);
+            activityCalendarService.onLogged(userId, StreakKind.MEAL, day366, day366);
+        });
+
+        var row = calendarRepository.findByUserIdAndYear(userId, 2024).orElseThrow();
+        assertThat(DayBitset.isSet(row.getMealDays(), earlier.getDayOfYear() - 1)).isTrue();
+        assertThat(DayBitset.isSet(row.getMealDays(), 365)).isTrue();
+        assertThat(DayBitset.count(row.getMealDays())).isEqualTo(2);
+        assertThat(DayBitset.count(row.getHealthDays())).isZero();
+        assertThat(DayBitset.count(row.getWorkoutDays())).isZero();
+    }
+
+    @Test
+    void orAndAndMasksOnlyTouchTheirKind() {
+        var mealDay = LocalDate.of(2025, 6, 1);
+        var healthDay = LocalDate.of(2025, 6, 2);
+        var workoutDay = LocalDate.of(2025, 6, 3);
+        transactionTemplate.executeWithoutResult(status -> {
+            calendarRepository.upsertDays(userId, 2025, DayBitset.empty(), DayBitset.empty(), DayBitset.empty());
+            activityCalendarService.onLogged(userId, StreakKind.MEAL, mealDay, mealDay);
+            activityCalendarService.onLogged(userId, StreakKind.HEALTH, healthDay, healthDay);
+            activityCalendarService.onLogged(userId, StreakKind.WORKOUT, workoutDay, workoutDay);
+            activityCalendarService.onLogged(userId, StreakKind.HEALTH, mealDay, mealDay);
+        });
+
+        var row = calendarRepository.findByUserIdAndYear(userId, 2025).orElseThrow();
+        assertThat(setDays(row.getMealDays())).containsExactly(mealDay.getDayOfYear());
+        assertThat(setDays(row.getHealthDays())).containsExactly(mealDay.getDayOfYear(), healthDay.getDayOfYear());
+        assertThat(setDays(row.getWorkoutDays())).containsExactly(workoutDay.getDayOfYear());
+
+        // The summary holds none of these days, so each clear goes through
+        transactionTemplate.executeWithoutResult(status ->
+                activityCalendarService.onDayCleared(userId, StreakKind.HEALTH, mealDay));
+
+        row = calendarRepository.findByUserIdAndYear(userId, 2025).orElseThrow();
+        assertThat(setDays(row.getMealDays())).containsExactly(mealDay.getDayOfYear());
+        assertThat(setDays(row.getHealthDays())).containsExactly(healthDay.getDayOfYear());
+        assertThat(setDays(row.getWorkoutDays())).containsExactly(workoutDay.getDayOfYear());
+    }
+
+    private void logged(LocalDate date, int flags) {
+        transactionTemplate.executeWithoutResult(status -> summaryRepository.markLogged(userId, date, flags));
+    }
+
+    // 1-based days of the year whose bit is set
+    private static int[] setDays(byte[] bits) {
+        return IntStream.range(0, 366).filter(i -> DayBitset.isSet(bits, i)).map(i -> i + 1).toArray();
+    }
+}
@@ -0,0 +1,194 @@
+package com.health.security;
+
+import com.health.MySqlIntegrationTest;
+import com.health.dto.auth.LoginRequest;
+import com.health.entity.Goal;
+import com.health.entity.Meal;
+import com.health.entity.MealType;
+import com.health.entity.User;
+import com.health.entity.UserProfile;
+import com.health.repository.MealRepository;
+import com.health.repository.UserProfileRepo;
+import com.health.repository.UserRepository;
+import com.health.service.AuthService;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Authenticated requests resolve the current user from the token and the principal cache: only the first
+ * request after login reads the {@code users} table, and {@code @CurrentUser} never does.
+ * <p>
+ * The per-endpoint tests pin the total number of statements of a warm request (second of two identical
+ * ones, so first-write seeding of streaks and calendars is not counted); a change there is either an
+ * intended new query or an N+1 to fix.
+ */
+@AutoConfigureMockMvc
+class CurrentUserQueryCountTest extends MySqlIntegrationTest {
+    private static final String PASSWORD = "Secret123!";
+    private static final Pattern USERS_TABLE = Pattern.compile("(?i)\\b(from|join)\\s+users\\b");
+    private static final Pattern ANY = Pattern.compile("");
+    // Before the current week and month, so no leaderboard refresh runs after the writes
+    private static final String DATE = "2026-01-15";
+
+    @TestConfiguration
+    static class StatementCapture {
+        @Bean
+        RecordingStatementInspector recordingStatementInspector() {
+            return new RecordingStatementInspector();
+        }
+
+        @Bean
+        HibernatePropertiesCustomizer statementInspectorCustomizer(RecordingStatementInspector inspector) {
+            return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, inspector);
+        }
+    }
+
+    // MockMvc serves requests on the test thread (GET /users/my also fans out to an executor); statements
+    // of scheduled jobs are left out of the counts
+    static class RecordingStatementInspector implements StatementInspector {
+        private record Statement(Thread thread, String sql) {
+        }
+
+        private final List<Statement> statements = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            statements.add(new Statement(Thread.currentThread(), sql));
+            return sql;
+        }
+
+        long count(Pattern pattern) {
+            return statements.stream()
+                    .filter(statement -> !statement.thread().getName().startsWith("scheduling-")
+                            && pattern.matcher(statement.sql()).find())
+                    .count();
+        }
+
+        void clear() {
+            statements.clear();
+        }
+    }
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private RecordingStatementInspector statements;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private UserProfileRepo userProfileRepo;
+    @Autowired
+    private MealRepository mealRepository;
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+    @Autowired
+    private AuthService authService;
+
+    private String token;
+
+    @BeforeEach
+    void logIn() {
+        // Saved directly (not through /auth/register), so the principal cache starts cold
+        var email = "query-count-" + UUID.randomUUID() + "@example.com";
+        var user = userRepository.save(User.builder()
+                .email(email)
+                .password(passwordEncoder.encode(PASSWORD))
+                .fullName("Query Count")
+                .build());
+        userProfileRepo.save(UserProfile.builder().user(user).build());
+        token = authService.login(new LoginRequest(email, PASSWORD), null).getToken();
+        statements.clear();
+    }
+
+    @Test
+    void onlyTheFirstRequestReadsTheUser() throws Exception {
+        mockMvc.perform(get("/streaks/my").header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk());
+        assertThat(statements.count(USERS_TABLE)).isEqualTo(1);
+
+        statements.clear();
+        for (int i = 0; i < 5; i++) {
+            mockMvc.perform(get("/streaks/my").header("Authorization", "Bearer " + token))
+                    .andExpect(status().isOk());
+        }
+        assertThat(statements.count(USERS_TABLE)).isZero();
+    }
+
+    @Test
+    void homeDashboardRunsTwoStatements() throws Exception {
+        // The week's health records and the profile goal, read concurrently
+        assertWarmRequestRuns(get("/users/my"), 2);
+    }
+
+    @Test
+    void profileRunsOneStatement() throws Exception {
+        // The profile joined with its user
+        assertWarmRequestRuns(get("/users/profile"), 1);
+    }
+
+    @Test
+    void healthRecordListRunsOneStatement() throws Exception {
+        assertWarmRequestRuns(get("/health-records/my"), 1);
+    }
+
+    @Test
+    void mealLogPageRunsOneStatement() throws Exception {
+        assertWarmRequestRuns(get("/meal-logs/my"), 1);
+    }
+
+    @Test
+    void healthRecordUpsertRunsNineStatements() throws Exception {
+        // Height; sync sequence advance and read; summary row lock; record upsert; summary metrics;
+        // streak row insert-if-absent and lock; calendar bits
+        assertWarmRequestRuns(post("/health-records")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"date\":\"" + DATE + "\",\"weight\":70,\"steps\":8000}"), 9);
+    }
+
+    @Test
+    void mealLogUpsertRunsNineStatements() throws Exception {
+        var meal = mealRepository.save(Meal.builder()
+                .name("Query count bowl")
+                .category(MealType.LUNCH)
+                .goal(Goal.MAINTAIN)
+                .calories(420.0)
+                .isActive(true)
+                .build());
+        // Meal; sync sequence advance and read; summary row lock; log upsert; summary totals;
+        // streak row insert-if-absent and lock; calendar bits
+        assertWarmRequestRuns(post("/meal-logs")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"mealId\":" + meal.getId() + ",\"mealType\":\"LUNCH\",\"quantity\":1,\"date\":\""
+                        + DATE + "\"}"), 9);
+    }
+
+    // Send the request twice and count the second one's statements, the principal cache being warm by then
+    private void assertWarmRequestRuns(MockHttpServletRequestBuilder request, long expected) throws Exception {
+        request.header("Authorization", "Bearer " + token);
+        mockMvc.perform(request).andExpect(status().isOk());
+        statements.clear();
+        mockMvc.perform(request).andExpect(status().isOk());
+        assertThat(statements.count(ANY)).isEqualTo(expected);
+    }
+}
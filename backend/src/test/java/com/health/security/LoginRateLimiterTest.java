@@ -0,0 +1,203 @@
+package com.health.security;
+
+import com.health.exception.TooManyRequestsException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Drives the limiter from a hand-moved clock, so refills, refunds and penalties are checked at exact instants.
+ */
+class LoginRateLimiterTest {
+    private static final String IP = "203.0.113.7";
+    private static final Duration IDLE = Duration.ofMinutes(30);
+
+    private final AtomicLong now = new AtomicLong(1_000_000_000L);
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    private LoginRateLimiter limiter(int pairCapacity, int pairRefill, int ipCapacity, int ipRefill) {
+        return new LoginRateLimiter(pairCapacity, pairRefill, ipCapacity, ipRefill, 3, Duration.ofSeconds(1),
+                Duration.ofSeconds(4), IDLE, 1_000, registry, now::get);
+    }
+
+    private void advance(Duration duration) {
+        now.addAndGet(duration.toNanos());
+    }
+
+    private static void assertThrottled(Runnable attempt, long retryAfterSeconds) {
+        assertThatThrownBy(attempt::run)
+                .isInstanceOfSatisfying(TooManyRequestsException.class,
+                        e -> assertThat(e.getRetryAfterSeconds()).isEqualTo(retryAfterSeconds));
+    }
+
+    private double count(String name, String scope) {
+        return registry.get(name).tag("scope", scope).counter().count();
+    }
+
+    @Test
+    void emptyBucketRefillsAtTheConfiguredRate() {
+        var limiter = limiter(2, 2, 100, 6_000);
+        limiter.acquire("a@x.com", IP);
+        limiter.acquire("a@x.com", IP);
+
+        // Two tokens a minute: the next one is 30s away
+        assertThrottled(() -> limiter.acquire("a@x.com", IP), 30);
+        advance(Duration.ofSeconds(15));
+        assertThrottled(() -> limiter.acquire("a@x.com", IP), 15);
+        advance(Duration.ofSeconds(30));
+        limiter.acquire("a@x.com", IP);
+        // Half a token left over
+        assertThrottled(() -> limiter.acquire("a@x.com", IP), 15);
+    }
+
+    @Test
+    void idleBucketNeverHoldsMoreThanItsCapacity() {
+        var limiter = limiter(3, 60, 100, 6_000);
+        limiter.acquire("a@x.com", IP);
+        advance(Duration.ofMinutes(20));
+
+        for (int i = 0; i < 3; i++) {
+            limiter.acquire("a@x.com", IP);
+        }
+        assertThrottled(() -> limiter.acquire("a@x.com", IP), 1);
+    }
+
+    @Test
+    void pairTokenIsRefundedWhenTheIpRejects() {
+        // The IP refills once a second, the pair once a minute
+        var limiter = limiter(1, 1, 1, 60);
+        limiter.acquire("a@x.com", IP);
+
+        assertThrottled(() -> limiter.acquire("b@x.com", IP), 1);
+        advance(Duration.ofSeconds(1));
+
+        // Without the refund b's pair bucket would still be 59s away from its next token
+        limiter.acquire("b@x.com", IP);
+        assertThat(count("auth.throttle.allowed", "email_ip")).isEqualTo(2);
+        assertThat(count("auth.throttle.allowed", "ip")).isEqualTo(2);
+        assertThat(count("auth.throttle.rejected", "ip")).isEqualTo(1);
+        assertThat(count("auth.throttle.rejected", "email_ip")).isZero();
+    }
+
+    @Test
+    void pairRejectionLeavesTheIpBucketUntouched() {
+        var limiter = limiter(1, 1, 2, 1);
+        limiter.acquire("a@x.com", IP);
+        assertThrottled(() -> limiter.acquire("a@x.com", IP), 60);
+
+        // The IP still holds its second token
+        limiter.acquire("b@x.com", IP);
+        assertThrottled(() -> limiter.acquire("c@x.com", IP), 60);
+    }
+
+    @Test
+    void penaltyDoublesPastTheFreeFailuresUpToTheMaximum() {
+        var limiter = limiter(100, 6_000, 100, 6_000);
+        for (int i = 0; i < 3; i++) {
+            limiter.recordFailure("a@x.com", IP);
+        }
+        limiter.acquire("a@x.com", IP);
+
+        long[] expected = {1, 2, 4, 4};
+        for (var retryAfter : expected) {
+            limiter.recordFailure("a@x.com", IP);
+            assertThrottled(() -> limiter.acquire("a@x.com", IP), retryAfter);
+            // The IP carries the penalty too, whatever email is tried next
+            assertThrottled(() -> limiter.acquire("other@x.com", IP), retryAfter);
+        }
+        assertThat(count("auth.throttle.penalties", "email_ip")).isEqualTo(4);
+        assertThat(count("auth.throttle.penalties", "ip")).isEqualTo(4);
+
+        advance(Duration.ofSeconds(4));
+        limiter.acquire("a@x.com", IP);
+    }
+
+    @Test
+    void failureCountStartsOverAfterTheDecayWindow() {
+        var limiter = limiter(100, 6_000, 100, 6_000);
+        for (int i = 0; i < 5; i++) {
+            limiter.recordFailure("a@x.com", IP);
+        }
+        advance(IDLE.plusSeconds(1));
+
+        // Counted as the first failure again, so no penalty
+        limiter.recordFailure("a@x.com", IP);
+        limiter.acquire("a@x.com", IP);
+        assertThat(count("auth.throttle.penalties", "ip")).isEqualTo(2);
+    }
+
+    @Test
+    void successClearsThePairAndForgivesOneIpFailure() {
+        var limiter = limiter(100, 6_000, 100, 6_000);
+        for (int i = 0; i < 4; i++) {
+            limiter.recordFailure("a@x.com", IP);
+        }
+        limiter.recordSuccess("a@x.com", IP);
+
+        // The IP penalty keeps running; the success only took one failure off its count
+        assertThrottled(() -> limiter.acquire("a@x.com", IP), 1);
+        advance(Duration.ofSeconds(1));
+        limiter.acquire("a@x.com", IP);
+
+        // IP back at four failures (penalized again), the pair at one (not)
+        limiter.recordFailure("a@x.com", IP);
+        assertThrottled(() -> limiter.acquire("a@x.com", IP), 1);
+        assertThat(count("auth.throttle.penalties", "ip")).isEqualTo(2);
+        assertThat(count("auth.throttle.penalties", "email_ip")).isEqualTo(1);
+    }
+
+    @Test
+    void concurrentTakesNeverOverdrawTheBucket() throws Exception {
+        var limit = new LoginRateLimiter.Limit(1_000, 1);
+        var bucket = new LoginRateLimiter.Bucket(limit.capacity(), 0);
+        var threads = 8;
+        var start = new CountDownLatch(1);
+        var pool = Executors.newFixedThreadPool(threads);
+        try {
+            var results = new ArrayList<Future<Integer>>();
+            for (int t = 0; t < threads; t++) {
+                results.add(pool.submit(() -> {
+                    start.await();
+                    var taken = 0;
+                    for (int i = 0; i < 500; i++) {
+                        if (bucket.tryAcquire(0, limit) == 0) {
+                            taken++;
+                        }
+                    }
+                    return taken;
+                }));
+            }
+            start.countDown();
+            var taken = 0;
+            for (var result : results) {
+                taken += result.get(30, TimeUnit.SECONDS);
+            }
+
+            assertThat(taken).isEqualTo(1_000);
+            assertThat(bucket.rejectedCount()).isEqualTo(threads * 500L - 1_000);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void refundNeverExceedsTheCapacity() {
+        var limit = new LoginRateLimiter.Limit(2, 1);
+        var bucket = new LoginRateLimiter.Bucket(limit.capacity(), 0);
+        bucket.refund(limit);
+
+        assertThat(bucket.tryAcquire(0, limit)).isZero();
+        assertThat(bucket.tryAcquire(0, limit)).isZero();
+        assertThat(bucket.tryAcquire(0, limit)).isEqualTo(TimeUnit.MINUTES.toNanos(1));
+    }
+}
@@ -0,0 +1,199 @@
+package com.health.security;
+
+import com.health.repository.RefreshTokenRepository;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * A revoked session must read as revoked from the moment revoke() returns, whatever rebuild() and poll() do
+ * around it; the repository is mocked, with a fake table where revocation timestamps matter.
+ */
+class SessionRevocationListTest {
+    private static final Duration POLL_MARGIN = Duration.ofMinutes(1);
+    private static final long ACCESS_TTL_MILLIS = 900_000;
+
+    private final RefreshTokenRepository repository = mock(RefreshTokenRepository.class);
+    private final SessionRevocationList list =
+            new SessionRevocationList(repository, 1_000, 0.01, POLL_MARGIN, ACCESS_TTL_MILLIS);
+
+    @Test
+    void rebuildLoadsTheRevokedFamilies() {
+        when(repository.findRevokedFamilyIds(any())).thenReturn(List.of("s1", "s2"));
+
+        list.rebuild();
+
+        assertThat(list.isRevoked("s1")).isTrue();
+        assertThat(list.isRevoked("s2")).isTrue();
+        assertThat(list.isRevoked("s3")).isFalse();
+    }
+
+    @Test
+    void rebuildLooksBackOneAccessTokenLifetime() {
+        when(repository.findRevokedFamilyIds(any())).thenReturn(List.of());
+        var before = LocalDateTime.now();
+
+        list.rebuild();
+
+        var since = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(repository).findRevokedFamilyIds(since.capture());
+        assertThat(since.getValue()).isBetween(before.minus(Duration.ofMillis(ACCESS_TTL_MILLIS)),
+                LocalDateTime.now().minus(Duration.ofMillis(ACCESS_TTL_MILLIS)));
+    }
+
+    @Test
+    void revocationDuringTheRebuildQueryIsReplayedOntoTheNewSnapshot() {
+        // The query reads the table before this revocation commits, so only the replay can carry it over
+        when(repository.findRevokedFamilyIds(any())).thenAnswer(invocation -> {
+            list.revoke("late");
+            return List.of("s1");
+        });
+
+        list.rebuild();
+
+        assertThat(list.isRevoked("late")).isTrue();
+        assertThat(list.isRevoked("s1")).isTrue();
+    }
+
+    @Test
+    void localRevocationSurvivesARebuildThatReturnsIt() {
+        list.revoke("s1");
+        assertThat(list.isRevoked("s1")).isTrue();
+        when(repository.findRevokedFamilyIds(any())).thenReturn(List.of("s1"));
+
+        list.rebuild();
+
+        assertThat(list.isRevoked("s1")).isTrue();
+    }
+
+    @Test
+    void pollWaitsForTheFirstRebuild() {
+        list.poll();
+
+        verify(repository, times(0)).findRevokedFamilyIds(any());
+    }
+
+    @Test
+    void pollAddsRevocationsFromOtherNodes() {
+        when(repository.findRevokedFamilyIds(any())).thenReturn(List.of());
+        list.rebuild();
+        when(repository.findRevokedFamilyIds(any())).thenReturn(List.of("remote"));
+
+        list.poll();
+
+        assertThat(list.isRevoked("remote")).isTrue();
+    }
+
+    @Test
+    void failedPollIsCoveredByTheNextOne() {
+        when(repository.findRevokedFamilyIds(any())).thenReturn(List.of());
+        list.rebuild();
+        when(repository.findRevokedFamilyIds(any()))
+                .thenThrow(new IllegalStateException("connection reset"))
+                .thenReturn(List.of("remote"));
+
+        list.poll();
+        list.poll();
+
+        // Both polls look back from the rebuild, minus the margin for in-flight transactions
+        var since = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(repository, times(3)).findRevokedFamilyIds(since.capture());
+        var rebuildSince = since.getAllValues().get(0).plus(Duration.ofMillis(ACCESS_TTL_MILLIS));
+        assertThat(since.getAllValues().subList(1, 3)).containsOnly(rebuildSince.minus(POLL_MARGIN));
+        assertThat(list.isRevoked("remote")).isTrue();
+    }
+
+    @Test
+    void revokedSessionsStayRevokedUnderConcurrentRebuildsAndPolls() throws Exception {
+        // Fake refresh_tokens: family id -> revoked at. Callers commit there before calling revoke(), as
+        // RefreshTokenService does; the query copies the table and yields, so it misses concurrent commits.
+        Map<String, LocalDateTime> table = new ConcurrentHashMap<>();
+        when(repository.findRevokedFamilyIds(any())).thenAnswer(invocation -> {
+            LocalDateTime since = invocation.getArgument(0);
+            var result = table.entrySet().stream()
+                    .filter(e -> !e.getValue().isBefore(since))
+                    .map(Map.Entry::getKey)
+                    .toList();
+            Thread.yield();
+            return result;
+        });
+        list.rebuild();
+
+        var writers = 4;
+        var perWriter = 2_000;
+        var stop = new AtomicBoolean();
+        var start = new CountDownLatch(1);
+        var pool = Executors.newFixedThreadPool(writers + 2);
+        var missed = ConcurrentHashMap.<String>newKeySet();
+        try {
+            var background = new ArrayList<Future<?>>();
+            background.add(pool.submit(() -> {
+                start.await();
+                while (!stop.get()) {
+                    list.rebuild();
+                }
+                return null;
+            }));
+            background.add(pool.submit(() -> {
+                start.await();
+                while (!stop.get()) {
+                    list.poll();
+                }
+                return null;
+            }));
+            var done = new ArrayList<Future<?>>();
+            for (int w = 0; w < writers; w++) {
+                var writer = w;
+                done.add(pool.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < perWriter; i++) {
+                        var sessionId = writer + "-" + i;
+                        table.put(sessionId, LocalDateTime.now());
+                        list.revoke(sessionId);
+                        if (!list.isRevoked(sessionId)) {
+                            missed.add(sessionId);
+                        }
+                        // An earlier revocation must survive every snapshot swap since
+                        var earlier = writer + "-" + (i / 2);
+                        if (!list.isRevoked(earlier)) {
+                            missed.add(earlier);
+                        }
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (var future : done) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+            stop.set(true);
+            for (var future : background) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            stop.set(true);
+            pool.shutdownNow();
+        }
+
+        assertThat(missed).isEmpty();
+        assertThat(table.keySet()).allMatch(list::isRevoked);
+    }
+}
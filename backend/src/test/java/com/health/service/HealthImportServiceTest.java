@@ -0,0 +1,104 @@
+package com.health.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.health.dto.HealthImportJobDTO;
+import com.health.repository.UserProfileRepo;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * CSV parsing of an import, with the writes stubbed out: rejected rows must name the line their record
+ * starts on, also after multi-line quoted notes and blank lines.
+ */
+class HealthImportServiceTest {
+    private static final long USER_ID = 1L;
+
+    private HealthImportService importService;
+
+    @BeforeEach
+    void setUp() {
+        var userProfileRepo = mock(UserProfileRepo.class);
+        when(userProfileRepo.findHeightCmByUserId(any())).thenReturn(Optional.empty());
+        importService = new HealthImportService(userProfileRepo,
+                mock(DailySummaryService.class),
+                mock(SyncService.class),
+                mock(LeaderboardService.class),
+                mock(StreakService.class),
+                mock(ActivityCalendarService.class),
+                mock(NamedParameterJdbcTemplate.class),
+                mock(TransactionTemplate.class),
+                new ObjectMapper(),
+                500, 1, 4, Duration.ofMinutes(5));
+    }
+
+    @AfterEach
+    void tearDown() {
+        importService.shutdown();
+    }
+
+    @Test
+    void rejectedRowsNameTheLineTheirRecordStartsOn() throws Exception {
+        var csv = String.join("\n",
+                "\uFEFFDate,Weight,Steps,Note",          // 1: header behind a byte order mark
+                "2026-01-01,70.5,1000,plain",            // 2
+                "2026-01-02,71,2000,\"two",              // 3: note spans lines 3-4
+                "lines\"",                               // 4
+                "not-a-date,71,2000,x",                  // 5
+                "",                                      // 6: blank
+                "2026-01-04,abc,1,\"quoted \"\"note\"\"", // 7: note spans lines 7-9
+                "",                                      // 8
+                "end\"",                                 // 9
+                "2026-01-05,0,1,zero weight",            // 10
+                "2026-01-06,72,3000,\"fine,",            // 11: note spans lines 11-12
+                "still fine\"",                          // 12
+                "2026-01-07,,1,missing weight");         // 13
+
+        var job = awaitCompletion(importService.submit(USER_ID,
+                new MockMultipartFile("file", "records.csv", "text/csv", csv.getBytes(StandardCharsets.UTF_8))));
+
+        assertThat(job.getStatus()).isEqualTo(HealthImportJobDTO.Status.COMPLETED);
+        assertThat(job.getRowsRead()).isEqualTo(7);
+        assertThat(job.getRowsImported()).isEqualTo(3);
+        assertThat(job.getRowsRejected()).isEqualTo(4);
+        assertThat(job.getErrors()).satisfiesExactly(
+                error -> assertThat(error).startsWith("line 5: "),
+                error -> assertThat(error).startsWith("line 7: "),
+                error -> assertThat(error).isEqualTo("line 10: date and a positive weight are required"),
+                error -> assertThat(error).isEqualTo("line 13: date and a positive weight are required"));
+    }
+
+    @Test
+    void headerWithoutRequiredColumnsFailsTheJob() throws Exception {
+        var job = awaitCompletion(importService.submit(USER_ID,
+                new MockMultipartFile("file", "records.csv", "text/csv", "day,kg\n2026-01-01,70\n".getBytes())));
+
+        assertThat(job.getStatus()).isEqualTo(HealthImportJobDTO.Status.FAILED);
+        assertThat(job.getErrors()).singleElement().asString().contains("date and weight");
+    }
+
+    private HealthImportJobDTO awaitCompletion(HealthImportJobDTO submitted) throws InterruptedException {
+        var deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while (System.nanoTime() < deadline) {
+            var job = importService.getJob(USER_ID, submitted.getId());
+            if (job.getStatus() == HealthImportJobDTO.Status.COMPLETED
+                    || job.getStatus() == HealthImportJobDTO.Status.FAILED) {
+                return job;
+            }
+            Thread.sleep(10);
+        }
+        throw new AssertionError("Import " + submitted.getId() + " did not finish");
+    }
+}
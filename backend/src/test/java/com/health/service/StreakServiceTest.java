@@ -0,0 +1,225 @@
+package com.health.service;
+
+import com.health.entity.StreakKind;
+import com.health.entity.UserStreak;
+import com.health.repository.DailyUserSummaryRepository;
+import com.health.repository.UserStreakRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeSet;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Drives the streak of one kind against an in-memory summary of logged dates. As in production, a day is
+ * added to the summary before {@link StreakService#onLogged} and removed before
+ * {@link StreakService#onDayCleared}.
+ */
+class StreakServiceTest {
+    private static final long USER_ID = 1L;
+    private static final StreakKind KIND = StreakKind.MEAL;
+    private static final LocalDate D = LocalDate.of(2026, 3, 1);
+
+    private final TreeSet<LocalDate> logged = new TreeSet<>();
+    private final Map<StreakKind, UserStreak> rows = new EnumMap<>(StreakKind.class);
+    private StreakService streakService;
+
+    @BeforeEach
+    void setUp() {
+        var summaryRepository = mock(DailyUserSummaryRepository.class);
+        when(summaryRepository.findLoggedDates(anyLong(), anyInt(), any(), any())).thenAnswer(call -> {
+            int flag = call.getArgument(1);
+            LocalDate from = call.getArgument(2);
+            LocalDate to = call.getArgument(3);
+            return flag == KIND.flag() && !from.isAfter(to)
+                    ? new ArrayList<>(logged.subSet(from, true, to, true))
+                    : new ArrayList<LocalDate>();
+        });
+        when(summaryRepository.findLastLoggedDateBefore(anyLong(), anyInt(), any())).thenAnswer(call -> {
+            int flag = call.getArgument(1);
+            LocalDate before = call.getArgument(2);
+            return flag == KIND.flag() ? Optional.ofNullable(logged.lower(before)) : Optional.empty();
+        });
+
+        var streakRepository = mock(UserStreakRepository.class);
+        when(streakRepository.insertIfAbsent(anyLong(), anyString())).thenAnswer(call -> {
+            var kind = StreakKind.valueOf(call.getArgument(1));
+            rows.computeIfAbsent(kind, k -> UserStreak.builder().userId(USER_ID).kind(k).build());
+            return 1;
+        });
+        when(streakRepository.findForUpdate(anyLong(), any())).thenAnswer(call ->
+                Optional.ofNullable(rows.get(call.<StreakKind>getArgument(1))));
+
+        streakService = new StreakService(streakRepository, summaryRepository);
+    }
+
+    @Test
+    void consecutiveDaysExtendTheRunAndAGapStartsANewOne() {
+        log(D);
+        assertStreak(1, 1, D, D);
+        log(D.plusDays(1));
+        log(D.plusDays(2));
+        assertStreak(3, 3, D, D.plusDays(2));
+
+        log(D.plusDays(5));
+        assertStreak(1, 3, D.plusDays(5), D.plusDays(5));
+        log(D.plusDays(6));
+        assertStreak(2, 3, D.plusDays(5), D.plusDays(6));
+    }
+
+    @Test
+    void aDayInsideTheRunChangesNothing() {
+        for (int i = 0; i < 5; i++) {
+            log(D.plusDays(i));
+        }
+        log(D.plusDays(2));
+        log(D);
+        assertStreak(5, 5, D, D.plusDays(4));
+    }
+
+    @Test
+    void backfillBeforeTheStartJoinsTheRunOnlyWhenAdjacent() {
+        for (int i = 10; i <= 12; i++) {
+            log(D.plusDays(i));
+        }
+        log(D.plusDays(9));
+        assertStreak(4, 4, D.plusDays(9), D.plusDays(12));
+
+        // Detached backfill: an older run of its own, the current run is kept
+        log(D.plusDays(5));
+        assertStreak(4, 4, D.plusDays(9), D.plusDays(12));
+        log(D.plusDays(6));
+        log(D.plusDays(7));
+        assertStreak(4, 4, D.plusDays(9), D.plusDays(12));
+
+        // Filling the last gap merges both runs
+        log(D.plusDays(8));
+        assertStreak(8, 8, D.plusDays(5), D.plusDays(12));
+    }
+
+    @Test
+    void backfillWidensTheWindowUntilTheRunsEnd() {
+        // Two runs of 70 and 79 days around a one-day gap, both longer than the initial scan window
+        for (int i = 0; i < 150; i++) {
+            if (i != 70) {
+                log(D.plusDays(i));
+            }
+        }
+        assertStreak(79, 79, D.plusDays(71), D.plusDays(149));
+
+        log(D.plusDays(70));
+        assertStreak(150, 150, D, D.plusDays(149));
+    }
+
+    @Test
+    void bulkRangeRecomputesAcrossExistingRuns() {
+        for (int i = 0; i < 100; i++) {
+            logged.add(D.plusDays(i));
+        }
+        for (int i = 101; i < 110; i++) {
+            logged.add(D.plusDays(i));
+        }
+        // First write: the row is seeded from the whole summary
+        log(D.plusDays(110));
+        assertStreak(10, 100, D.plusDays(101), D.plusDays(110));
+
+        logged.add(D.plusDays(100));
+        streakService.onLogged(USER_ID, KIND, D.plusDays(95), D.plusDays(105));
+        assertStreak(111, 111, D, D.plusDays(110));
+    }
+
+    @Test
+    void aLaterDayAfterTheRunEndsItAndIsTheNewCurrentRun() {
+        log(D);
+        log(D.plusDays(1));
+        // Several days later in one bulk call, the newest day reached by the window becomes the current run
+        logged.add(D.plusDays(10));
+        logged.add(D.plusDays(11));
+        streakService.onLogged(USER_ID, KIND, D.plusDays(10), D.plusDays(11));
+        assertStreak(2, 2, D.plusDays(10), D.plusDays(11));
+    }
+
+    @Test
+    void clearingTheLastDayFallsBackToThePreviousRun() {
+        for (int i = 0; i < 5; i++) {
+            log(D.plusDays(i));
+        }
+        clear(D.plusDays(4));
+        // The longest streak keeps the best run reached
+        assertStreak(4, 5, D, D.plusDays(3));
+
+        clear(D.plusDays(1));
+        assertStreak(2, 5, D.plusDays(2), D.plusDays(3));
+
+        clear(D.plusDays(3));
+        assertStreak(1, 5, D.plusDays(2), D.plusDays(2));
+
+        // The run before is a single day, one day apart
+        clear(D.plusDays(2));
+        assertStreak(1, 5, D, D);
+
+        clear(D);
+        assertStreak(0, 5, null, null);
+    }
+
+    @Test
+    void clearingADayOutsideTheRunOrStillLoggedChangesNothing() {
+        log(D);
+        for (int i = 3; i < 6; i++) {
+            log(D.plusDays(i));
+        }
+        // Before the current run
+        clear(D);
+        assertStreak(3, 3, D.plusDays(3), D.plusDays(5));
+        // Never logged, after the run
+        clear(D.plusDays(9));
+        assertStreak(3, 3, D.plusDays(3), D.plusDays(5));
+        // Still logged (another log of the kind remains that day)
+        streakService.onDayCleared(USER_ID, KIND, D.plusDays(4));
+        assertStreak(3, 3, D.plusDays(3), D.plusDays(5));
+    }
+
+    @Test
+    void reseedRebuildsFromTheSummaryAndMayLowerTheLongest() {
+        for (int i = 0; i < 6; i++) {
+            log(D.plusDays(i));
+        }
+        logged.remove(D.plusDays(2));
+
+        streakService.reseed(USER_ID);
+
+        assertStreak(3, 3, D.plusDays(3), D.plusDays(5));
+        assertThat(rows.get(StreakKind.HEALTH).getCurrentStreak()).isZero();
+        assertThat(rows.get(StreakKind.HEALTH).getUpdatedAt()).isNotNull();
+    }
+
+    private void log(LocalDate date) {
+        logged.add(date);
+        streakService.onLogged(USER_ID, KIND, date, date);
+    }
+
+    private void clear(LocalDate date) {
+        logged.remove(date);
+        streakService.onDayCleared(USER_ID, KIND, date);
+    }
+
+    private void assertStreak(int current, int longest, LocalDate start, LocalDate last) {
+        var streak = rows.get(KIND);
+        assertThat(streak.getCurrentStreak()).as("current").isEqualTo(current);
+        assertThat(streak.getLongestStreak()).as("longest").isEqualTo(longest);
+        assertThat(streak.getStreakStartDate()).as("start").isEqualTo(start);
+        assertThat(streak.getLastLoggedDate()).as("last").isEqualTo(last);
+    }
+}
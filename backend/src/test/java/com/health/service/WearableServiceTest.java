@@ -0,0 +1,138 @@
+package com.health.service;
+
+import com.health.entity.WearableMetric;
+import com.health.entity.WearableSampleChunk;
+import com.health.exception.ValidationException;
+import com.health.repository.WearableSampleChunkRepository;
+import com.health.util.GorillaCodec;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class WearableServiceTest {
+    private static final long USER_ID = 1L;
+    private static final long DAY_START = LocalDate.of(2026, 3, 1).toEpochDay() * 86_400;
+    private static final int MAX_SAMPLES = 100_000;
+
+    private WearableSampleChunkRepository chunkRepository;
+    private WearableService wearableService;
+
+    @BeforeEach
+    void setUp() {
+        chunkRepository = mock(WearableSampleChunkRepository.class);
+        wearableService = new WearableService(chunkRepository, mock(JdbcTemplate.class), 1024, MAX_SAMPLES);
+    }
+
+    @Test
+    void laterChunksWinForTheSameSecond() {
+        // Written first: seconds 0..4; written later: 2..3 again and 5, out of order relative to the first
+        var first = chunk(new long[]{0, 1, 2, 3, 4}, new double[]{60, 61, 62, 63, 64});
+        var second = chunk(new long[]{2, 3, 5}, new double[]{92, 93, 95});
+        returning(first, second);
+
+        var series = wearableService.query(USER_ID, WearableMetric.HEART_RATE, DAY_START, DAY_START + 10, null);
+
+        assertThat(series.getTimestamps()).containsExactly(
+                DAY_START, DAY_START + 1, DAY_START + 2, DAY_START + 3, DAY_START + 4, DAY_START + 5);
+        assertThat(series.getValues()).containsExactly(60, 61, 92, 93, 64, 95);
+    }
+
+    @Test
+    void repeatedSecondWithinOneChunkKeepsTheLastSample() {
+        returning(chunk(new long[]{0, 1, 1, 1, 2}, new double[]{1, 2, 3, 4, 5}));
+
+        var series = wearableService.query(USER_ID, WearableMetric.STEPS, DAY_START, DAY_START + 10, null);
+
+        assertThat(series.getTimestamps()).containsExactly(DAY_START, DAY_START + 1, DAY_START + 2);
+        assertThat(series.getValues()).containsExactly(1, 4, 5);
+    }
+
+    @Test
+    void samplesOutsideTheRangeAreDropped() {
+        returning(chunk(new long[]{0, 5, 10, 15}, new double[]{1, 2, 3, 4}));
+
+        var series = wearableService.query(USER_ID, WearableMetric.STEPS, DAY_START + 5, DAY_START + 10, null);
+
+        assertThat(series.getTimestamps()).containsExactly(DAY_START + 5, DAY_START + 10);
+        assertThat(series.getValues()).containsExactly(2, 3);
+    }
+
+    @Test
+    void rangeHoldingMoreThanTheCapIsRejectedBeforeDecoding() {
+        // Sample counts alone exceed the cap; the payloads are never read
+        var big = WearableSampleChunk.builder().sampleCount(MAX_SAMPLES).data(new byte[0]).build();
+        var one = WearableSampleChunk.builder().sampleCount(1).data(new byte[0]).build();
+        returning(big, one);
+
+        assertThatThrownBy(() -> wearableService.query(USER_ID, WearableMetric.STEPS, DAY_START, DAY_START + 86_399, null))
+                .isInstanceOf(ValidationException.class)
+                .hasMessageContaining(String.valueOf(MAX_SAMPLES + 1));
+    }
+
+    @Test
+    void rangeAtTheCapIsServed() {
+        var timestamps = new long[MAX_SAMPLES];
+        var values = new double[MAX_SAMPLES];
+        for (int i = 0; i < MAX_SAMPLES; i++) {
+            timestamps[i] = i % 86_400;
+            values[i] = i;
+        }
+        // Two sorted chunks covering one day, the second overwriting part of the first
+        returning(chunk(slice(timestamps, 0, 86_400), slice(values, 0, 86_400)),
+                chunk(slice(timestamps, 86_400, MAX_SAMPLES), slice(values, 86_400, MAX_SAMPLES)));
+
+        var series = wearableService.query(USER_ID, WearableMetric.STEPS, DAY_START, DAY_START + 86_399, 500);
+
+        assertThat(series.getTimestamps()).hasSize(500);
+        assertThat(series.getTimestamps()[0]).isEqualTo(DAY_START);
+        assertThat(series.getValues()[0]).isEqualTo(86_400);
+    }
+
+    @Test
+    void maxPointsOutsideItsBoundsIsRejected() {
+        assertThatThrownBy(() -> wearableService.query(USER_ID, WearableMetric.STEPS, DAY_START, DAY_START + 1, 2))
+                .isInstanceOf(ValidationException.class);
+        assertThatThrownBy(() -> wearableService.query(USER_ID, WearableMetric.STEPS, DAY_START, DAY_START + 1,
+                MAX_SAMPLES + 1))
+                .isInstanceOf(ValidationException.class);
+    }
+
+    private void returning(WearableSampleChunk... chunks) {
+        when(chunkRepository.findOverlapping(eq(USER_ID), any(), any(), any(), anyLong(), anyLong()))
+                .thenReturn(List.of(chunks));
+    }
+
+    // Offsets are seconds from DAY_START
+    private static WearableSampleChunk chunk(long[] offsets, double[] values) {
+        var timestamps = new long[offsets.length];
+        for (int i = 0; i < offsets.length; i++) {
+            timestamps[i] = DAY_START + offsets[i];
+        }
+        return WearableSampleChunk.builder()
+                .startTs(timestamps[0])
+                .endTs(timestamps[timestamps.length - 1])
+                .sampleCount(timestamps.length)
+                .data(GorillaCodec.encode(timestamps, values, 0, timestamps.length))
+                .build();
+    }
+
+    private static long[] slice(long[] array, int from, int to) {
+        return Arrays.copyOfRange(array, from, to);
+    }
+
+    private static double[] slice(double[] array, int from, int to) {
+        return Arrays.copyOfRange(array, from, to);
+    }
+}
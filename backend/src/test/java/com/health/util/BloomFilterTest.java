@@ -0,0 +1,92 @@
+package com.health.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BloomFilterTest {
+
+    @Test
+    void addedValuesAreAlwaysReported() {
+        var filter = new BloomFilter(10_000, 0.01);
+        var values = new ArrayList<String>();
+        for (int i = 0; i < 10_000; i++) {
+            var value = UUID.randomUUID().toString();
+            values.add(value);
+            filter.put(value);
+        }
+
+        assertThat(values).allMatch(filter::mightContain);
+    }
+
+    @Test
+    void overfilledFilterStillHasNoFalseNegatives() {
+        var filter = new BloomFilter(100, 0.01);
+        for (int i = 0; i < 5_000; i++) {
+            filter.put("session-" + i);
+        }
+
+        for (int i = 0; i < 5_000; i++) {
+            assertThat(filter.mightContain("session-" + i)).as("session-%d", i).isTrue();
+        }
+    }
+
+    @Test
+    void falsePositiveRateStaysNearTheTarget() {
+        var filter = new BloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.put("in-" + i);
+        }
+
+        var falsePositives = 0;
+        var probes = 100_000;
+        for (int i = 0; i < probes; i++) {
+            if (filter.mightContain("out-" + i)) {
+                falsePositives++;
+            }
+        }
+        assertThat(falsePositives / (double) probes).isLessThan(0.02);
+    }
+
+    @Test
+    void concurrentPutsLoseNoBits() throws Exception {
+        // Every put sets seven bits in ~2,400 words, so the threads keep contending for the same words
+        var threads = 8;
+        var perThread = 2_000;
+        var filter = new BloomFilter(threads * perThread, 0.01);
+        var start = new CountDownLatch(1);
+        var pool = Executors.newFixedThreadPool(threads);
+        try {
+            var done = new ArrayList<Future<?>>();
+            for (int t = 0; t < threads; t++) {
+                var thread = t;
+                done.add(pool.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < perThread; i++) {
+                        filter.put(thread + ":" + i);
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (var future : done) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        for (int t = 0; t < threads; t++) {
+            for (int i = 0; i < perThread; i++) {
+                assertThat(filter.mightContain(t + ":" + i)).as("%d:%d", t, i).isTrue();
+            }
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.health.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CsvReaderTest {
+
+    @Test
+    void readsPlainAndQuotedFields() throws IOException {
+        assertThat(readAll("a,b,c\n1,\"two, with comma\",3\n")).containsExactly(
+                List.of("a", "b", "c"),
+                List.of("1", "two, with comma", "3"));
+    }
+
+    @Test
+    void unescapesDoubledQuotes() throws IOException {
+        assertThat(readAll("\"say \"\"hi\"\"\",\"\"\"\",\"\"\n")).containsExactly(
+                List.of("say \"hi\"", "\"", ""));
+    }
+
+    @Test
+    void keepsLineBreaksInsideQuotes() throws IOException {
+        assertThat(readAll("note,x\n\"first\nsecond\r\nthird\",1\n")).containsExactly(
+                List.of("note", "x"),
+                List.of("first\nsecond\r\nthird", "1"));
+    }
+
+    @Test
+    void acceptsCrlfAndAMissingFinalLineBreak() throws IOException {
+        assertThat(readAll("a,b\r\n1,2\r\n3,4")).containsExactly(
+                List.of("a", "b"),
+                List.of("1", "2"),
+                List.of("3", "4"));
+    }
+
+    @Test
+    void keepsEmptyFieldsAndSkipsBlankLines() throws IOException {
+        assertThat(readAll("\n\r\n,,\n\na,\n")).containsExactly(
+                List.of("", "", ""),
+                List.of("a", ""));
+    }
+
+    @Test
+    void leavesAByteOrderMarkInTheFirstField() throws IOException {
+        // Header names are normalized by the caller
+        assertThat(readAll("\uFEFFdate,weight\n")).containsExactly(List.of("\uFEFFdate", "weight"));
+    }
+
+    @Test
+    void reportsTheStartLineOfEachRecord() throws IOException {
+        var csv = new CsvReader(new StringReader("h1,h2\n\n\"multi\nline\",1\r\n\r\nnext,2\n\"a\n\nb\",3\nlast,4"));
+        List<Long> lines = new ArrayList<>();
+        while (csv.next() != null) {
+            lines.add(csv.getRecordLine());
+        }
+        assertThat(lines).containsExactly(1L, 3L, 6L, 7L, 10L);
+    }
+
+    @Test
+    void rejectsAnUnterminatedQuote() {
+        var csv = new CsvReader(new StringReader("a,b\n1,\"open\n2,3\n"));
+        assertThatThrownBy(() -> {
+            while (csv.next() != null) {
+                // drain
+            }
+        }).isInstanceOf(IOException.class).hasMessageContaining("line 2");
+    }
+
+    private static List<List<String>> readAll(String input) throws IOException {
+        List<List<String>> records = new ArrayList<>();
+        try (var csv = new CsvReader(new StringReader(input))) {
+            List<String> record;
+            while ((record = csv.next()) != null) {
+                records.add(record);
+            }
+        }
+        return records;
+    }
+}
@@ -0,0 +1,87 @@
+package com.health.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.Year;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DayBitsetTest {
+
+    @Test
+    void leapDayAndDay366FitTheLastByte() {
+        var bits = DayBitset.empty();
+        DayBitset.set(bits, LocalDate.of(2024, 2, 29));
+        DayBitset.set(bits, LocalDate.of(2024, 12, 31));
+
+        // Day 60 is bit 59 (byte 7, fourth bit); day 366 is bit 365 (byte 45, sixth bit)
+        assertThat(bits[7]).isEqualTo((byte) 0x10);
+        assertThat(bits[45]).isEqualTo((byte) 0x04);
+        assertThat(DayBitset.isSet(bits, 365)).isTrue();
+        assertThat(DayBitset.count(bits)).isEqualTo(2);
+
+        DayBitset.clear(bits, LocalDate.of(2024, 12, 31));
+        assertThat(bits[45]).isZero();
+        assertThat(DayBitset.count(bits)).isEqualTo(1);
+    }
+
+    @Test
+    void everyDayOfALeapYearMapsToItsOwnBit() {
+        var bits = DayBitset.empty();
+        for (var date = LocalDate.of(2028, 1, 1); date.getYear() == 2028; date = date.plusDays(1)) {
+            assertThat(DayBitset.isSet(bits, date.getDayOfYear() - 1)).isFalse();
+            DayBitset.set(bits, date);
+        }
+        assertThat(DayBitset.count(bits)).isEqualTo(366);
+        // The two padding bits after day 366 stay clear
+        assertThat(bits[45] & 0x03).isZero();
+    }
+
+    @Test
+    void clearOnlyTouchesItsDay() {
+        var bits = DayBitset.full();
+        DayBitset.clear(bits, LocalDate.of(2025, 1, 9));
+
+        assertThat(DayBitset.count(bits)).isEqualTo(DayBitset.BYTES * 8 - 1);
+        assertThat(bits[0]).isEqualTo((byte) 0xFF);
+        assertThat(bits[1]).isEqualTo((byte) 0x7F);
+    }
+
+    @Test
+    void runLengthsStartWithAnUnsetRun() {
+        var days = Year.of(2025).length();
+        var bits = DayBitset.empty();
+        assertThat(DayBitset.runLengths(bits, days)).containsExactly(365);
+
+        DayBitset.set(bits, LocalDate.of(2025, 1, 1));
+        assertThat(DayBitset.runLengths(bits, days)).containsExactly(0, 1, 364);
+    }
+
+    @Test
+    void runLengthsReachTheLastDayOfTheYear() {
+        var bits = DayBitset.empty();
+        DayBitset.set(bits, LocalDate.of(2025, 12, 30));
+        DayBitset.set(bits, LocalDate.of(2025, 12, 31));
+        assertThat(DayBitset.runLengths(bits, 365)).containsExactly(363, 2);
+
+        var leap = DayBitset.empty();
+        DayBitset.set(leap, LocalDate.of(2024, 12, 31));
+        assertThat(DayBitset.runLengths(leap, 366)).containsExactly(365, 1);
+        // A common year never reads bit 365, even when it is set
+        assertThat(DayBitset.runLengths(leap, 365)).containsExactly(365);
+    }
+
+    @Test
+    void runLengthsOfAFullYearAndAlternatingDays() {
+        assertThat(DayBitset.runLengths(DayBitset.full(), 366)).containsExactly(0, 366);
+
+        var bits = DayBitset.empty();
+        for (var date = LocalDate.of(2025, 1, 2); date.getYear() == 2025; date = date.plusDays(2)) {
+            DayBitset.set(bits, date);
+        }
+        var runs = DayBitset.runLengths(bits, 365);
+        assertThat(runs).hasSize(365);
+        assertThat(runs).containsOnly(1);
+    }
+}
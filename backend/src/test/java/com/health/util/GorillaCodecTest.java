@@ -0,0 +1,186 @@
+package com.health.util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Round trips through every timestamp bucket and value-encoding path, checking timestamps and raw value bits
+ * exactly; a few payload sizes pin the bucket widths.
+ */
+class GorillaCodecTest {
+    private static final long T0 = 1_700_000_000L;
+    private static final int HEADER_BITS = 128;
+    // First delta of the sized series: always falls in the 32-bit bucket (4 + 32 bits)
+    private static final long FIRST_DELTA = 1_000_000L;
+    private static final int FIRST_DELTA_BITS = 36;
+
+    private record Sample(long timestamp, long valueBits) {
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+            "0, 1",
+            "1, 9", "-1, 9",
+            "63, 9", "64, 12", "-64, 9", "-65, 12",
+            "255, 12", "256, 16", "-256, 12", "-257, 16",
+            "2047, 16", "2048, 36", "-2048, 16", "-2049, 36"
+    })
+    void deltaOfDeltaUsesTheNarrowestBucket(long deltaOfDelta, int timestampBits) {
+        var n = 100;
+        var timestamps = new long[n];
+        var values = new double[n];
+        timestamps[0] = T0;
+        var delta = FIRST_DELTA;
+        for (int i = 1; i < n; i++) {
+            timestamps[i] = timestamps[i - 1] + delta;
+            delta += deltaOfDelta;
+            values[i] = 0.0;
+        }
+
+        var encoded = roundTrip(timestamps, values);
+
+        // The first delta takes its own bucket; every later delta-of-delta is the constant; values cost one bit
+        var bits = HEADER_BITS + FIRST_DELTA_BITS + 1 + (long) (n - 2) * (timestampBits + 1);
+        assertThat(encoded).hasSize((int) ((bits + 7) / 8));
+    }
+
+    @Test
+    void largestDeltaOfDeltaRoundTrips() {
+        var max = (1L << 31) - 1;
+        roundTrip(new long[]{0, max, max, 2 * max, 2 * max + 1}, new double[5]);
+    }
+
+    @Test
+    void regularIntervalAndUnchangedValuesCostOneBitEach() {
+        var n = 1_000;
+        var timestamps = new long[n];
+        var values = new double[n];
+        for (int i = 0; i < n; i++) {
+            timestamps[i] = T0 + 60L * i;
+            values[i] = 72.5;
+        }
+
+        var encoded = roundTrip(timestamps, values);
+
+        // First sample: delta 60 in the 7-bit bucket; then one bit for the timestamp and one for the value
+        var bits = HEADER_BITS + 9 + 1 + (n - 2) * 2L;
+        assertThat(encoded).hasSize((int) ((bits + 7) / 8));
+    }
+
+    @Test
+    void leadingZerosAreCappedAt31() {
+        // XOR of 1: 63 leading zeros, stored as 31 with 33 meaningful bits
+        var a = Double.longBitsToDouble(0x3FF0_0000_0000_0000L);
+        var b = Double.longBitsToDouble(0x3FF0_0000_0000_0001L);
+        var c = Double.longBitsToDouble(0x3FF0_0000_0000_0003L);
+        roundTrip(new long[]{T0, T0 + 1, T0 + 2, T0 + 3}, new double[]{a, b, c, a});
+    }
+
+    @Test
+    void sixtyFourMeaningfulBitsRoundTrip() {
+        // XOR with the top and bottom bit set: no leading or trailing zeros, encoded as 0 in the 6-bit field
+        var a = 1.0;
+        var b = Double.longBitsToDouble(Double.doubleToRawLongBits(a) ^ 0x8000_0000_0000_0001L);
+        roundTrip(new long[]{T0, T0 + 1, T0 + 2, T0 + 3}, new double[]{a, b, a, b});
+    }
+
+    @Test
+    void specialValuesKeepTheirBits() {
+        var signallingNaN = Double.longBitsToDouble(0x7FF0_0000_0000_0001L);
+        var negativeNaN = Double.longBitsToDouble(0xFFF8_0000_0000_0000L);
+        var values = new double[]{
+                0.0, -0.0, 0.0, Double.NaN, signallingNaN, negativeNaN, Double.NaN,
+                -1.5, -1.5, -73.25, Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY,
+                Double.MIN_VALUE, -Double.MIN_VALUE, Double.MAX_VALUE, -Double.MAX_VALUE
+        };
+        var timestamps = new long[values.length];
+        for (int i = 0; i < values.length; i++) {
+            timestamps[i] = T0 + i;
+        }
+        roundTrip(timestamps, values);
+    }
+
+    @Test
+    void identicalConsecutiveValuesAfterChangesRoundTrip() {
+        // A changed value followed by repeats, then a value that fits the previous window, then one that does not
+        var values = new double[]{60.0, 61.0, 61.0, 61.0, 61.5, 61.5, 1e300, 1e300, 60.0};
+        var timestamps = new long[values.length];
+        for (int i = 0; i < values.length; i++) {
+            timestamps[i] = T0 + 5L * i;
+        }
+        roundTrip(timestamps, values);
+    }
+
+    @Test
+    void repeatedTimestampsRoundTrip() {
+        roundTrip(new long[]{T0, T0, T0, T0 + 1, T0 + 1, T0 + 100}, new double[]{1, 2, 3, 4, 5, 6});
+    }
+
+    @Test
+    void randomSeriesRoundTrip() {
+        var random = new Random(42);
+        for (int run = 0; run < 200; run++) {
+            var n = 1 + random.nextInt(500);
+            var timestamps = new long[n];
+            var values = new double[n];
+            timestamps[0] = T0 + random.nextInt(1_000_000);
+            values[0] = random.nextGaussian() * 100;
+            for (int i = 1; i < n; i++) {
+                // Mostly regular, sometimes jittered, occasionally a long gap
+                var gap = switch (random.nextInt(10)) {
+                    case 0 -> random.nextInt(100_000);
+                    case 1, 2 -> random.nextInt(10);
+                    default -> 1;
+                };
+                timestamps[i] = timestamps[i - 1] + gap;
+                values[i] = random.nextInt(3) == 0 ? values[i - 1] : values[i - 1] + random.nextGaussian();
+            }
+            roundTrip(timestamps, values);
+        }
+    }
+
+    @Test
+    void encodesOnlyTheRequestedRange() {
+        var timestamps = new long[]{T0, T0 + 1, T0 + 2, T0 + 3, T0 + 4};
+        var values = new double[]{1, 2, 3, 4, 5};
+
+        var decoded = decode(GorillaCodec.encode(timestamps, values, 1, 4), 3);
+
+        assertThat(decoded).containsExactly(
+                new Sample(T0 + 1, Double.doubleToRawLongBits(2)),
+                new Sample(T0 + 2, Double.doubleToRawLongBits(3)),
+                new Sample(T0 + 3, Double.doubleToRawLongBits(4)));
+    }
+
+    @Test
+    void decodingNoSamplesCallsNothing() {
+        assertThat(decode(new byte[0], 0)).isEmpty();
+    }
+
+    private static byte[] roundTrip(long[] timestamps, double[] values) {
+        var encoded = GorillaCodec.encode(timestamps, values, 0, timestamps.length);
+        var expected = new ArrayList<Sample>(timestamps.length);
+        for (int i = 0; i < timestamps.length; i++) {
+            expected.add(new Sample(timestamps[i], Double.doubleToRawLongBits(values[i])));
+        }
+        assertThat(decode(encoded, timestamps.length))
+                .as("timestamps %s", Arrays.toString(timestamps))
+                .containsExactlyElementsOf(expected);
+        return encoded;
+    }
+
+    private static List<Sample> decode(byte[] data, int count) {
+        List<Sample> samples = new ArrayList<>(count);
+        GorillaCodec.decode(data, count,
+                (timestamp, value) -> samples.add(new Sample(timestamp, Double.doubleToRawLongBits(value))));
+        return samples;
+    }
+}
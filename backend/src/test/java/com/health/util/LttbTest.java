@@ -0,0 +1,93 @@
+package com.health.util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class LttbTest {
+
+    @Test
+    void keepsEverythingWhenThresholdCoversTheSeries() {
+        var x = new long[]{1, 2, 3, 4, 5};
+        var y = new double[]{5, 1, 4, 2, 3};
+
+        assertThat(Lttb.downsample(x, y, 5, 5)).isEqualTo(5);
+        assertThat(Lttb.downsample(x, y, 5, 100)).isEqualTo(5);
+        assertThat(x).containsExactly(1, 2, 3, 4, 5);
+        assertThat(y).containsExactly(5, 1, 4, 2, 3);
+    }
+
+    @Test
+    void rejectsThresholdBelowThree() {
+        assertThatThrownBy(() -> Lttb.downsample(new long[10], new double[10], 10, 2))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> Lttb.downsample(new long[2], new double[2], 2, 0))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void keepsFirstAndLastPointsInOrder() {
+        var random = new Random(7);
+        var n = 1_000;
+        var x = new long[n];
+        var y = new double[n];
+        for (int i = 0; i < n; i++) {
+            x[i] = 10L * i;
+            y[i] = random.nextGaussian();
+        }
+        var first = y[0];
+        var last = y[n - 1];
+
+        var kept = Lttb.downsample(x, y, n, 50);
+
+        assertThat(kept).isEqualTo(50);
+        assertThat(x[0]).isZero();
+        assertThat(y[0]).isEqualTo(first);
+        assertThat(x[kept - 1]).isEqualTo(10L * (n - 1));
+        assertThat(y[kept - 1]).isEqualTo(last);
+        for (int i = 1; i < kept; i++) {
+            assertThat(x[i]).isGreaterThan(x[i - 1]);
+        }
+    }
+
+    /**
+     * A single spike on an otherwise flat series is kept wherever it sits, so every inner point belongs to
+     * exactly one bucket, including the points at fractional bucket boundaries.
+     */
+    @ParameterizedTest
+    @CsvSource({"10, 4", "11, 5", "12, 5", "100, 7", "101, 3", "64, 63"})
+    void keepsASpikeAtEveryPosition(int n, int threshold) {
+        for (int spike = 1; spike < n - 1; spike++) {
+            var x = new long[n];
+            var y = new double[n];
+            for (int i = 0; i < n; i++) {
+                x[i] = i;
+            }
+            y[spike] = 1_000;
+
+            var kept = Lttb.downsample(x, y, n, threshold);
+
+            assertThat(kept).isEqualTo(threshold);
+            assertThat(Arrays.copyOf(x, kept)).as("spike at %d", spike).contains(spike);
+        }
+    }
+
+    @Test
+    void bucketsSplitTheInnerPointsEvenly() {
+        // 8 inner points in 2 buckets: [1, 5) and [5, 9); the larger outlier of each bucket is kept
+        var x = new long[]{0, 1, 2, 3, 4, 5, 6, 7, 8, 9};
+        var y = new double[]{0, 0, 0, 0, 9, -9, 0, 0, 0, 0};
+
+        var kept = Lttb.downsample(x, y, 10, 4);
+
+        assertThat(kept).isEqualTo(4);
+        assertThat(Arrays.copyOf(x, kept)).containsExactly(0, 4, 5, 9);
+        assertThat(Arrays.copyOf(y, kept)).containsExactly(0, 9, -9, 0);
+    }
+}
@@ -0,0 +1,120 @@
+package com.health.util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares the skip list against a sorted list after random interleavings of put, update and remove, with
+ * few distinct scores so that ties (broken by ascending id) are common.
+ */
+class RankedScoreSetTest {
+    private static final Comparator<RankedScoreSet.Entry> RANK_ORDER = Comparator
+            .comparingDouble(RankedScoreSet.Entry::score).reversed()
+            .thenComparingLong(RankedScoreSet.Entry::id);
+
+    @ParameterizedTest
+    @ValueSource(longs = {1, 2, 3, 4, 5})
+    void matchesSortedReferenceUnderRandomOperations(long seed) {
+        var random = new Random(seed);
+        var set = new RankedScoreSet();
+        Map<Long, Double> reference = new HashMap<>();
+
+        for (int step = 0; step < 5_000; step++) {
+            long id = random.nextInt(300);
+            switch (random.nextInt(10)) {
+                case 0, 1, 2 -> {
+                    set.remove(id);
+                    reference.remove(id);
+                }
+                default -> {
+                    // Mostly a handful of integral scores, sometimes a fractional one
+                    var score = random.nextInt(4) == 0 ? random.nextInt(1_000) / 8.0 : random.nextInt(5);
+                    set.put(id, score);
+                    reference.put(id, score);
+                }
+            }
+            if (step % 50 == 0) {
+                assertMatches(set, reference);
+            }
+        }
+        assertMatches(set, reference);
+
+        // Drain completely, then refill: the levels shrink and grow again
+        for (var id : new ArrayList<>(reference.keySet())) {
+            set.remove(id);
+        }
+        reference.clear();
+        assertMatches(set, reference);
+        for (long id = 0; id < 100; id++) {
+            set.put(id, id % 3);
+            reference.put(id, (double) (id % 3));
+        }
+        assertMatches(set, reference);
+    }
+
+    @Test
+    void tiesRankByAscendingId() {
+        var set = new RankedScoreSet();
+        set.put(30, 10);
+        set.put(10, 10);
+        set.put(20, 10);
+        set.put(5, 9);
+        set.put(40, 11);
+
+        assertThat(set.top(10)).extracting(RankedScoreSet.Entry::id).containsExactly(40L, 10L, 20L, 30L, 5L);
+        assertThat(set.rank(40)).isEqualTo(1);
+        assertThat(set.rank(20)).isEqualTo(3);
+        assertThat(set.rank(5)).isEqualTo(5);
+    }
+
+    @Test
+    void updateMovesTheEntryAndAbsentEntriesHaveNoRank() {
+        var set = new RankedScoreSet();
+        set.put(1, 5);
+        set.put(2, 3);
+        set.put(2, 7);
+        set.put(2, 7);
+
+        assertThat(set.size()).isEqualTo(2);
+        assertThat(set.rank(2)).isEqualTo(1);
+        assertThat(set.rank(1)).isEqualTo(2);
+        assertThat(set.rank(3)).isZero();
+        assertThat(set.score(3)).isNaN();
+
+        set.remove(2);
+        set.remove(2);
+        assertThat(set.size()).isEqualTo(1);
+        assertThat(set.rank(2)).isZero();
+        assertThat(set.rank(1)).isEqualTo(1);
+    }
+
+    private static void assertMatches(RankedScoreSet set, Map<Long, Double> reference) {
+        List<RankedScoreSet.Entry> expected = new ArrayList<>();
+        reference.forEach((id, score) -> expected.add(new RankedScoreSet.Entry(id, score)));
+        expected.sort(RANK_ORDER);
+
+        assertThat(set.size()).isEqualTo(expected.size());
+        assertThat(set.top(Integer.MAX_VALUE)).containsExactlyElementsOf(expected);
+        assertThat(set.top(10)).containsExactlyElementsOf(expected.subList(0, Math.min(10, expected.size())));
+        for (int i = 0; i < expected.size(); i++) {
+            var entry = expected.get(i);
+            assertThat(set.rank(entry.id())).as("rank of %d", entry.id()).isEqualTo(i + 1);
+            assertThat(set.score(entry.id())).isEqualTo(entry.score());
+        }
+        for (long id = 0; id < 300; id++) {
+            if (!reference.containsKey(id)) {
+                assertThat(set.rank(id)).isZero();
+            }
+        }
+    }
+}
@@ -59,6 +59,8 @@ export default function HealthHistoryScreen() {
     const [mealLogs, setMealLogs] = useState<any[]>([]);
     const [loadingMeal, setLoadingMeal] = useState(true);
     const [refreshingMeal, setRefreshingMeal] = useState(false);
+    const [mealCursor, setMealCursor] = useState<string | null>(null);
+    const [loadingMoreMeal, setLoadingMoreMeal] = useState(false);
     const [modalMeal, setModalMeal] = useState(false);
 
     const [mealList, setMealList] = useState<any[]>([]);
@@ -113,18 +115,19 @@ export default function HealthHistoryScreen() {
     }, [token]);
 
     /** =========================
-     * FETCH MEAL LOG LIST
+     * FETCH MEAL LOG LIST (trang đầu; các trang sau theo nextCursor khi cuộn tới cuối)
      ========================= */
     const fetchMealLogs = useCallback(async () => {
         try {
-            const res = await fetch(`${APP_CONFIG.BASE_URL}/meal-logs/my`, {
+            const res = await fetch(`${APP_CONFIG.BASE_URL}/meal-logs/my?size=50`, {
                 headers: {Authorization: `Bearer ${token}`}
             });
 
             const json = await res.json();
             if (!res.ok) throw new Error(json.message);
 
-            setMealLogs(json.data ?? json);
+            setMealLogs(json.data?.content ?? []);
+            setMealCursor(json.data?.nextCursor ?? null);
         } catch (e: any) {
             Alert.alert("Lỗi", e.message);
         } finally {
@@ -133,6 +136,27 @@ export default function HealthHistoryScreen() {
         }
     }, [token]);
 
+    const loadMoreMealLogs = useCallback(async () => {
+        if (!mealCursor || loadingMoreMeal) return;
+        setLoadingMoreMeal(true);
+        try {
+            const res = await fetch(
+                `${APP_CONFIG.BASE_URL}/meal-logs/my?size=50&cursor=${encodeURIComponent(mealCursor)}`, {
+                    headers: {Authorization: `Bearer ${token}`}
+                });
+
+            const json = await res.json();
+            if (!res.ok) throw new Error(json.message);
+
+            setMealLogs((prev) => [...prev, ...(json.data?.content ?? [])]);
+            setMealCursor(json.data?.nextCursor ?? null);
+        } catch (e: any) {
+            Alert.alert("Lỗi", e.message);
+        } finally {
+            setLoadingMoreMeal(false);
+        }
+    }, [token, mealCursor, loadingMoreMeal]);
+
     /** =========================
      * FETCH MEAL LIST (for dropdown)
      ========================= */
@@ -459,6 +483,11 @@ export default function HealthHistoryScreen() {
                             data={mealLogs}
                             renderItem={renderMeal}
                             keyExtractor={(item) => item.id?.toString?.() ?? Math.random().toString()}
+                            onEndReached={loadMoreMealLogs}
+                            onEndReachedThreshold={0.5}
+                            ListFooterComponent={
+                                loadingMoreMeal ? <ActivityIndicator style={{marginVertical: 16}} color="#FF9800"/> : null
+                            }
                             refreshControl={
                                 <RefreshControl
                                     refreshing={refreshingMeal}
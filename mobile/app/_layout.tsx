@@ -4,6 +4,9 @@ import {StatusBar} from 'expo-status-bar';
 import 'react-native-reanimated';
 
 import {useColorScheme} from '@/hooks/use-color-scheme';
+import {installTokenRefresh} from '@/store/tokenRefresh';
+
+installTokenRefresh();
 
 export const unstable_settings = {
     anchor: '(tabs)',
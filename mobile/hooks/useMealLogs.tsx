@@ -6,18 +6,21 @@ export function useMealLogs(token: string) {
     const [logs, setLogs] = useState<any[]>([]);
     const [loading, setLoading] = useState(true);
     const [refreshing, setRefreshing] = useState(false);
+    const [nextCursor, setNextCursor] = useState<string | null>(null);
+    const [loadingMore, setLoadingMore] = useState(false);
     const [mealList, setMealList] = useState<any[]>([]);
     const [loadingMealList, setLoadingMealList] = useState(true);
 
     const fetchMealLogs = useCallback(async () => {
         try {
-            const res = await fetch(`${APP_CONFIG.BASE_URL}/meal-logs/my`, {
+            const res = await fetch(`${APP_CONFIG.BASE_URL}/meal-logs/my?size=50`, {
                 headers: {Authorization: `Bearer ${token}`}
             });
             const json = await res.json();
             if (!res.ok) throw new Error(json.message);
 
-            setLogs(json.data ?? []);
+            setLogs(json.data?.content ?? []);
+            setNextCursor(json.data?.nextCursor ?? null);
         } catch (e: any) {
             Alert.alert("Error", e.message);
         } finally {
@@ -26,6 +29,27 @@ export function useMealLogs(token: string) {
         }
     }, [token]);
 
+    // Next page of the keyset-paginated history; no-op once the last page was loaded
+    const loadMore = useCallback(async () => {
+        if (!nextCursor || loadingMore) return;
+        setLoadingMore(true);
+        try {
+            const res = await fetch(
+                `${APP_CONFIG.BASE_URL}/meal-logs/my?size=50&cursor=${encodeURIComponent(nextCursor)}`, {
+                    headers: {Authorization: `Bearer ${token}`}
+                });
+            const json = await res.json();
+            if (!res.ok) throw new Error(json.message);
+
+            setLogs((prev) => [...prev, ...(json.data?.content ?? [])]);
+            setNextCursor(json.data?.nextCursor ?? null);
+        } catch (e: any) {
+            Alert.alert("Error", e.message);
+        } finally {
+            setLoadingMore(false);
+        }
+    }, [token, nextCursor, loadingMore]);
+
     const fetchMealList = useCallback(async () => {
         try {
             const res = await fetch(`${APP_CONFIG.BASE_URL}/admin/meals`, {
@@ -68,8 +92,11 @@ export function useMealLogs(token: string) {
         loading,
         loadingMealList,
         refreshing,
+        loadingMore,
+        hasMore: nextCursor !== null,
 
         fetchMealLogs,
+        loadMore,
         fetchMealList,
         addMeal,
         setRefreshing
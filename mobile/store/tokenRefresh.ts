@@ -0,0 +1,52 @@
+import {APP_CONFIG} from '@/constants/app-config';
+import {useAuthStore} from './authStore';
+
+/**
+ * Access tokens are short-lived. When an authenticated request gets a 401, exchange the refresh token
+ * once (concurrent requests share the same exchange), store the new tokens and retry with the new access
+ * token. A failed exchange logs the user out.
+ */
+let pending: Promise<string | null> | null = null;
+
+async function refreshAccessToken(baseFetch: typeof fetch): Promise<string | null> {
+    const {user, login, logout} = useAuthStore.getState();
+    if (!user?.refreshToken) {
+        return null;
+    }
+    try {
+        const res = await baseFetch(`${APP_CONFIG.BASE_URL}${APP_CONFIG.API.AUTH.REFRESH}`, {
+            method: 'POST',
+            headers: {'Content-Type': 'application/json'},
+            body: JSON.stringify({refreshToken: user.refreshToken}),
+        });
+        if (!res.ok) {
+            logout();
+            return null;
+        }
+        const data = await res.json();
+        login({...user, ...data});
+        return data.token ?? null;
+    } catch {
+        return null;
+    }
+}
+
+export function installTokenRefresh() {
+    const baseFetch = globalThis.fetch;
+    globalThis.fetch = async (input: RequestInfo | URL, init?: RequestInit) => {
+        const res = await baseFetch(input, init);
+        const headers = (init?.headers ?? {}) as Record<string, string>;
+        const url = typeof input === 'string' ? input : input.toString();
+        if (res.status !== 401 || !headers.Authorization?.startsWith('Bearer ') || url.includes('/auth/')) {
+            return res;
+        }
+        pending ??= refreshAccessToken(baseFetch).finally(() => {
+            pending = null;
+        });
+        const token = await pending;
+        if (!token) {
+            return res;
+        }
+        return baseFetch(input, {...init, headers: {...headers, Authorization: `Bearer ${token}`}});
+    };
+}
@@ -1,6 +1,6 @@
 // app/api/apiClient.ts
-import axios from 'axios';
-import { API_BASE_URL } from '@/constants/api';
+import axios, { AxiosError, InternalAxiosRequestConfig } from 'axios';
+import { API_BASE_URL, API_ENDPOINTS } from '@/constants/api';
 
 const apiClient = axios.create({
     baseURL: API_BASE_URL,
@@ -15,4 +15,49 @@ apiClient.interceptors.request.use((config) => {
     return config;
 });
 
+/**
+ * Access tokens are short-lived. On a 401 the refresh token is exchanged once (concurrent requests share
+ * the same exchange), the new tokens are stored and the request is retried; a failed exchange sends the
+ * admin back to the login page.
+ */
+let pendingRefresh: Promise<string | null> | null = null;
+
+async function refreshAccessToken(): Promise<string | null> {
+    const refreshToken = localStorage.getItem('refresh_token');
+    if (!refreshToken) return null;
+    try {
+        // Plain axios, so the exchange itself never goes through these interceptors
+        const res = await axios.post(API_ENDPOINTS.AUTH.REFRESH, { refreshToken });
+        const { token, refreshToken: rotated } = res.data;
+        localStorage.setItem('auth_token', token);
+        localStorage.setItem('refresh_token', rotated);
+        return token;
+    } catch {
+        return null;
+    }
+}
+
+apiClient.interceptors.response.use(
+    (response) => response,
+    async (error: AxiosError) => {
+        const config = error.config as (InternalAxiosRequestConfig & { _retried?: boolean }) | undefined;
+        if (error.response?.status !== 401 || !config || config._retried || config.url?.includes('/auth/')
+            || typeof window === 'undefined') {
+            return Promise.reject(error);
+        }
+        pendingRefresh ??= refreshAccessToken().finally(() => {
+            pendingRefresh = null;
+        });
+        const token = await pendingRefresh;
+        if (!token) {
+            localStorage.clear();
+            window.location.href = '/login';
+            return Promise.reject(error);
+        }
+        config._retried = true;
+        config.headers.Authorization = `Bearer ${token}`;
+        return apiClient(config);
+    }
+);
+
 export default apiClient;
@@ -6,6 +6,7 @@ export const API_ENDPOINTS = {
         LOGIN: `${API_BASE_URL}/auth/login-admin`,
         REGISTER: `${API_BASE_URL}/auth/register`,
         PROFILE: `${API_BASE_URL}/auth/profile`,
+        REFRESH: `${API_BASE_URL}/auth/refresh`,
     },
     WORKOUTS: {
         ADMIN: `${API_BASE_URL}/admin/workouts`